@@ -15,4 +15,39 @@ public class AppointmentProperties {
     private String timeValidatorStrategy = "fullHour";
     private String bookingStrategy = AppointmentBookingStrategy.OPTIMISTIC.name();
     private String repository = "in-memory";
+    private Journal journal = new Journal();
+    private H2 h2 = new H2();
+    private SingleWriter singleWriter = new SingleWriter();
+    private SlotCache slotCache = new SlotCache();
+
+    @Getter
+    @Setter
+    public static class Journal {
+        private String path = "data/appointments.journal";
+        private String storePath = "data/stores.journal";
+        private int maxBatchSize = 256;
+        private String snapshotDirectory = "data/snapshots";
+        private long snapshotIntervalSeconds = 300;
+        private int snapshotsRetained = 2;
+        private int replayThreads = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Getter
+    @Setter
+    public static class H2 {
+        private int maxBatchSize = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class SingleWriter {
+        private int maxBatchSize = 256;
+        private int writerThreads = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Getter
+    @Setter
+    public static class SlotCache {
+        private long maximumSize = 10_000;
+    }
 }
@@ -0,0 +1,58 @@
+package com.company.calendar.config.swagger.appointment;
+
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.*;
+
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(value = {
+        @ApiResponse(
+                responseCode = "201",
+                description = "Appointment booked with the least loaded free team member",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": true,
+              "message": "Appointment booked successfully for owner id: 2",
+              "appointmentId": "0d8f8a0e-7c41-4d7e-9a57-3f0e0f6b1c2a",
+              "ownerId": "2"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "200",
+                description = "Appointment already exists for duplicate request",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": true,
+              "message": "Team appointment already exists",
+              "appointmentId": "0d8f8a0e-7c41-4d7e-9a57-3f0e0f6b1c2a"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request - Invalid input or no team member available",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "No team member is available at: 2025-08-15 14:00:00"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "500",
+                description = "Unexpected server error",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Unexpected error occurred while creating appointment"
+            }
+        """))
+        )
+})
+public @interface ApiResponsesBookTeamAppointment {}
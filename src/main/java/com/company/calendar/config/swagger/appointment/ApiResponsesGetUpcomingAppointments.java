@@ -21,6 +21,10 @@ import java.lang.annotation.*;
             }
         """))
         ),
+        @ApiResponse(
+                responseCode = "304",
+                description = "Not Modified - If-None-Match matches the current ETag of the upcoming appointments, no body"
+        ),
         @ApiResponse(
                 responseCode = "400",
                 description = "Bad Request - Invalid input",
@@ -25,6 +25,10 @@ import java.lang.annotation.Target;
             }
         """))
         ),
+        @ApiResponse(
+                responseCode = "304",
+                description = "Not Modified - If-None-Match matches the current ETag of the available slots, no body"
+        ),
         @ApiResponse(
                 responseCode = "400",
                 description = "Bad Request - Invalid input",
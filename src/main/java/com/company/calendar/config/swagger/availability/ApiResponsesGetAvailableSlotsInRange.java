@@ -0,0 +1,49 @@
+package com.company.calendar.config.swagger.availability;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(value = {
+        @ApiResponse(
+                responseCode = "200",
+                description = "Available slots fetched successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": true,
+              "message": "Available slots fetched successfully for owner id: 1"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request - Invalid input",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Invalid request: Range can span at most 90 days"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "500",
+                description = "Unexpected server error",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Failed to fetch slots due to server error"
+            }
+        """))
+        )
+})
+public @interface ApiResponsesGetAvailableSlotsInRange {}
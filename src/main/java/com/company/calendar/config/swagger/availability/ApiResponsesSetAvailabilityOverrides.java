@@ -0,0 +1,44 @@
+package com.company.calendar.config.swagger.availability;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.lang.annotation.*;
+
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(value = {
+        @ApiResponse(
+                responseCode = "200",
+                description = "Availability overrides saved successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": true,
+              "message": "Availability overrides saved successfully for owner id: 1"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "400",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Invalid request: Holiday calendar not found with id: public-holidays-de"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "500",
+                description = "Unexpected server error",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Unexpected error occurred while saving availability overrides"
+            }
+        """))
+        )
+})
+public @interface ApiResponsesSetAvailabilityOverrides {}
@@ -0,0 +1,47 @@
+package com.company.calendar.config.swagger.availability;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ApiResponses(value = {
+        @ApiResponse(
+                responseCode = "200",
+                description = "Available slots streamed one per line (application/x-ndjson) or one per event (text/event-stream)",
+                content = @Content(mediaType = "application/x-ndjson", schema = @Schema(example = """
+            {"startDateTime":"2025-09-01 09:00:00","endDateTime":"2025-09-01 10:00:00"}
+            {"startDateTime":"2025-09-01 10:00:00","endDateTime":"2025-09-01 11:00:00"}
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request - Invalid input",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Invalid request: Range can span at most 366 days"
+            }
+        """))
+        ),
+        @ApiResponse(
+                responseCode = "500",
+                description = "Unexpected server error",
+                content = @Content(mediaType = "application/json", schema = @Schema(example = """
+            {
+              "success": false,
+              "message": "Failed to fetch slots due to server error"
+            }
+        """))
+        )
+})
+public @interface ApiResponsesStreamAvailableSlots {}
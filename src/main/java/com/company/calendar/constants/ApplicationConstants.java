@@ -8,4 +8,11 @@ import static lombok.AccessLevel.PRIVATE;
 public class ApplicationConstants {
     public static final String YYYY_MM_DD_HH_MM_SS_FORMAT = "yyyy-MM-dd HH:mm:ss";
     public static final String ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX = "^[a-zA-Z0-9_-]+$";
+    public static final int MAX_SLOT_RANGE_DAYS = 90;
+    public static final int MAX_SLOT_STREAM_DAYS = 366;
+    public static final int MAX_COLLECTIVE_OWNERS = 50;
+    public static final int MAX_BULK_OWNERS = 100;
+    public static final int MAX_TEAM_MEMBERS = 200;
+    public static final int MIN_APPOINTMENT_MINUTES = 15;
+    public static final int MAX_APPOINTMENT_MINUTES = 8 * 60;
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.company.calendar.controller;
 
 import com.company.calendar.config.swagger.appointment.ApiResponsesBookAppointment;
+import com.company.calendar.config.swagger.appointment.ApiResponsesBookTeamAppointment;
 import com.company.calendar.config.swagger.appointment.ApiResponsesGetUpcomingAppointments;
 import com.company.calendar.dto.appointment.BookAppointmentRequest;
 import com.company.calendar.dto.appointment.BookAppointmentResponseDto;
+import com.company.calendar.dto.appointment.BookTeamAppointmentRequest;
 import com.company.calendar.dto.appointment.UpcomingAppointmentsResponseDto;
 import com.company.calendar.service.appointment.AppointmentService;
+import com.company.calendar.service.appointment.TeamAppointmentService;
 import com.company.calendar.utils.DateUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import static com.company.calendar.constants.ApplicationConstants.ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX;
 
@@ -30,6 +34,7 @@ import static com.company.calendar.constants.ApplicationConstants.ALPHANUMERIC_H
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final TeamAppointmentService teamAppointmentService;
 
     @Operation(
             summary = "Book an appointment",
@@ -64,9 +69,44 @@ public class AppointmentController {
                         .build());
     }
 
+    @Operation(
+            summary = "Book an appointment with a team",
+            description = "Books the least loaded team member who is free at the requested start time, with idempotency support"
+    )
+    @ApiResponsesBookTeamAppointment
+    @PostMapping("/team/book")
+    public ResponseEntity<BookAppointmentResponseDto> bookTeamAppointment(
+            @RequestHeader("Idempotency-Key")
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Idempotency-Key can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Idempotency-Key must be between 1 and 64 characters")
+            @Parameter(
+                    example = "idemKey_20250808_TEAM01",
+                    description = "Unique key to ensure idempotency for booking requests. If the same key is sent twice, the same result will be returned."
+            )
+            String idempotencyKey,
+            @RequestBody
+            @Valid
+            @NotNull
+            BookTeamAppointmentRequest request) {
+        log.info("Received team appointment booking request. Idempotency-Key: {}, members: {}, invitee id: {}, dateTime={}",
+                idempotencyKey, request.getMemberIds().size(), request.getInviteeId(), DateUtils.formatDateTime(request.getStartDateTime()));
+
+        var bookAppointmentResult = teamAppointmentService.bookTeamAppointment(idempotencyKey, request);
+        return ResponseEntity
+                .status(bookAppointmentResult.isNewlyCreated() ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(BookAppointmentResponseDto.builder()
+                        .success(true)
+                        .message(bookAppointmentResult.getMessage())
+                        .appointmentId(bookAppointmentResult.getAppointmentId())
+                        .ownerId(bookAppointmentResult.getOwnerId())
+                        .build());
+    }
+
     @Operation(
             summary = "Get upcoming appointments",
-            description = "Retrieves a list of upcoming appointments for a specific owner."
+            description = "Retrieves a list of upcoming appointments for a specific owner. "
+                    + "Pages can be addressed by page number or, at constant cost for any depth, by the nextCursor of the previous response."
     )
     @ApiResponsesGetUpcomingAppointments
     @GetMapping("/owner/{ownerId}/upcoming")
@@ -95,9 +135,35 @@ public class AppointmentController {
                     example = "10",
                     description = "Number of records to fetch per page."
             )
-            int size) {
-        log.info("Fetching upcoming appointments for owner id: {}, page: {}, size: {}", ownerId, page, size);
-        var upcomingAppointments = appointmentService.getUpcomingAppointments(ownerId, page, size);
+            int size,
+            @RequestParam(required = false)
+            @Size(max = 512, message = "Cursor must not exceed 512 characters")
+            @Parameter(
+                    description = "Opaque nextCursor from a previous response. When present, page is ignored and the next page is read by key."
+            )
+            String cursor,
+            @RequestParam(defaultValue = "true")
+            @Parameter(
+                    example = "true",
+                    description = "Whether cursor pages include totalItems and totalPages. Passing false skips counting all upcoming appointments "
+                            + "and switches to cursor pagination even without a cursor, so it cannot be combined with a page other than 0."
+            )
+            boolean includeTotal,
+            WebRequest webRequest) {
+        log.info("Fetching upcoming appointments for owner id: {}, page: {}, size: {}, cursor: {}, includeTotal: {}",
+                ownerId, page, size, cursor, includeTotal);
+        //without a cursor, includeTotal=false reads the first page by key, a page number would silently be dropped
+        if (cursor == null && !includeTotal && page != 0) {
+            throw new IllegalArgumentException("page cannot be combined with includeTotal=false, use the nextCursor of the previous response");
+        }
+        //sets the ETag header, and answers 304 without reading the page when If-None-Match still matches
+        if (webRequest.checkNotModified(appointmentService.getUpcomingAppointmentsETag(ownerId))) {
+            log.info("Upcoming appointments not modified for owner id: {}", ownerId);
+            return null;
+        }
+        var upcomingAppointments = cursor != null || !includeTotal
+                ? appointmentService.getUpcomingAppointmentsByCursor(ownerId, cursor, size, includeTotal)
+                : appointmentService.getUpcomingAppointments(ownerId, page, size);
         return ResponseEntity.ok(upcomingAppointments);
     }
 }
@@ -2,10 +2,23 @@ package com.company.calendar.controller;
 
 import com.company.calendar.config.swagger.availability.ApiResponsesCreateAvailability;
 import com.company.calendar.config.swagger.availability.ApiResponsesGetAvailableSlots;
+import com.company.calendar.config.swagger.availability.ApiResponsesGetAvailableSlotsForOwners;
+import com.company.calendar.config.swagger.availability.ApiResponsesGetCollectiveAvailableSlots;
+import com.company.calendar.config.swagger.availability.ApiResponsesGetNextAvailableSlot;
+import com.company.calendar.config.swagger.availability.ApiResponsesGetAvailableSlotsInRange;
 import com.company.calendar.config.swagger.availability.ApiResponsesSetAvailability;
+import com.company.calendar.config.swagger.availability.ApiResponsesSetAvailabilityOverrides;
+import com.company.calendar.config.swagger.availability.ApiResponsesSetHolidayCalendar;
+import com.company.calendar.config.swagger.availability.ApiResponsesStreamAvailableSlots;
+import com.company.calendar.dto.availability.AvailabilityOverridesRequest;
 import com.company.calendar.dto.availability.AvailabilityRuleSetupResponse;
 import com.company.calendar.dto.availability.AvailabilityRuleSetupRequest;
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.dto.availability.AvailableSlotsByOwnerResponse;
+import com.company.calendar.dto.availability.AvailableSlotsRangeResponse;
 import com.company.calendar.dto.availability.AvailableSlotsResponse;
+import com.company.calendar.dto.availability.HolidayCalendarRequest;
+import com.company.calendar.dto.availability.NextAvailableSlotResponse;
 import com.company.calendar.service.availability.AvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,13 +28,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 import static com.company.calendar.constants.ApplicationConstants.ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX;
+import static com.company.calendar.constants.ApplicationConstants.MAX_BULK_OWNERS;
+import static com.company.calendar.constants.ApplicationConstants.MAX_COLLECTIVE_OWNERS;
+import static com.company.calendar.constants.ApplicationConstants.MAX_SLOT_RANGE_DAYS;
+import static com.company.calendar.constants.ApplicationConstants.YYYY_MM_DD_HH_MM_SS_FORMAT;
 
 @RestController
 @RequestMapping("/availability")
@@ -61,6 +84,44 @@ public class AvailabilityController {
                         .build());
     }
 
+    @Operation(summary = "Set availability overrides",
+            description = "Replaces the owner's date-specific blackouts and extra hours and the shared holiday calendars the owner follows.")
+    @ApiResponsesSetAvailabilityOverrides
+    @PutMapping("/{ownerId}/overrides")
+    public ResponseEntity<AvailabilityRuleSetupResponse> setAvailabilityOverrides(
+            @PathVariable
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Owner Id must be between 1 and 64 characters")
+            String ownerId,
+            @RequestBody @Valid AvailabilityOverridesRequest request) {
+        log.info("Received PUT /{}/overrides request to set availability overrides for ownerId: {}", ownerId, ownerId);
+        var message = availabilityService.setAvailabilityOverrides(ownerId, request);
+        return ResponseEntity.ok(AvailabilityRuleSetupResponse.builder()
+                .success(true)
+                .message(message)
+                .build());
+    }
+
+    @Operation(summary = "Set holiday calendar",
+            description = "Creates or replaces a holiday calendar that many owners can follow. Holidays are blacked out for every owner following the calendar.")
+    @ApiResponsesSetHolidayCalendar
+    @PutMapping("/holiday-calendars/{calendarId}")
+    public ResponseEntity<AvailabilityRuleSetupResponse> setHolidayCalendar(
+            @PathVariable
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Holiday calendar Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Holiday calendar Id must be between 1 and 64 characters")
+            String calendarId,
+            @RequestBody @Valid HolidayCalendarRequest request) {
+        log.info("Received PUT /holiday-calendars/{} request", calendarId);
+        var message = availabilityService.saveHolidayCalendar(calendarId, request);
+        return ResponseEntity.ok(AvailabilityRuleSetupResponse.builder()
+                .success(true)
+                .message(message)
+                .build());
+    }
+
     @Operation(summary = "Get available slots", description = "Fetches available time slots for the given owner on a specific date.")
     @GetMapping("/{ownerId}/slots")
     @ApiResponsesGetAvailableSlots
@@ -74,8 +135,14 @@ public class AvailabilityController {
             @NotNull
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
             @FutureOrPresent
-            LocalDate date) {
+            LocalDate date,
+            WebRequest webRequest) {
         log.info("Received GET /{}/slots request for ownerId: {} on date: {}", ownerId, ownerId, date);
+        //sets the ETag header, and answers 304 without fetching the slots when If-None-Match still matches
+        if (webRequest.checkNotModified(availabilityService.getAvailableSlotsETag(ownerId, date))) {
+            log.info("Slots not modified for ownerId: {} on {}", ownerId, date);
+            return null;
+        }
         var slots = availabilityService.getAvailableSlots(ownerId, date);
         var message = slots.isEmpty() ? "No Available slots found" : "Available slots fetched successfully";
         log.info("Slot fetch result for ownerId: {} on {}: {}", ownerId, date, message);
@@ -87,4 +154,152 @@ public class AvailabilityController {
                         .build()
         );
     }
+
+    @Operation(summary = "Get available slots of several owners",
+            description = "Fetches available time slots for each of the given owners on a specific date, keyed by owner id.")
+    @GetMapping("/slots")
+    @ApiResponsesGetAvailableSlotsForOwners
+    public ResponseEntity<AvailableSlotsByOwnerResponse> getAvailableSlotsForOwners(
+            @RequestParam
+            @NotEmpty
+            @Size(max = MAX_BULK_OWNERS, message = "At most " + MAX_BULK_OWNERS + " owner ids are allowed")
+            Set<@Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+                @Size(max = 64, message = "Owner Id must be between 1 and 64 characters") String> ownerIds,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @FutureOrPresent
+            LocalDate date) {
+        log.info("Received GET /slots request for {} owner(s) on date: {}", ownerIds.size(), date);
+        var slotsByOwner = availabilityService.getAvailableSlotsForOwners(ownerIds, date);
+        var message = slotsByOwner.values().stream().allMatch(List::isEmpty)
+                ? "No Available slots found" : "Available slots fetched successfully";
+        log.info("Bulk slot fetch result for {} owner(s) on {}: {}", ownerIds.size(), date, message);
+        return ResponseEntity.ok(
+                AvailableSlotsByOwnerResponse.builder()
+                        .success(true)
+                        .message(message + " for " + ownerIds.size() + " owner(s)")
+                        .slotsByOwner(slotsByOwner)
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Get next available slot",
+            description = "Fetches the earliest available time slot of the given owner starting at or after 'after' (default now), searching at most 90 days ahead.")
+    @GetMapping("/{ownerId}/slots/next")
+    @ApiResponsesGetNextAvailableSlot
+    public ResponseEntity<NextAvailableSlotResponse> getNextAvailableSlot(
+            @PathVariable
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Owner Id must be between 1 and 64 characters")
+            String ownerId,
+            @RequestParam(required = false)
+            @DateTimeFormat(pattern = YYYY_MM_DD_HH_MM_SS_FORMAT)
+            LocalDateTime after) {
+        log.info("Received GET /{}/slots/next request for ownerId: {} after: {}", ownerId, ownerId, after);
+        //slots in the past can not be booked anymore
+        var now = LocalDateTime.now();
+        var from = after == null || after.isBefore(now) ? now : after;
+        var slot = availabilityService.findNextAvailableSlot(ownerId, from);
+        var message = slot.isEmpty() ? "No Available slot found within " + MAX_SLOT_RANGE_DAYS + " days" : "Next available slot fetched successfully";
+        log.info("Next slot fetch result for ownerId: {} after {}: {}", ownerId, from, message);
+        return ResponseEntity.ok(
+                NextAvailableSlotResponse.builder()
+                        .success(true)
+                        .message(message + " for owner id: " + ownerId)
+                        .slot(slot.orElse(null))
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Get available slots for a date range",
+            description = "Fetches available time slots for the given owner on every date from 'from' to 'to' (both inclusive, at most 90 days), grouped by date.")
+    @GetMapping("/{ownerId}/slots/range")
+    @ApiResponsesGetAvailableSlotsInRange
+    public ResponseEntity<AvailableSlotsRangeResponse> getAvailableSlotsInRange(
+            @PathVariable
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Owner Id must be between 1 and 64 characters")
+            String ownerId,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @FutureOrPresent
+            LocalDate from,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to) {
+        log.info("Received GET /{}/slots/range request for ownerId: {} from: {} to: {}", ownerId, ownerId, from, to);
+        var slotsByDate = availabilityService.getAvailableSlotsInRange(ownerId, from, to);
+        var message = slotsByDate.values().stream().allMatch(List::isEmpty)
+                ? "No Available slots found" : "Available slots fetched successfully";
+        log.info("Slot range fetch result for ownerId: {} from {} to {}: {}", ownerId, from, to, message);
+        return ResponseEntity.ok(
+                AvailableSlotsRangeResponse.builder()
+                        .success(true)
+                        .message(message + " for owner id: " + ownerId)
+                        .slotsByDate(slotsByDate)
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Stream available slots for a date range",
+            description = "Streams available time slots for the given owner on every date from 'from' to 'to' (both inclusive, at most 366 days) "
+                    + "in start time order, as newline delimited JSON or Server-Sent Events depending on the Accept header.")
+    @GetMapping(value = "/{ownerId}/slots/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ApiResponsesStreamAvailableSlots
+    public Flux<AvailableSlotDto> streamAvailableSlots(
+            @PathVariable
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Owner Id must be between 1 and 64 characters")
+            String ownerId,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @FutureOrPresent
+            LocalDate from,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to) {
+        log.info("Received GET /{}/slots/stream request for ownerId: {} from: {} to: {}", ownerId, ownerId, from, to);
+        return availabilityService.streamAvailableSlotsInRange(ownerId, from, to);
+    }
+
+    @Operation(summary = "Get collective available slots",
+            description = "Fetches the time slots in which all given owners are available and unbooked, on every date from 'from' to 'to' (both inclusive, at most 90 days), grouped by date.")
+    @GetMapping("/slots/collective")
+    @ApiResponsesGetCollectiveAvailableSlots
+    public ResponseEntity<AvailableSlotsRangeResponse> getCollectiveAvailableSlots(
+            @RequestParam
+            @NotEmpty
+            @Size(max = MAX_COLLECTIVE_OWNERS, message = "At most " + MAX_COLLECTIVE_OWNERS + " owner ids are allowed")
+            Set<@Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+                @Size(max = 64, message = "Owner Id must be between 1 and 64 characters") String> ownerIds,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @FutureOrPresent
+            LocalDate from,
+            @RequestParam
+            @NotNull
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to) {
+        log.info("Received GET /slots/collective request for ownerIds: {} from: {} to: {}", ownerIds, from, to);
+        var slotsByDate = availabilityService.getCollectiveAvailableSlots(ownerIds, from, to);
+        var message = slotsByDate.values().stream().allMatch(List::isEmpty)
+                ? "No collective available slots found" : "Collective available slots fetched successfully";
+        log.info("Collective slot fetch result for ownerIds: {} from {} to {}: {}", ownerIds, from, to, message);
+        return ResponseEntity.ok(
+                AvailableSlotsRangeResponse.builder()
+                        .success(true)
+                        .message(message + " for owner ids: " + String.join(", ", ownerIds))
+                        .slotsByDate(slotsByDate)
+                        .build()
+        );
+    }
 }
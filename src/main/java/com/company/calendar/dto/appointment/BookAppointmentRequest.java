@@ -9,6 +9,8 @@ import lombok.Getter;
 import java.time.LocalDateTime;
 
 import static com.company.calendar.constants.ApplicationConstants.ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX;
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
+import static com.company.calendar.constants.ApplicationConstants.MIN_APPOINTMENT_MINUTES;
 import static com.company.calendar.constants.ApplicationConstants.YYYY_MM_DD_HH_MM_SS_FORMAT;
 
 @Getter
@@ -32,4 +34,9 @@ public final class BookAppointmentRequest {
     @Schema(example = "2025-08-15 14:00:00",
             description = "Start date and time of the appointment in 'yyyy-MM-dd HH:mm:ss' format")
     private final LocalDateTime startDateTime;
+
+    @Min(value = MIN_APPOINTMENT_MINUTES, message = "Duration must be at least " + MIN_APPOINTMENT_MINUTES + " minutes")
+    @Max(value = MAX_APPOINTMENT_MINUTES, message = "Duration must be at most " + MAX_APPOINTMENT_MINUTES + " minutes")
+    @Schema(example = "30", description = "Length of the appointment in minutes, the configured slot length when omitted")
+    private final Integer durationMinutes;
 }
@@ -17,6 +17,10 @@ public final class BookAppointmentResponseDto {
     @Schema(description = "Unique identifier of the booked appointment")
     private final String appointmentId;
 
+    @Schema(description = "Owner the appointment was assigned to, for team bookings")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String ownerId;
+
     @Schema(description = "Error code in case the booking request failed")
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private final String errorCode;
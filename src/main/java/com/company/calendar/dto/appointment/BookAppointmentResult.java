@@ -7,6 +7,8 @@ import lombok.Getter;
 @Builder
 public final class BookAppointmentResult {
     private final String appointmentId;
+    //owner the appointment was assigned to, only known for new team bookings
+    private final String ownerId;
     private final boolean newlyCreated;
     private final String message;
 }
@@ -0,0 +1,47 @@
+package com.company.calendar.dto.appointment;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.company.calendar.constants.ApplicationConstants.ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX;
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
+import static com.company.calendar.constants.ApplicationConstants.MAX_TEAM_MEMBERS;
+import static com.company.calendar.constants.ApplicationConstants.MIN_APPOINTMENT_MINUTES;
+import static com.company.calendar.constants.ApplicationConstants.YYYY_MM_DD_HH_MM_SS_FORMAT;
+
+@Getter
+@Builder
+public final class BookTeamAppointmentRequest {
+    @NotEmpty
+    @Size(max = MAX_TEAM_MEMBERS, message = "A team can have at most " + MAX_TEAM_MEMBERS + " members")
+    @Schema(example = "[\"1\", \"2\", \"4\"]", description = "Owners of the team, any free one of them will host the appointment")
+    private final List<
+            @NotBlank
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Owner Id must be between 1 and 64 characters")
+                    String> memberIds;
+
+    @NotBlank
+    @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Owner Id can only contain letters, digits, hyphens, and underscores")
+    @Size(max = 64, message = "Owner Id must be between 1 and 64 characters")
+    @Schema(example = "3", description = "Unique identifier of the invitee who will attend the appointment")
+    private final String inviteeId;
+
+    @NotNull
+    @Future
+    @JsonFormat(pattern = YYYY_MM_DD_HH_MM_SS_FORMAT)
+    @Schema(example = "2025-08-15 14:00:00",
+            description = "Start date and time of the appointment in 'yyyy-MM-dd HH:mm:ss' format")
+    private final LocalDateTime startDateTime;
+
+    @Min(value = MIN_APPOINTMENT_MINUTES, message = "Duration must be at least " + MIN_APPOINTMENT_MINUTES + " minutes")
+    @Max(value = MAX_APPOINTMENT_MINUTES, message = "Duration must be at most " + MAX_APPOINTMENT_MINUTES + " minutes")
+    @Schema(example = "30", description = "Length of the appointment in minutes, the configured slot length when omitted")
+    private final Integer durationMinutes;
+}
@@ -1,5 +1,6 @@
 package com.company.calendar.dto.appointment;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,12 +19,19 @@ public final class UpcomingAppointmentsResponseDto {
     @Schema(description = "List of upcoming appointments")
     private final List<UpcomingAppointmentResponse> appointments;
 
-    @Schema(description = "Current page number in the paginated response")
-    private final int currentPage;
+    @Schema(description = "Current page number in the paginated response, absent for cursor requests")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer currentPage;
 
-    @Schema(description = "Total number of pages available")
-    private final int totalPages;
+    @Schema(description = "Total number of pages available, absent when totals were not requested")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer totalPages;
 
-    @Schema(description = "Total number of appointments available")
-    private final long totalItems;
+    @Schema(description = "Total number of appointments available, absent when totals were not requested")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long totalItems;
+
+    @Schema(description = "Opaque cursor for the next page, absent on the last page")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String nextCursor;
 }
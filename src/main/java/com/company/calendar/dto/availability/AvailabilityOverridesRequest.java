@@ -0,0 +1,50 @@
+package com.company.calendar.dto.availability;
+
+import com.company.calendar.enums.AvailabilityOverrideType;
+import com.company.calendar.validator.ValidAvailabilityOverrides;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.company.calendar.constants.ApplicationConstants.ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX;
+
+@Getter
+@ValidAvailabilityOverrides
+@Builder
+public final class AvailabilityOverridesRequest {
+
+    @NotNull(message = "Overrides list must not be null")
+    @Size(max = 1000, message = "A maximum of 1000 overrides per user is allowed")
+    @Valid
+    @Schema(description = "Date-specific overrides, replacing all previous ones of the owner", requiredMode = Schema.RequiredMode.REQUIRED)
+    private final List<AvailabilityOverrideRequest> overrides;
+
+    @Size(max = 10, message = "A maximum of 10 holiday calendars per user is allowed")
+    @Schema(example = "[\"public-holidays-de\"]", description = "Ids of shared holiday calendars whose holidays are blacked out for the owner")
+    private final Set<
+            @Pattern(regexp = ALPHANUMERIC_HYPHEN_UNDERSCORE_REGEX, message = "Holiday calendar Id can only contain letters, digits, hyphens, and underscores")
+            @Size(max = 64, message = "Holiday calendar Id must be between 1 and 64 characters")
+                    String> holidayCalendarIds;
+
+    @Getter
+    @Builder
+    public static class AvailabilityOverrideRequest {
+        @Schema(example = "2025-12-24", description = "Date the override applies to")
+        private final LocalDate date;
+        @Schema(example = "BLACKOUT", description = "BLACKOUT removes availability, EXTRA adds availability on top of the weekly rules")
+        private final AvailabilityOverrideType type;
+        @Schema(example = "09:00", description = "Start time in HH:mm format, omitted together with endTime to black out the whole day")
+        private final LocalTime startTime;
+        @Schema(example = "12:00", description = "End time in HH:mm format")
+        private final LocalTime endTime;
+    }
+}
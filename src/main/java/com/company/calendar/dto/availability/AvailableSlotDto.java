@@ -1,11 +1,34 @@
 package com.company.calendar.dto.availability;
 
+import com.company.calendar.utils.DateUtils;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 
-@Getter
+import java.time.LocalDate;
+
+/**
+ * A slot kept as minute offsets from the start of its date. The date is shared by all slots of a day, the text form
+ * is only produced by {@link AvailableSlotDtoSerializer} while the response is written.
+ */
+@Getter(AccessLevel.PACKAGE)
 @Builder
+@JsonSerialize(using = AvailableSlotDtoSerializer.class)
 public final class AvailableSlotDto {
-    private final String startDateTime;
-    private final String endDateTime;
+    private final LocalDate date;
+    private final int startMinute;
+    //minutes from the start of date, reaches past the day for a slot ending at midnight
+    private final int endMinute;
+
+    @Schema(example = "2025-08-08 10:00:00")
+    public String getStartDateTime() {
+        return DateUtils.formatDateTime(date.atStartOfDay().plusMinutes(startMinute));
+    }
+
+    @Schema(example = "2025-08-08 11:00:00")
+    public String getEndDateTime() {
+        return DateUtils.formatDateTime(date.atStartOfDay().plusMinutes(endMinute));
+    }
 }
@@ -0,0 +1,72 @@
+package com.company.calendar.dto.availability;
+
+import com.company.calendar.utils.DateUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes a slot as {"startDateTime":"yyyy-MM-dd HH:mm:ss","endDateTime":"yyyy-MM-dd HH:mm:ss"} straight from its
+ * minute offsets. Field names are encoded once and the digits are written from a per-thread buffer, so no formatter
+ * runs and no String is created per slot.
+ */
+public class AvailableSlotDtoSerializer extends StdSerializer<AvailableSlotDto> {
+
+    private static final SerializableString START_DATE_TIME = new SerializedString("startDateTime");
+    private static final SerializableString END_DATE_TIME = new SerializedString("endDateTime");
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int DATE_TIME_LENGTH = "yyyy-MM-dd HH:mm:ss".length();
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[DATE_TIME_LENGTH]);
+
+    public AvailableSlotDtoSerializer() {
+        super(AvailableSlotDto.class);
+    }
+
+    @Override
+    public void serialize(AvailableSlotDto slot, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(slot);
+        generator.writeFieldName(START_DATE_TIME);
+        writeDateTime(generator, slot.getDate(), slot.getStartMinute());
+        generator.writeFieldName(END_DATE_TIME);
+        writeDateTime(generator, slot.getDate(), slot.getEndMinute());
+        generator.writeEndObject();
+    }
+
+    private static void writeDateTime(JsonGenerator generator, LocalDate date, int minute) throws IOException {
+        if (minute >= MINUTES_PER_DAY) {
+            //only a slot ending at midnight gets here
+            date = date.plusDays(minute / MINUTES_PER_DAY);
+            minute %= MINUTES_PER_DAY;
+        }
+        var year = date.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(DateUtils.formatDateTime(date.atStartOfDay().plusMinutes(minute)));
+            return;
+        }
+        var buffer = BUFFER.get();
+        writeDigits(buffer, 0, year / 100);
+        writeDigits(buffer, 2, year % 100);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, date.getMonthValue());
+        buffer[7] = '-';
+        writeDigits(buffer, 8, date.getDayOfMonth());
+        buffer[10] = ' ';
+        writeDigits(buffer, 11, minute / 60);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, minute % 60);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, 0);
+        //copied into the generator's own buffer, so the thread's buffer can be reused right away
+        generator.writeString(buffer, 0, DATE_TIME_LENGTH);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int twoDigits) {
+        buffer[offset] = (char) ('0' + twoDigits / 10);
+        buffer[offset + 1] = (char) ('0' + twoDigits % 10);
+    }
+}
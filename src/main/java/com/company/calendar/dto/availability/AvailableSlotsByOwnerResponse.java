@@ -0,0 +1,23 @@
+package com.company.calendar.dto.availability;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Builder
+@Getter
+@Schema(description = "Response containing available time slots of several owners on a particular date")
+public final class AvailableSlotsByOwnerResponse {
+    @Schema(description = "Indicates if the request was successful", example = "true")
+    private final boolean success;
+    @Schema(description = "Descriptive message about the response", example = "Available slots fetched successfully for 2 owner(s)")
+    private final String message;
+    @Schema(
+            description = "Available slots with start and end time keyed by owner id",
+            example = "{\"1\":[{\"startDateTime\":\"2025-08-08 10:00:00\",\"endDateTime\":\"2025-08-08 11:00:00\"}],\"2\":[]}"
+    )
+    private final Map<String, List<AvailableSlotDto>> slotsByOwner;
+}
@@ -0,0 +1,24 @@
+package com.company.calendar.dto.availability;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Builder
+@Getter
+@Schema(description = "Response containing available time slots for an owner on every date of a range")
+public final class AvailableSlotsRangeResponse {
+    @Schema(description = "Indicates if the request was successful", example = "true")
+    private final boolean success;
+    @Schema(description = "Descriptive message about the response", example = "Available slots fetched successfully for owner id: 1")
+    private final String message;
+    @Schema(
+            description = "Available slots grouped by date, in date order. Dates without available slots map to an empty list",
+            example = "{\"2025-08-08\":[{\"startDateTime\":\"2025-08-08 10:00:00\",\"endDateTime\":\"2025-08-08 11:00:00\"}],\"2025-08-09\":[]}"
+    )
+    private final Map<LocalDate, List<AvailableSlotDto>> slotsByDate;
+}
@@ -0,0 +1,33 @@
+package com.company.calendar.dto.availability;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Builder
+public final class HolidayCalendarRequest {
+
+    @NotNull(message = "Holidays list must not be null")
+    @Size(max = 1000, message = "A maximum of 1000 holidays per calendar is allowed")
+    @Valid
+    @Schema(description = "Holidays of the calendar, replacing all previous ones", requiredMode = Schema.RequiredMode.REQUIRED)
+    private final List<HolidayRequest> holidays;
+
+    @Getter
+    @Builder
+    public static class HolidayRequest {
+        @NotNull(message = "Holiday date must not be null")
+        @Schema(example = "2025-12-25", description = "Date of the holiday")
+        private final LocalDate date;
+        @Size(max = 100, message = "Holiday name must not exceed 100 characters")
+        @Schema(example = "Christmas Day", description = "Name of the holiday")
+        private final String name;
+    }
+}
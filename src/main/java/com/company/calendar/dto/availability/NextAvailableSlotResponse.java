@@ -0,0 +1,22 @@
+package com.company.calendar.dto.availability;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder
+@Getter
+@Schema(description = "Response containing the earliest available time slot of an owner")
+public final class NextAvailableSlotResponse {
+    @Schema(description = "Indicates if the request was successful", example = "true")
+    private final boolean success;
+    @Schema(description = "Descriptive message about the response", example = "Next available slot fetched successfully for owner id: 1")
+    private final String message;
+    @Schema(
+            description = "Earliest available slot, absent if there is none within 90 days",
+            example = "{\"startDateTime\":\"2025-08-08 10:00:00\",\"endDateTime\":\"2025-08-08 11:00:00\"}"
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final AvailableSlotDto slot;
+}
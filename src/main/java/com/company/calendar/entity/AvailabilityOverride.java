@@ -0,0 +1,19 @@
+package com.company.calendar.entity;
+
+import com.company.calendar.enums.AvailabilityOverrideType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Builder
+@Getter
+public class AvailabilityOverride {
+    private String ownerId;
+    private LocalDate date;
+    private AvailabilityOverrideType type;
+    //both null for a blackout of the whole day
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -2,5 +2,7 @@ package com.company.calendar.enums;
 
 public enum AppointmentBookingStrategy {
     OPTIMISTIC,
-    PESSIMISTIC
+    PESSIMISTIC,
+    LOCK_FREE,
+    SINGLE_WRITER
 }
@@ -0,0 +1,6 @@
+package com.company.calendar.enums;
+
+public enum AvailabilityOverrideType {
+    BLACKOUT,
+    EXTRA
+}
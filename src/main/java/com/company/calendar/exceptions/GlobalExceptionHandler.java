@@ -6,6 +6,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -21,6 +22,8 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.stream.Collectors;
 
+//Error bodies set their content type, so they are written as JSON even to clients that only accept a streaming
+//type such as application/x-ndjson or text/event-stream, instead of being dropped by content negotiation.
 @RestControllerAdvice
 @Order(4)
 @Slf4j
@@ -33,7 +36,7 @@ public class GlobalExceptionHandler {
                 .message("Invalid request: " + ex.getMessage())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(IllegalStateException.class)
@@ -43,7 +46,7 @@ public class GlobalExceptionHandler {
                 .message("Slot unavailable: " + ex.getMessage())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        return ResponseEntity.status(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
@@ -70,7 +73,7 @@ public class GlobalExceptionHandler {
                 .message(message)
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
@@ -80,7 +83,7 @@ public class GlobalExceptionHandler {
                 .message("Method not allowed: " + ex.getMethod())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).body(response);
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -99,7 +102,7 @@ public class GlobalExceptionHandler {
                 .message("Validation failed: " + errorMessage)
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.badRequest().body(response);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(MissingRequestHeaderException.class)
@@ -109,7 +112,7 @@ public class GlobalExceptionHandler {
                 .message("Missing required header: " + ex.getHeaderName())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(InvalidStartDateTimeException.class)
@@ -119,7 +122,7 @@ public class GlobalExceptionHandler {
                 .message(ex.getMessage())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(NoResourceFoundException.class)
@@ -129,7 +132,7 @@ public class GlobalExceptionHandler {
                 .message("Resource not found: " + ex.getResourcePath())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -143,7 +146,7 @@ public class GlobalExceptionHandler {
                 .message("Validation failed: " + errorMessages)
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(MissingServletRequestParameterException.class)
@@ -156,7 +159,7 @@ public class GlobalExceptionHandler {
                 .message("Validation failed: " + message)
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
@@ -183,7 +186,7 @@ public class GlobalExceptionHandler {
                 .message("Validation failed: " + message)
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(Exception.class)
@@ -193,6 +196,6 @@ public class GlobalExceptionHandler {
                 .message("Unexpected error: " + ex.getMessage())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 }
@@ -4,6 +4,7 @@ import com.company.calendar.exceptions.BaseErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -20,7 +21,7 @@ public class AppointmentExceptionHandler {
                 .message(ex.getMessage())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @ExceptionHandler(SlotAlreadyBookedException.class)
@@ -30,6 +31,16 @@ public class AppointmentExceptionHandler {
                 .message(ex.getMessage())
                 .build();
         log.error(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+
+    @ExceptionHandler(NoTeamMemberAvailableException.class)
+    public ResponseEntity<BaseErrorResponse> handleNoTeamMemberAvailableException(NoTeamMemberAvailableException ex) {
+        BaseErrorResponse response = BaseErrorResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .build();
+        log.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.company.calendar.exceptions.appointment;
+
+public class NoTeamMemberAvailableException extends RuntimeException {
+    public NoTeamMemberAvailableException(String startDateTime) {
+        super("No team member is available at: " + startDateTime);
+    }
+}
@@ -0,0 +1,178 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.repository.appointment.BatchWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append only write-ahead log of records, subclasses define the binary form of a record.
+ * <p>
+ * Record layout: payload length (int), CRC32 of payload (int), payload.
+ * Appends are group committed: concurrent callers are written together and share a single fsync.
+ * On replay the first record with a bad length or checksum marks a torn write, the log is truncated there.
+ */
+@Slf4j
+public abstract class RecordJournal<T> implements AutoCloseable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+
+    private final String name;
+    private final Path path;
+    private final FileChannel channel;
+    private final BatchWriter<byte[], Long> writer;
+    private volatile long committedOffset;
+
+    protected RecordJournal(String name, Path path, int maxBatchSize) {
+        this.name = name;
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + name + ": " + path, e);
+        }
+        this.writer = new BatchWriter<>(name.replace(' ', '-') + "-writer", maxBatchSize, this::writeBatch);
+    }
+
+    protected abstract void write(DataOutput out, T record) throws IOException;
+
+    protected abstract T read(DataInput in) throws IOException;
+
+    /**
+     * Reads valid records starting at fromOffset, truncates a torn tail and positions the log for appends.
+     * Must be called once before the first append.
+     *
+     * @return number of records replayed
+     */
+    public long replay(long fromOffset, Consumer<T> consumer) {
+        try {
+            var size = channel.size();
+            if (fromOffset > size) {
+                throw new IllegalStateException("Cannot replay " + name + " " + path + " from offset "
+                        + fromOffset + ", it is only " + size + " byte(s) long");
+            }
+            var offset = fromOffset;
+            long records = 0;
+            channel.position(offset);
+            var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            while (offset + HEADER_SIZE <= size) {
+                var length = in.readInt();
+                var checksum = in.readInt();
+                if (length <= 0 || length > MAX_PAYLOAD_SIZE || offset + HEADER_SIZE + length > size) {
+                    break;
+                }
+                var payload = new byte[length];
+                in.readFully(payload);
+                if (crc(payload) != checksum) {
+                    break;
+                }
+                consumer.accept(read(new DataInputStream(new ByteArrayInputStream(payload))));
+                offset += HEADER_SIZE + length;
+                records++;
+            }
+            if (offset < size) {
+                log.warn("Truncating {} {} at offset {}, dropping {} byte(s) of torn or corrupt records",
+                        name, path, offset, size - offset);
+                channel.truncate(offset);
+            }
+            channel.position(offset);
+            committedOffset = offset;
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay " + name + ": " + path, e);
+        }
+    }
+
+    /**
+     * Appends record and returns once it is durable on disk.
+     */
+    public void append(T record) {
+        writer.submit(encode(record));
+    }
+
+    /**
+     * Offset right after the last fsynced record.
+     */
+    public long committedOffset() {
+        return committedOffset;
+    }
+
+    //encoded on the caller's thread, the writer thread only copies bytes and fsyncs
+    private byte[] encode(T record) {
+        var bytes = new ByteArrayOutputStream(128);
+        try {
+            write(new DataOutputStream(bytes), record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode " + name + " record", e);
+        }
+        //replay would take a larger record for a torn write and drop it with everything after it
+        if (bytes.size() > MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException(name + " record of " + bytes.size()
+                    + " byte(s) exceeds the limit of " + MAX_PAYLOAD_SIZE);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<Long> writeBatch(List<byte[]> payloads) throws IOException {
+        var bytes = new ByteArrayOutputStream(payloads.stream().mapToInt(payload -> HEADER_SIZE + payload.length).sum());
+        var out = new DataOutputStream(bytes);
+        for (var payload : payloads) {
+            out.writeInt(payload.length);
+            out.writeInt(crc(payload));
+            out.write(payload);
+        }
+        var buffer = ByteBuffer.wrap(bytes.toByteArray());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            //one fsync for the whole batch, this is the group commit
+            channel.force(false);
+        } catch (IOException e) {
+            //cut off the partial batch, otherwise records appended after it would be lost on replay
+            channel.truncate(committedOffset);
+            channel.position(committedOffset);
+            throw e;
+        }
+        committedOffset = channel.position();
+        return Collections.nCopies(payloads.size(), committedOffset);
+    }
+
+    private static int crc(byte[] payload) {
+        var crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close {} {}, error: {}", name, path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.entity.User;
+import com.company.calendar.repository.appointment.AppointmentJournal;
+import com.company.calendar.repository.availabilityOverride.OwnerOverrides;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot files in one directory, named after the appointment and store journal offsets they were taken at.
+ * <p>
+ * File layout: magic, version, appointment journal offset, store journal offset (since version 2), users,
+ * rule sets, override sets and holiday calendars (both since version 3), appointments (each section prefixed
+ * with its entry count), then CRC32 of everything before it. A snapshot is written to a temp file,
+ * fsynced and renamed, so a crash never leaves a half written snapshot under the final name.
+ */
+@Slf4j
+class SnapshotStore {
+
+    private static final int MAGIC = 0x43414c53;
+    private static final int VERSION = 3;
+    //before overrides and holiday calendars were stored, read with both sections empty
+    private static final int VERSION_WITHOUT_OVERRIDES = 2;
+    //before the store journal, read with store journal offset 0 so the whole store journal is replayed
+    private static final int VERSION_WITHOUT_STORE_JOURNAL = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Comparator<long[]> OFFSET_ORDER =
+            Comparator.<long[]>comparingLong(offsets -> offsets[0]).thenComparingLong(offsets -> offsets[1]);
+
+    private final Path directory;
+    private final int retained;
+
+    SnapshotStore(Path directory, int retained) {
+        this.directory = directory;
+        this.retained = Math.max(1, retained);
+    }
+
+    Path save(StoreSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        //zero padded offsets, readable at a glance; order is taken from the parsed offsets
+        var target = directory.resolve(String.format("%s%020d-%020d%s",
+                PREFIX, snapshot.journalOffset(), snapshot.storeJournalOffset(), SUFFIX));
+        var temp = directory.resolve(target.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffered = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            var checked = new CheckedOutputStream(buffered, new CRC32());
+            var out = new DataOutputStream(checked);
+            write(out, snapshot);
+            out.flush();
+            new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+            buffered.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        deleteOlderThanRetained();
+        return target;
+    }
+
+    /**
+     * Newest snapshot that reads back intact. Damaged ones are skipped, an older snapshot is still a valid
+     * starting point because the journal is never truncated below it.
+     */
+    Optional<StoreSnapshot> loadLatest() throws IOException {
+        for (var file : snapshotFiles()) {
+            try {
+                return Optional.of(read(file));
+            } catch (IOException | RuntimeException e) {
+                //runtime exceptions too: a corrupt field can fail parsing before the checksum is reached
+                log.warn("Skipping unreadable snapshot {}, error: {}", file, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void write(DataOutputStream out, StoreSnapshot snapshot) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(snapshot.journalOffset());
+        out.writeLong(snapshot.storeJournalOffset());
+
+        out.writeInt(snapshot.users().size());
+        for (var user : snapshot.users()) {
+            StoreJournal.writeUser(out, user);
+        }
+
+        out.writeInt(snapshot.rules().size());
+        for (var entry : snapshot.rules().entrySet()) {
+            out.writeUTF(entry.getKey());
+            StoreJournal.writeRules(out, entry.getValue());
+        }
+
+        out.writeInt(snapshot.overrides().size());
+        for (var entry : snapshot.overrides().entrySet()) {
+            out.writeUTF(entry.getKey());
+            StoreJournal.writeOverrides(out, entry.getValue().overrides(), entry.getValue().holidayCalendarIds());
+        }
+
+        out.writeInt(snapshot.holidayCalendars().size());
+        for (var entry : snapshot.holidayCalendars().entrySet()) {
+            out.writeUTF(entry.getKey());
+            StoreJournal.writeHolidays(out, entry.getValue());
+        }
+
+        out.writeInt(snapshot.appointments().size());
+        for (var appointment : snapshot.appointments()) {
+            AppointmentJournal.writeAppointment(out, appointment);
+        }
+    }
+
+    private static StoreSnapshot read(Path file) throws IOException {
+        try (var buffered = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            var checked = new CheckedInputStream(buffered, new CRC32());
+            var in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a snapshot file");
+            }
+            var version = in.readInt();
+            if (version < VERSION_WITHOUT_STORE_JOURNAL || version > VERSION) {
+                throw new IOException("unsupported snapshot version " + version);
+            }
+            var journalOffset = in.readLong();
+            var storeJournalOffset = version >= VERSION_WITHOUT_OVERRIDES ? in.readLong() : 0L;
+
+            var userCount = in.readInt();
+            List<User> users = new ArrayList<>(initialCapacity(userCount));
+            for (int i = 0; i < userCount; i++) {
+                users.add(StoreJournal.readUser(in));
+            }
+
+            var ownerCount = in.readInt();
+            Map<String, List<AvailabilityRule>> rules = new HashMap<>(initialCapacity(ownerCount));
+            for (int i = 0; i < ownerCount; i++) {
+                var ownerId = in.readUTF();
+                rules.put(ownerId, StoreJournal.readRules(in, ownerId));
+            }
+
+            Map<String, OwnerOverrides> overrides = new HashMap<>();
+            Map<String, Map<LocalDate, String>> holidayCalendars = new HashMap<>();
+            if (version >= VERSION) {
+                var overrideOwnerCount = in.readInt();
+                for (int i = 0; i < overrideOwnerCount; i++) {
+                    var ownerOverrides = StoreJournal.readOverrides(in, in.readUTF());
+                    overrides.put(ownerOverrides.ownerId(),
+                            new OwnerOverrides(ownerOverrides.overrides(), ownerOverrides.holidayCalendarIds()));
+                }
+                var calendarCount = in.readInt();
+                for (int i = 0; i < calendarCount; i++) {
+                    holidayCalendars.put(in.readUTF(), StoreJournal.readHolidays(in));
+                }
+            }
+
+            var appointmentCount = in.readInt();
+            List<Appointment> appointments = new ArrayList<>(initialCapacity(appointmentCount));
+            for (int i = 0; i < appointmentCount; i++) {
+                appointments.add(AppointmentJournal.readAppointment(in));
+            }
+
+            var checksum = checked.getChecksum().getValue();
+            if (new DataInputStream(buffered).readLong() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+            return new StoreSnapshot(journalOffset, storeJournalOffset, users, rules, overrides, holidayCalendars,
+                    appointments);
+        }
+    }
+
+    //counts are not trusted before the checksum is verified
+    private static int initialCapacity(int count) {
+        return Math.clamp(count, 0, 4096);
+    }
+
+    //newest first
+    private List<Path> snapshotFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        var name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(SnapshotStore::offsetsOf, OFFSET_ORDER).reversed())
+                    .toList();
+        }
+    }
+
+    //appointment journal offset, then store journal offset; files from version 1 carry only the first
+    private static long[] offsetsOf(Path file) {
+        var name = file.getFileName().toString();
+        var offsets = name.substring(PREFIX.length(), name.length() - SUFFIX.length()).split("-");
+        try {
+            return new long[]{Long.parseLong(offsets[0]), offsets.length > 1 ? Long.parseLong(offsets[1]) : 0L};
+        } catch (NumberFormatException e) {
+            //not one of ours, sorts as oldest and fails to load if it is ever reached
+            return new long[]{-1L, -1L};
+        }
+    }
+
+    private void deleteOlderThanRetained() throws IOException {
+        var files = snapshotFiles();
+        for (var file : files.subList(Math.min(retained, files.size()), files.size())) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
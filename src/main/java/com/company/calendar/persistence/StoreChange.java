@@ -0,0 +1,32 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.entity.AvailabilityOverride;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.entity.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Write to the user, availability rule, availability override or holiday calendar store, as recorded in the StoreJournal.
+ */
+public sealed interface StoreChange {
+
+    record UserSaved(User user) implements StoreChange {
+    }
+
+    record UserDeleted(String userId) implements StoreChange {
+    }
+
+    record RulesSaved(String ownerId, List<AvailabilityRule> rules) implements StoreChange {
+    }
+
+    record OverridesSaved(String ownerId, List<AvailabilityOverride> overrides,
+                          Set<String> holidayCalendarIds) implements StoreChange {
+    }
+
+    record HolidayCalendarSaved(String calendarId, Map<LocalDate, String> holidays) implements StoreChange {
+    }
+}
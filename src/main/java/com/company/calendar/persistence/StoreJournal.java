@@ -0,0 +1,269 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.AvailabilityOverride;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.entity.User;
+import com.company.calendar.entity.UserMetadata;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Write-ahead journal of the user, availability rule, availability override and holiday calendar stores,
+ * next to the appointment journal.
+ * Only enabled with the journal appointment repository, otherwise writes are applied without being recorded.
+ * <p>
+ * A change is journaled before it is applied to its store, and the journal offset is only handed out while no
+ * change sits between the two steps. A snapshot taken at that offset therefore holds every change before it,
+ * and StoreRecoveryService replays the rest on top.
+ */
+@Component
+public class StoreJournal {
+
+    private static final byte USER_SAVED = 1;
+    private static final byte USER_DELETED = 2;
+    private static final byte RULES_SAVED = 3;
+    private static final byte OVERRIDES_SAVED = 4;
+    private static final byte HOLIDAY_CALENDAR_SAVED = 5;
+
+    //null when disabled
+    private final RecordJournal<StoreChange> journal;
+    //writers share the read lock, reading the offset takes the write lock
+    private final ReentrantReadWriteLock offsetLock = new ReentrantReadWriteLock();
+
+    public StoreJournal(AppointmentProperties appointmentProperties) {
+        this("journal".equals(appointmentProperties.getRepository())
+                ? Path.of(appointmentProperties.getJournal().getStorePath())
+                : null, appointmentProperties.getJournal().getMaxBatchSize());
+    }
+
+    StoreJournal(Path path, int maxBatchSize) {
+        this.journal = path == null ? null : new StoreChangeJournal(path, maxBatchSize);
+    }
+
+    /**
+     * Journals change, then applies it. Callers hold whatever lock orders changes to the same entry,
+     * so that the journal keeps them in the order they were applied.
+     */
+    public void write(StoreChange change, Runnable apply) {
+        if (journal == null) {
+            apply.run();
+            return;
+        }
+        offsetLock.readLock().lock();
+        try {
+            journal.append(change);
+            apply.run();
+        } finally {
+            offsetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads changes journaled at or after fromOffset, must be called once before the first write.
+     */
+    public long replay(long fromOffset, Consumer<StoreChange> consumer) {
+        return journal == null ? 0 : journal.replay(fromOffset, consumer);
+    }
+
+    /**
+     * Offset right after the last journaled change, every change before it has been applied to its store.
+     */
+    public long committedOffset() {
+        if (journal == null) {
+            return 0;
+        }
+        offsetLock.writeLock().lock();
+        try {
+            return journal.committedOffset();
+        } finally {
+            offsetLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Binary form of a user, shared by journal records and snapshots.
+     */
+    static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeUTF(user.getId());
+        out.writeUTF(user.getUserMetadata().getName());
+        out.writeUTF(user.getUserMetadata().getEmail());
+    }
+
+    static User readUser(DataInput in) throws IOException {
+        return User.builder()
+                .id(in.readUTF())
+                .userMetadata(UserMetadata.builder()
+                        .name(in.readUTF())
+                        .email(in.readUTF())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Binary form of an owner's rule set without the owner id, shared by journal records and snapshots.
+     */
+    static void writeRules(DataOutput out, List<AvailabilityRule> rules) throws IOException {
+        out.writeInt(rules.size());
+        for (var rule : rules) {
+            out.writeByte(rule.getDayOfWeek().getValue());
+            out.writeInt(rule.getStartTime().toSecondOfDay());
+            out.writeInt(rule.getEndTime().toSecondOfDay());
+        }
+    }
+
+    static List<AvailabilityRule> readRules(DataInput in, String ownerId) throws IOException {
+        var ruleCount = in.readInt();
+        List<AvailabilityRule> rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(AvailabilityRule.builder()
+                    .ownerId(ownerId)
+                    .dayOfWeek(DayOfWeek.of(in.readByte()))
+                    .startTime(LocalTime.ofSecondOfDay(in.readInt()))
+                    .endTime(LocalTime.ofSecondOfDay(in.readInt()))
+                    .build());
+        }
+        return List.copyOf(rules);
+    }
+
+    /**
+     * Binary form of an owner's overrides and holiday calendar references without the owner id,
+     * shared by journal records and snapshots.
+     */
+    static void writeOverrides(DataOutput out, List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds)
+            throws IOException {
+        out.writeInt(overrides.size());
+        for (var override : overrides) {
+            out.writeLong(override.getDate().toEpochDay());
+            out.writeUTF(override.getType().name());
+            //whole day blackouts have neither
+            out.writeBoolean(override.getStartTime() != null);
+            if (override.getStartTime() != null) {
+                out.writeInt(override.getStartTime().toSecondOfDay());
+                out.writeInt(override.getEndTime().toSecondOfDay());
+            }
+        }
+        out.writeInt(holidayCalendarIds.size());
+        for (var calendarId : holidayCalendarIds) {
+            out.writeUTF(calendarId);
+        }
+    }
+
+    static StoreChange.OverridesSaved readOverrides(DataInput in, String ownerId) throws IOException {
+        var overrideCount = in.readInt();
+        List<AvailabilityOverride> overrides = new ArrayList<>();
+        for (int i = 0; i < overrideCount; i++) {
+            var builder = AvailabilityOverride.builder()
+                    .ownerId(ownerId)
+                    .date(LocalDate.ofEpochDay(in.readLong()))
+                    .type(AvailabilityOverrideType.valueOf(in.readUTF()));
+            if (in.readBoolean()) {
+                builder.startTime(LocalTime.ofSecondOfDay(in.readInt()))
+                        .endTime(LocalTime.ofSecondOfDay(in.readInt()));
+            }
+            overrides.add(builder.build());
+        }
+        var calendarCount = in.readInt();
+        Set<String> holidayCalendarIds = new HashSet<>();
+        for (int i = 0; i < calendarCount; i++) {
+            holidayCalendarIds.add(in.readUTF());
+        }
+        return new StoreChange.OverridesSaved(ownerId, List.copyOf(overrides), Set.copyOf(holidayCalendarIds));
+    }
+
+    /**
+     * Binary form of a holiday calendar's holidays without the calendar id, shared by journal records and snapshots.
+     */
+    static void writeHolidays(DataOutput out, Map<LocalDate, String> holidays) throws IOException {
+        out.writeInt(holidays.size());
+        for (var holiday : holidays.entrySet()) {
+            out.writeLong(holiday.getKey().toEpochDay());
+            out.writeUTF(holiday.getValue());
+        }
+    }
+
+    static Map<LocalDate, String> readHolidays(DataInput in) throws IOException {
+        var holidayCount = in.readInt();
+        Map<LocalDate, String> holidays = new HashMap<>();
+        for (int i = 0; i < holidayCount; i++) {
+            holidays.put(LocalDate.ofEpochDay(in.readLong()), in.readUTF());
+        }
+        return holidays;
+    }
+
+    private static class StoreChangeJournal extends RecordJournal<StoreChange> {
+
+        StoreChangeJournal(Path path, int maxBatchSize) {
+            super("store journal", path, maxBatchSize);
+        }
+
+        @Override
+        protected void write(DataOutput out, StoreChange change) throws IOException {
+            switch (change) {
+                case StoreChange.UserSaved userSaved -> {
+                    out.writeByte(USER_SAVED);
+                    writeUser(out, userSaved.user());
+                }
+                case StoreChange.UserDeleted userDeleted -> {
+                    out.writeByte(USER_DELETED);
+                    out.writeUTF(userDeleted.userId());
+                }
+                case StoreChange.RulesSaved rulesSaved -> {
+                    out.writeByte(RULES_SAVED);
+                    out.writeUTF(rulesSaved.ownerId());
+                    writeRules(out, rulesSaved.rules());
+                }
+                case StoreChange.OverridesSaved overridesSaved -> {
+                    out.writeByte(OVERRIDES_SAVED);
+                    out.writeUTF(overridesSaved.ownerId());
+                    writeOverrides(out, overridesSaved.overrides(), overridesSaved.holidayCalendarIds());
+                }
+                case StoreChange.HolidayCalendarSaved holidayCalendarSaved -> {
+                    out.writeByte(HOLIDAY_CALENDAR_SAVED);
+                    out.writeUTF(holidayCalendarSaved.calendarId());
+                    writeHolidays(out, holidayCalendarSaved.holidays());
+                }
+            }
+        }
+
+        @Override
+        protected StoreChange read(DataInput in) throws IOException {
+            var type = in.readByte();
+            return switch (type) {
+                case USER_SAVED -> new StoreChange.UserSaved(readUser(in));
+                case USER_DELETED -> new StoreChange.UserDeleted(in.readUTF());
+                case RULES_SAVED -> {
+                    var ownerId = in.readUTF();
+                    yield new StoreChange.RulesSaved(ownerId, readRules(in, ownerId));
+                }
+                case OVERRIDES_SAVED -> readOverrides(in, in.readUTF());
+                case HOLIDAY_CALENDAR_SAVED -> new StoreChange.HolidayCalendarSaved(in.readUTF(), readHolidays(in));
+                default -> throw new IOException("unknown store change type " + type);
+            };
+        }
+    }
+}
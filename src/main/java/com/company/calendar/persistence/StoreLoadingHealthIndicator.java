@@ -0,0 +1,32 @@
+package com.company.calendar.persistence;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports DOWN while the stores are being loaded at startup, part of the readiness group.
+ * Stays UP when nothing has to be loaded.
+ */
+@Component
+public class StoreLoadingHealthIndicator implements HealthIndicator {
+
+    private volatile Health health = Health.up().build();
+
+    public void loading() {
+        health = Health.down().withDetail("status", "loading").build();
+    }
+
+    public void loaded(long loadedInMs) {
+        health = Health.up().withDetail("loadedInMs", loadedInMs).build();
+    }
+
+    public void failed(Throwable failure) {
+        health = Health.down().withDetail("error", String.valueOf(failure.getMessage())).build();
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.calendar.persistence;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Holds back store reads and writes while StoreRecoveryService loads the stores at startup.
+ * Open when nothing has to be recovered. Recovery itself writes through the stores' restore methods,
+ * which do not wait.
+ */
+@Component
+public class StoreRecoveryGate {
+
+    private volatile CountDownLatch recovered = new CountDownLatch(0);
+    private volatile Throwable recoveryFailure;
+
+    /**
+     * Closes the gate, has to be called before the web server starts.
+     */
+    public void recovering() {
+        recovered = new CountDownLatch(1);
+    }
+
+    public void completeRecovery() {
+        recovered.countDown();
+    }
+
+    public void failRecovery(Throwable failure) {
+        recoveryFailure = failure;
+        recovered.countDown();
+    }
+
+    /**
+     * Waits until recovery has finished, fails when it did not succeed.
+     */
+    public void awaitRecovery() {
+        try {
+            recovered.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for store recovery", e);
+        }
+        if (recoveryFailure != null) {
+            throw new IllegalStateException("Stores failed to recover", recoveryFailure);
+        }
+    }
+}
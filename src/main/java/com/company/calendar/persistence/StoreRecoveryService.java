@@ -0,0 +1,248 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.JournalAppointmentRepository;
+import com.company.calendar.repository.availabilityOverride.AvailabilityOverrideRepository;
+import com.company.calendar.repository.availabilityRule.AvailabilityRuleRepository;
+import com.company.calendar.repository.holidayCalendar.HolidayCalendarRepository;
+import com.company.calendar.repository.user.UserRepository;
+import com.company.calendar.service.availability.AvailableSlotsCache;
+import com.company.calendar.service.availability.CompiledAvailability;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the stores at startup and snapshots them periodically afterwards.
+ * <p>
+ * Recovery reads the newest snapshot and replays only the journals written after it. User, availability rule,
+ * override and holiday calendar changes from the StoreJournal are applied first, in journal order, so that every
+ * replayed appointment finds its owner and availability in place. Appointments are then split by owner and applied on several threads; owners are independent, and each owner's appointments
+ * stay in journal order. Loading runs in the background while readiness reports DOWN, and every store holds
+ * back requests at the StoreRecoveryGate until it is done.
+ * <p>
+ * Snapshots are fuzzy: writes continue while the stores are copied. The journal offsets are captured first,
+ * so anything written during the copy is replayed again on recovery, and replaying it twice is harmless.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "appointment.repository", havingValue = "journal")
+public class StoreRecoveryService {
+
+    private final UserRepository userRepository;
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final AvailabilityOverrideRepository availabilityOverrideRepository;
+    private final HolidayCalendarRepository holidayCalendarRepository;
+    private final JournalAppointmentRepository appointmentRepository;
+    private final StoreJournal storeJournal;
+    private final StoreLoadingHealthIndicator storeLoadingHealthIndicator;
+    private final StoreRecoveryGate storeRecoveryGate;
+    private final CompiledAvailability compiledAvailability;
+    private final AvailableSlotsCache availableSlotsCache;
+    private final SnapshotStore snapshotStore;
+    private final long snapshotIntervalSeconds;
+    private final int replayThreads;
+    private final ScheduledExecutorService snapshotScheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("store-snapshotter").daemon().factory());
+    private volatile boolean recovered;
+
+    public StoreRecoveryService(UserRepository userRepository,
+                                AvailabilityRuleRepository availabilityRuleRepository,
+                                AvailabilityOverrideRepository availabilityOverrideRepository,
+                                HolidayCalendarRepository holidayCalendarRepository,
+                                JournalAppointmentRepository appointmentRepository,
+                                StoreJournal storeJournal,
+                                StoreLoadingHealthIndicator storeLoadingHealthIndicator,
+                                StoreRecoveryGate storeRecoveryGate,
+                                CompiledAvailability compiledAvailability,
+                                AvailableSlotsCache availableSlotsCache,
+                                AppointmentProperties appointmentProperties) {
+        this.userRepository = userRepository;
+        this.availabilityRuleRepository = availabilityRuleRepository;
+        this.availabilityOverrideRepository = availabilityOverrideRepository;
+        this.holidayCalendarRepository = holidayCalendarRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.storeJournal = storeJournal;
+        this.storeLoadingHealthIndicator = storeLoadingHealthIndicator;
+        this.storeRecoveryGate = storeRecoveryGate;
+        this.compiledAvailability = compiledAvailability;
+        this.availableSlotsCache = availableSlotsCache;
+        var journalProperties = appointmentProperties.getJournal();
+        this.snapshotStore = new SnapshotStore(
+                Path.of(journalProperties.getSnapshotDirectory()), journalProperties.getSnapshotsRetained());
+        this.snapshotIntervalSeconds = journalProperties.getSnapshotIntervalSeconds();
+        this.replayThreads = Math.max(1, journalProperties.getReplayThreads());
+        //before the web server starts, so that readiness never reports UP on empty stores
+        //and no request reads or writes a store that is still being loaded
+        storeLoadingHealthIndicator.loading();
+        storeRecoveryGate.recovering();
+    }
+
+    @PostConstruct
+    void start() {
+        Thread.ofPlatform().name("store-recovery").start(this::recover);
+    }
+
+    @PreDestroy
+    void stop() {
+        snapshotScheduler.shutdown();
+        try {
+            snapshotScheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //a fresh snapshot keeps the journal tail short for the next start
+        if (recovered) {
+            snapshotQuietly();
+        }
+    }
+
+    void recover() {
+        var startedAt = System.currentTimeMillis();
+        Set<String> ruleOwnerIds = new HashSet<>();
+        Set<String> restoredOwnerIds = new HashSet<>();
+        try {
+            var phaseStartedAt = startedAt;
+            var snapshot = snapshotStore.loadLatest();
+            log.info("Startup phase 'load snapshot' took {} ms, {}", System.currentTimeMillis() - phaseStartedAt,
+                    snapshot.map(s -> "journal offset " + s.journalOffset() + ", store journal offset " + s.storeJournalOffset())
+                            .orElse("no snapshot found"));
+
+            phaseStartedAt = System.currentTimeMillis();
+            snapshot.ifPresent(s -> {
+                s.users().forEach(userRepository::restore);
+                s.rules().forEach(availabilityRuleRepository::restore);
+                ruleOwnerIds.addAll(s.rules().keySet());
+                s.overrides().forEach((ownerId, ownerOverrides) -> availabilityOverrideRepository.restore(
+                        ownerId, ownerOverrides.overrides(), ownerOverrides.holidayCalendarIds()));
+                //owners following a holiday calendar all have an overrides entry
+                restoredOwnerIds.addAll(s.overrides().keySet());
+                s.holidayCalendars().forEach(holidayCalendarRepository::restore);
+            });
+            var storeFromOffset = snapshot.map(StoreSnapshot::storeJournalOffset).orElse(0L);
+            var storeChanges = storeJournal.replay(storeFromOffset, change -> apply(change, ruleOwnerIds, restoredOwnerIds));
+            log.info("Startup phase 'restore users, availability rules, overrides and holiday calendars' took {} ms, "
+                            + "{} store journal record(s) from offset {}",
+                    System.currentTimeMillis() - phaseStartedAt, storeChanges, storeFromOffset);
+
+            phaseStartedAt = System.currentTimeMillis();
+            List<List<Appointment>> partitions = new ArrayList<>(replayThreads);
+            for (int i = 0; i < replayThreads; i++) {
+                partitions.add(new ArrayList<>());
+            }
+            snapshot.ifPresent(s -> s.appointments().forEach(appointment -> partitionOf(partitions, appointment).add(appointment)));
+            var fromOffset = snapshot.map(StoreSnapshot::journalOffset).orElse(0L);
+            var journaled = appointmentRepository.replayJournal(fromOffset,
+                    appointment -> partitionOf(partitions, appointment).add(appointment));
+            log.info("Startup phase 'read journal tail' took {} ms, {} record(s) from offset {}",
+                    System.currentTimeMillis() - phaseStartedAt, journaled, fromOffset);
+
+            phaseStartedAt = System.currentTimeMillis();
+            restoreInParallel(partitions);
+            restoredOwnerIds.addAll(ruleOwnerIds);
+            partitions.forEach(partition -> partition.forEach(appointment -> restoredOwnerIds.add(appointment.getOwnerId())));
+            log.info("Startup phase 'apply appointments' took {} ms on {} thread(s)",
+                    System.currentTimeMillis() - phaseStartedAt, replayThreads);
+        } catch (Exception e) {
+            log.error("Failed to recover stores, error: {}", e.getMessage(), e);
+            storeRecoveryGate.failRecovery(e);
+            storeLoadingHealthIndicator.failed(e);
+            return;
+        }
+
+        storeRecoveryGate.completeRecovery();
+        //restored rules did not go through AvailabilityService, compile them before readiness reports UP.
+        //Compiling reads the rule store, so it has to wait until the gate is open
+        ruleOwnerIds.forEach(compiledAvailability::refresh);
+        //same for the slot cache: restored rules, overrides and appointments never bumped the owners' versions
+        restoredOwnerIds.forEach(availableSlotsCache::invalidateOwner);
+        recovered = true;
+        var loadedInMs = System.currentTimeMillis() - startedAt;
+        storeLoadingHealthIndicator.loaded(loadedInMs);
+        log.info("Stores loaded in {} ms", loadedInMs);
+        snapshotScheduler.scheduleWithFixedDelay(
+                this::snapshotQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes a snapshot of the current store contents while writes continue.
+     */
+    public void takeSnapshot() throws IOException {
+        var startedAt = System.currentTimeMillis();
+        //offsets first: every appointment journaled before its offset is already in the index or among its pending
+        //bookings, every user or rule change before its offset is applied, so the copy below misses nothing
+        //that the journal tails would not bring back
+        var journalOffset = appointmentRepository.journalOffset();
+        var storeJournalOffset = storeJournal.committedOffset();
+        List<Appointment> appointments = new ArrayList<>();
+        appointmentRepository.forEach(appointments::add);
+        var snapshot = new StoreSnapshot(journalOffset, storeJournalOffset, userRepository.findAll(),
+                availabilityRuleRepository.findAll(), availabilityOverrideRepository.findAll(),
+                holidayCalendarRepository.findAll(), appointments);
+        var file = snapshotStore.save(snapshot);
+        log.info("Wrote snapshot {} with {} user(s), {} availability rule set(s), {} override set(s), {} holiday calendar(s) "
+                        + "and {} appointment(s) in {} ms",
+                file, snapshot.users().size(), snapshot.rules().size(), snapshot.overrides().size(),
+                snapshot.holidayCalendars().size(), appointments.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            takeSnapshot();
+        } catch (Exception e) {
+            //the journal still has everything, the next snapshot just has a longer tail to cover
+            log.error("Failed to write snapshot, error: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(StoreChange change, Set<String> ruleOwnerIds, Set<String> restoredOwnerIds) {
+        switch (change) {
+            case StoreChange.UserSaved userSaved -> userRepository.restore(userSaved.user());
+            case StoreChange.UserDeleted userDeleted -> userRepository.restoreDeleteById(userDeleted.userId());
+            case StoreChange.RulesSaved rulesSaved -> {
+                availabilityRuleRepository.restore(rulesSaved.ownerId(), rulesSaved.rules());
+                ruleOwnerIds.add(rulesSaved.ownerId());
+            }
+            case StoreChange.OverridesSaved overridesSaved -> {
+                availabilityOverrideRepository.restore(overridesSaved.ownerId(), overridesSaved.overrides(),
+                        overridesSaved.holidayCalendarIds());
+                restoredOwnerIds.add(overridesSaved.ownerId());
+            }
+            case StoreChange.HolidayCalendarSaved holidayCalendarSaved ->
+                    holidayCalendarRepository.restore(holidayCalendarSaved.calendarId(), holidayCalendarSaved.holidays());
+        }
+    }
+
+    private void restoreInParallel(List<List<Appointment>> partitions) throws InterruptedException, ExecutionException {
+        List<Callable<Void>> tasks = partitions.stream()
+                .<Callable<Void>>map(partition -> () -> {
+                    partition.forEach(appointmentRepository::restore);
+                    return null;
+                })
+                .toList();
+        try (var executor = Executors.newFixedThreadPool(replayThreads, Thread.ofPlatform().name("store-replay-", 0).factory())) {
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+    }
+
+    private static List<Appointment> partitionOf(List<List<Appointment>> partitions, Appointment appointment) {
+        return partitions.get(Math.floorMod(appointment.getOwnerId().hashCode(), partitions.size()));
+    }
+}
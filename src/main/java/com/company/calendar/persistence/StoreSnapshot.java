@@ -0,0 +1,24 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.entity.User;
+import com.company.calendar.repository.availabilityOverride.OwnerOverrides;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Image of the user, availability rule, availability override, holiday calendar and appointment stores.
+ * Appointments journaled at or after journalOffset, and changes to the other stores journaled at or after
+ * storeJournalOffset, may be missing and are recovered from their journals.
+ */
+public record StoreSnapshot(long journalOffset,
+                            long storeJournalOffset,
+                            List<User> users,
+                            Map<String, List<AvailabilityRule>> rules,
+                            Map<String, OwnerOverrides> overrides,
+                            Map<String, Map<LocalDate, String>> holidayCalendars,
+                            List<Appointment> appointments) {
+}
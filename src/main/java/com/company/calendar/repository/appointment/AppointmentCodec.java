@@ -0,0 +1,62 @@
+package com.company.calendar.repository.appointment;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Primitive encodings shared by the compact appointment stores.
+ * Times are kept as minutes since epoch (appointments are minute aligned) and
+ * appointment ids as the two longs of their UUID.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class AppointmentCodec {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    static int epochMinute(LocalDateTime dateTime) {
+        if (dateTime.getSecond() != 0 || dateTime.getNano() != 0) {
+            throw new IllegalArgumentException("Appointment time must be minute aligned: " + dateTime);
+        }
+        return Math.toIntExact(dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    //floor of dateTime in epoch minutes, for range queries with arbitrary bounds
+    static int epochMinuteFloor(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    //ceiling of dateTime in epoch minutes, the first minute not before dateTime
+    static int epochMinuteCeil(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC) + 59 + (dateTime.getNano() > 0 ? 1 : 0), 60));
+    }
+
+    static int epochMinute(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay() * MINUTES_PER_DAY);
+    }
+
+    static LocalDateTime toLocalDateTime(int epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    static UUID toUuid(String appointmentId) {
+        try {
+            var uuid = UUID.fromString(appointmentId);
+            //UUID.fromString is lenient (e.g. "1-1-1-1-1"), only canonical ids survive the round trip
+            if (uuid.toString().equals(appointmentId)) {
+                return uuid;
+            }
+        } catch (IllegalArgumentException ignored) {
+            //reported below
+        }
+        throw new IllegalArgumentException("Appointment id must be a canonical UUID: " + appointmentId);
+    }
+
+    static String toAppointmentId(long mostSignificantBits, long leastSignificantBits) {
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+}
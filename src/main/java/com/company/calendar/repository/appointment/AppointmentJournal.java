@@ -0,0 +1,62 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.persistence.RecordJournal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Append only write-ahead log of booked appointments, see RecordJournal for the record framing.
+ */
+public class AppointmentJournal extends RecordJournal<Appointment> {
+
+    public AppointmentJournal(Path path, int maxBatchSize) {
+        super("appointment journal", path, maxBatchSize);
+    }
+
+    @Override
+    protected void write(DataOutput out, Appointment appointment) throws IOException {
+        writeAppointment(out, appointment);
+    }
+
+    @Override
+    protected Appointment read(DataInput in) throws IOException {
+        return readAppointment(in);
+    }
+
+    /**
+     * Binary form of an appointment, shared by journal records and snapshots.
+     */
+    public static void writeAppointment(DataOutput out, Appointment appointment) throws IOException {
+        out.writeUTF(appointment.getAppointmentId());
+        out.writeUTF(appointment.getOwnerId());
+        out.writeUTF(appointment.getInviteeId());
+        writeDateTime(out, appointment.getStartTime());
+        writeDateTime(out, appointment.getEndTime());
+    }
+
+    public static Appointment readAppointment(DataInput in) throws IOException {
+        return Appointment.builder()
+                .appointmentId(in.readUTF())
+                .ownerId(in.readUTF())
+                .inviteeId(in.readUTF())
+                .startTime(readDateTime(in))
+                .endTime(readDateTime(in))
+                .build();
+    }
+
+    private static void writeDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        var epochSecond = in.readLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+    }
+}
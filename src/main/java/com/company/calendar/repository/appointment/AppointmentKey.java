@@ -0,0 +1,29 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in one owner's appointments, ordered by start time and then appointment id.
+ * Keyset pages continue right after a key. Without an appointment id the key sits after every
+ * appointment starting at startTime, which is how the first page ("after now") starts.
+ */
+public record AppointmentKey(LocalDateTime startTime, String appointmentId) {
+
+    public static AppointmentKey of(Appointment appointment) {
+        return new AppointmentKey(appointment.getStartTime(), appointment.getAppointmentId());
+    }
+
+    public static AppointmentKey after(LocalDateTime startTime) {
+        return new AppointmentKey(startTime, null);
+    }
+
+    public boolean precedes(Appointment appointment) {
+        var comparison = appointment.getStartTime().compareTo(startTime);
+        if (comparison != 0) {
+            return comparison > 0;
+        }
+        return appointmentId != null && appointment.getAppointmentId().compareTo(appointmentId) > 0;
+    }
+}
@@ -4,14 +4,36 @@ import com.company.calendar.entity.Appointment;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface AppointmentRepository {
     List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date);
     boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime);
+    //whether an appointment of the owner overlaps [startTime, endTime). The owner's appointments never overlap each
+    //other, so only the one starting last before endTime has to be looked at, a single seek on a start time index.
+    boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime);
     void save(Appointment appointment);
+    //saves atomically unless the appointment overlaps one of the owner's appointments, whatever their lengths
     boolean saveIfSlotFree(Appointment appointment);
     Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable);
+    //keyset page: up to limit appointments ordered by (startTime, appointmentId) that come after key
+    List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit);
+    long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after);
+    //appointments with from <= startTime < to, ordered by start time
+    List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to);
+
+    //appointments of every owner on date keyed by owner id, owners without appointments map to an empty list.
+    //Stores that pay a round trip per query override this with a single query.
+    default Map<String, List<Appointment>> findByOwnerIdsAndDate(Collection<String> ownerIds, LocalDate date) {
+        Map<String, List<Appointment>> appointmentsByOwner = new HashMap<>();
+        for (var ownerId : ownerIds) {
+            appointmentsByOwner.put(ownerId, findByOwnerIdAndDate(ownerId, date));
+        }
+        return appointmentsByOwner;
+    }
 }
@@ -0,0 +1,110 @@
+package com.company.calendar.repository.appointment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer thread that applies queued items in batches.
+ * While one batch is being written, new items pile up in the queue and go out together in the next one,
+ * so callers share the cost of expensive operations (fsync, jdbc round trip) instead of paying it each.
+ */
+@Slf4j
+public class BatchWriter<T, R> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface BatchHandler<T, R> {
+        //results must be in the same order as items
+        List<R> handle(List<T> items) throws Exception;
+    }
+
+    private record Pending<T, R>(T item, CompletableFuture<R> result) {
+    }
+
+    private final BlockingQueue<Pending<T, R>> queue = new LinkedBlockingQueue<>();
+    private final String name;
+    private final int maxBatchSize;
+    private final BatchHandler<T, R> handler;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public BatchWriter(String name, int maxBatchSize, BatchHandler<T, R> handler) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.handler = handler;
+        this.writer = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Queues item and waits until the batch containing it has been written.
+     */
+    public R submit(T item) {
+        if (!running) {
+            throw new IllegalStateException("Batch writer " + name + " is closed");
+        }
+        var pending = new Pending<T, R>(item, new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void run() {
+        List<Pending<T, R>> batch = new ArrayList<>(maxBatchSize);
+        //polling instead of interrupting on close: an interrupt would close a FileChannel in the middle of a write
+        while (running) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending<T, R>> batch) {
+        try {
+            var results = handler.handle(batch.stream().map(Pending::item).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+            log.debug("{} wrote a batch of {} item(s)", name, batch.size());
+        } catch (Exception e) {
+            log.error("{} failed to write a batch of {} item(s), error: {}", name, batch.size(), e.getMessage(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //fail whatever is left, nobody will write it anymore
+        List<Pending<T, R>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result().completeExceptionally(
+                new IllegalStateException("Batch writer " + name + " is closed")));
+    }
+}
@@ -0,0 +1,214 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appointment store that keeps every appointment as a handful of primitives instead of an entity:
+ * start/end as epoch minutes, the appointment UUID as two longs and the invitee as a dictionary code.
+ * The owner id is stored once per schedule. Appointment entities are only created when read.
+ */
+@Repository
+@ConditionalOnProperty(name = "appointment.repository", havingValue = "compact")
+public class CompactAppointmentRepository implements AppointmentRepository {
+
+    private final Map<String, CompactSchedule> schedules = new ConcurrentHashMap<>();
+    private final IdDictionary inviteeIds = new IdDictionary();
+
+    @Override
+    public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        var schedule = schedules.get(ownerId);
+        if (schedule == null) {
+            return List.of();
+        }
+        var dayStart = AppointmentCodec.epochMinute(date);
+        return schedule.findBetween(dayStart, dayStart + 24 * 60);
+    }
+
+    @Override
+    public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
+        var schedule = schedules.get(ownerId);
+        return schedule != null && schedule.contains(AppointmentCodec.epochMinute(startTime));
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        var schedule = schedules.get(ownerId);
+        return schedule != null && schedule.overlaps(AppointmentCodec.epochMinuteFloor(startTime), AppointmentCodec.epochMinuteCeil(endTime));
+    }
+
+    @Override
+    public void save(Appointment appointment) {
+        schedule(appointment.getOwnerId()).insert(appointment, true);
+    }
+
+    @Override
+    public boolean saveIfSlotFree(Appointment appointment) {
+        return schedule(appointment.getOwnerId()).insert(appointment, false);
+    }
+
+    @Override
+    public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
+        var schedule = schedules.get(ownerId);
+        if (schedule == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        return schedule.findAfter(AppointmentCodec.epochMinuteFloor(after), pageable);
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        var schedule = schedules.get(ownerId);
+        return schedule == null ? List.of() : schedule.findAfterKey(key, limit);
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        var schedule = schedules.get(ownerId);
+        return schedule == null ? 0 : schedule.countAfter(AppointmentCodec.epochMinuteFloor(after));
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        var schedule = schedules.get(ownerId);
+        if (schedule == null) {
+            return List.of();
+        }
+        return schedule.findBetween(AppointmentCodec.epochMinuteCeil(from), AppointmentCodec.epochMinuteCeil(to));
+    }
+
+    private CompactSchedule schedule(String ownerId) {
+        return schedules.computeIfAbsent(ownerId, CompactSchedule::new);
+    }
+
+    //One owner's appointments in parallel primitive arrays sorted by start minute.
+    private final class CompactSchedule {
+        private final String ownerId;
+        private int size;
+        private int[] startMinutes = new int[8];
+        private int[] endMinutes = new int[8];
+        private long[] idMostSigBits = new long[8];
+        private long[] idLeastSigBits = new long[8];
+        private int[] inviteeCodes = new int[8];
+
+        private CompactSchedule(String ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        synchronized boolean contains(int startMinute) {
+            return Arrays.binarySearch(startMinutes, 0, size, startMinute) >= 0;
+        }
+
+        synchronized boolean overlaps(int startMinute, int endMinute) {
+            //the appointment starting last before endMinute is the only candidate, earlier ones end before it starts
+            var previous = lowerBound(endMinute) - 1;
+            return previous >= 0 && endMinutes[previous] > startMinute;
+        }
+
+        synchronized boolean insert(Appointment appointment, boolean replace) {
+            var startMinute = AppointmentCodec.epochMinute(appointment.getStartTime());
+            var endMinute = AppointmentCodec.epochMinute(appointment.getEndTime());
+            if (!replace && overlaps(startMinute, endMinute)) {
+                return false;
+            }
+            var position = Arrays.binarySearch(startMinutes, 0, size, startMinute);
+            //encode everything first so that an invalid appointment leaves the arrays untouched
+            var id = AppointmentCodec.toUuid(appointment.getAppointmentId());
+            var inviteeCode = inviteeIds.encode(appointment.getInviteeId());
+            if (position < 0) {
+                position = -position - 1;
+                openGap(position);
+            }
+            startMinutes[position] = startMinute;
+            endMinutes[position] = endMinute;
+            idMostSigBits[position] = id.getMostSignificantBits();
+            idLeastSigBits[position] = id.getLeastSignificantBits();
+            inviteeCodes[position] = inviteeCode;
+            return true;
+        }
+
+        //appointments with fromMinute <= start < toMinute
+        synchronized List<Appointment> findBetween(int fromMinute, int toMinute) {
+            List<Appointment> appointments = new ArrayList<>();
+            for (int i = lowerBound(fromMinute); i < size && startMinutes[i] < toMinute; i++) {
+                appointments.add(materialize(i));
+            }
+            return appointments;
+        }
+
+        synchronized Page<Appointment> findAfter(int afterMinute, Pageable pageable) {
+            var first = lowerBound(afterMinute + 1);
+            long total = size - first;
+            var from = (int) Math.min(size, first + pageable.getOffset());
+            var to = Math.min(size, from + pageable.getPageSize());
+            List<Appointment> appointments = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                appointments.add(materialize(i));
+            }
+            return new PageImpl<>(appointments, pageable, total);
+        }
+
+        //binary search to the key, then at most the appointment at the key itself is skipped
+        synchronized List<Appointment> findAfterKey(AppointmentKey key, int limit) {
+            List<Appointment> appointments = new ArrayList<>(Math.min(limit, size));
+            var first = lowerBound(AppointmentCodec.epochMinuteFloor(key.startTime()));
+            for (int i = first; i < size && appointments.size() < limit; i++) {
+                var appointment = materialize(i);
+                if (key.precedes(appointment)) {
+                    appointments.add(appointment);
+                }
+            }
+            return appointments;
+        }
+
+        synchronized long countAfter(int afterMinute) {
+            return size - lowerBound(afterMinute + 1);
+        }
+
+        //first position whose start minute is >= minute
+        private int lowerBound(int minute) {
+            var position = Arrays.binarySearch(startMinutes, 0, size, minute);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void openGap(int position) {
+            if (size == startMinutes.length) {
+                var capacity = size + (size >> 1);
+                startMinutes = Arrays.copyOf(startMinutes, capacity);
+                endMinutes = Arrays.copyOf(endMinutes, capacity);
+                idMostSigBits = Arrays.copyOf(idMostSigBits, capacity);
+                idLeastSigBits = Arrays.copyOf(idLeastSigBits, capacity);
+                inviteeCodes = Arrays.copyOf(inviteeCodes, capacity);
+            }
+            var moved = size - position;
+            System.arraycopy(startMinutes, position, startMinutes, position + 1, moved);
+            System.arraycopy(endMinutes, position, endMinutes, position + 1, moved);
+            System.arraycopy(idMostSigBits, position, idMostSigBits, position + 1, moved);
+            System.arraycopy(idLeastSigBits, position, idLeastSigBits, position + 1, moved);
+            System.arraycopy(inviteeCodes, position, inviteeCodes, position + 1, moved);
+            size++;
+        }
+
+        private Appointment materialize(int position) {
+            return Appointment.builder()
+                    .appointmentId(AppointmentCodec.toAppointmentId(idMostSigBits[position], idLeastSigBits[position]))
+                    .ownerId(ownerId)
+                    .inviteeId(inviteeIds.decode(inviteeCodes[position]))
+                    .startTime(AppointmentCodec.toLocalDateTime(startMinutes[position]))
+                    .endTime(AppointmentCodec.toLocalDateTime(endMinutes[position]))
+                    .build();
+        }
+    }
+}
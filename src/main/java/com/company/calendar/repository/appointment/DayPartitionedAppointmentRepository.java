@@ -0,0 +1,171 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appointments partitioned by owner and then by date. Every bucket holds one day of one owner,
+ * ordered by start time, so day queries touch a single small bucket and past days can be
+ * removed in bulk with {@link #removeDaysBefore(LocalDate)}.
+ */
+@Repository
+@Slf4j
+@ConditionalOnProperty(name = "appointment.repository", havingValue = "day-partitioned")
+public class DayPartitionedAppointmentRepository implements AppointmentRepository {
+
+    private final Map<String, ConcurrentSkipListMap<LocalDate, ConcurrentSkipListMap<LocalDateTime, Appointment>>> store
+            = new ConcurrentHashMap<>();
+    //one write lock per owner, a ReentrantLock so that waiting virtual threads do not pin their carrier
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        var bucket = bucket(ownerId, date);
+        return bucket == null ? List.of() : new ArrayList<>(bucket.values());
+    }
+
+    @Override
+    public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
+        var bucket = bucket(ownerId, startTime.toLocalDate());
+        return bucket != null && bucket.containsKey(startTime);
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        var days = store.get(ownerId);
+        return days != null && overlaps(days, startTime, endTime);
+    }
+
+    @Override
+    public void save(Appointment appointment) {
+        bucketForWrite(appointment).put(appointment.getStartTime(), appointment);
+    }
+
+    @Override
+    public boolean saveIfSlotFree(Appointment appointment) {
+        var days = store.computeIfAbsent(appointment.getOwnerId(), k -> new ConcurrentSkipListMap<>());
+        //the overlapping neighbour may sit in the previous day's bucket, so one owner's writers share a lock
+        var writeLock = writeLocks.computeIfAbsent(appointment.getOwnerId(), k -> new ReentrantLock());
+        writeLock.lock();
+        try {
+            if (overlaps(days, appointment.getStartTime(), appointment.getEndTime())) {
+                return false;
+            }
+            bucketForWrite(appointment).put(appointment.getStartTime(), appointment);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    //the appointment starting last before endTime is the only candidate. It is in the latest non-empty bucket
+    //up to endTime's day, which is normally that day or the one before.
+    private static boolean overlaps(NavigableMap<LocalDate, ConcurrentSkipListMap<LocalDateTime, Appointment>> days,
+                                    LocalDateTime startTime, LocalDateTime endTime) {
+        for (var bucket : days.headMap(endTime.toLocalDate(), true).descendingMap().values()) {
+            var previous = bucket.lowerEntry(endTime);
+            if (previous != null) {
+                return previous.getValue().getEndTime().isAfter(startTime);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
+        var days = store.get(ownerId);
+        if (days == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        //days before "after" are never visited
+        var upcomingDays = days.tailMap(after.toLocalDate(), true).values();
+        long total = upcomingDays.stream()
+                .mapToLong(bucket -> bucket.tailMap(after, false).size())
+                .sum();
+
+        List<Appointment> pagedAppointments = upcomingDays.stream()
+                .flatMap(bucket -> bucket.tailMap(after, false).values().stream())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+
+        return new PageImpl<>(pagedAppointments, pageable, total);
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        var days = store.get(ownerId);
+        if (days == null) {
+            return List.of();
+        }
+        return days.tailMap(key.startTime().toLocalDate(), true).values().stream()
+                .flatMap(bucket -> bucket.tailMap(key.startTime(), true).values().stream())
+                .dropWhile(appointment -> !key.precedes(appointment))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        var days = store.get(ownerId);
+        if (days == null) {
+            return 0;
+        }
+        return days.tailMap(after.toLocalDate(), true).values().stream()
+                .mapToLong(bucket -> bucket.tailMap(after, false).size())
+                .sum();
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        var days = store.get(ownerId);
+        if (days == null || !from.isBefore(to)) {
+            return List.of();
+        }
+        List<Appointment> appointments = new ArrayList<>();
+        days.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()
+                .forEach(bucket -> appointments.addAll(bucket.subMap(from, true, to, false).values()));
+        return appointments;
+    }
+
+    /**
+     * Removes all day buckets strictly before cutoff, for every owner.
+     * Returned appointments can be archived by the caller, or ignored to simply drop them.
+     */
+    public List<Appointment> removeDaysBefore(LocalDate cutoff) {
+        List<Appointment> removed = new ArrayList<>();
+        store.forEach((ownerId, days) -> {
+            var pastDays = days.headMap(cutoff, false);
+            pastDays.values().forEach(bucket -> removed.addAll(bucket.values()));
+            pastDays.clear();
+        });
+        log.info("Removed {} appointment(s) scheduled before {}", removed.size(), cutoff);
+        return removed;
+    }
+
+    private ConcurrentSkipListMap<LocalDateTime, Appointment> bucket(String ownerId, LocalDate date) {
+        var days = store.get(ownerId);
+        return days == null ? null : days.get(date);
+    }
+
+    private ConcurrentSkipListMap<LocalDateTime, Appointment> bucketForWrite(Appointment appointment) {
+        return store.computeIfAbsent(appointment.getOwnerId(), k -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(appointment.getStartTime().toLocalDate(), k -> new ConcurrentSkipListMap<>());
+    }
+}
@@ -0,0 +1,282 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appointment store backed by the H2 database configured under spring.datasource.
+ * <p>
+ * saveIfSlotFree is an insert conditional on the appointment starting last before the new end not overlapping it,
+ * which is a single backwards seek on the (owner_id, start_time) index. All writes go through one writer thread,
+ * so no other write can slip in between that check and the insert, and the unique index still rejects a second
+ * appointment at the same start. Writes from concurrent requests are queued and sent as one JDBC batch in one
+ * transaction, so they share a round trip and a commit.
+ */
+@Repository
+@ConditionalOnProperty(name = "appointment.repository", havingValue = "h2")
+public class H2AppointmentRepository implements AppointmentRepository {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS appointments (
+                appointment_id VARCHAR(64) PRIMARY KEY,
+                owner_id VARCHAR(255) NOT NULL,
+                invitee_id VARCHAR(255) NOT NULL,
+                start_time TIMESTAMP NOT NULL,
+                end_time TIMESTAMP NOT NULL
+            )""";
+    private static final String CREATE_SLOT_INDEX =
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_appointments_owner_start ON appointments (owner_id, start_time)";
+    private static final String COLUMNS = "appointment_id, owner_id, invitee_id, start_time, end_time";
+    //end of the owner's appointment starting last before the given time, the only one that can overlap
+    private static final String PREVIOUS_END = "SELECT end_time FROM appointments"
+            + " WHERE owner_id = ? AND start_time < ? ORDER BY start_time DESC LIMIT 1";
+    private static final String INSERT_IF_FREE = "INSERT INTO appointments (" + COLUMNS + ")"
+            + " SELECT CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)"
+            + " WHERE NOT EXISTS (SELECT 1 FROM (" + PREVIOUS_END + ") previous WHERE previous.end_time > ?)";
+    private static final String UPSERT =
+            "MERGE INTO appointments (" + COLUMNS + ") KEY (owner_id, start_time) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BETWEEN = "SELECT " + COLUMNS + " FROM appointments"
+            + " WHERE owner_id = ? AND start_time >= ? AND start_time < ? ORDER BY start_time";
+    private static final String SELECT_OWNERS_BETWEEN = "SELECT " + COLUMNS + " FROM appointments"
+            + " WHERE owner_id IN (%s) AND start_time >= ? AND start_time < ? ORDER BY start_time";
+    private static final String EXISTS =
+            "SELECT COUNT(*) FROM appointments WHERE owner_id = ? AND start_time = ?";
+    private static final String EXISTS_OVERLAPPING =
+            "SELECT COUNT(*) FROM (" + PREVIOUS_END + ") previous WHERE previous.end_time > ?";
+    private static final String SELECT_AFTER = "SELECT " + COLUMNS + " FROM appointments"
+            + " WHERE owner_id = ? AND start_time > ? ORDER BY start_time LIMIT ? OFFSET ?";
+    //a null appointment id makes the tie-break false, so the page starts strictly after start_time
+    private static final String SELECT_AFTER_KEY = "SELECT " + COLUMNS + " FROM appointments"
+            + " WHERE owner_id = ? AND (start_time > ? OR (start_time = ? AND appointment_id > ?))"
+            + " ORDER BY start_time, appointment_id LIMIT ?";
+    private static final String COUNT_AFTER =
+            "SELECT COUNT(*) FROM appointments WHERE owner_id = ? AND start_time > ?";
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    private static final RowMapper<Appointment> APPOINTMENT_ROW_MAPPER = (rs, rowNum) -> Appointment.builder()
+            .appointmentId(rs.getString("appointment_id"))
+            .ownerId(rs.getString("owner_id"))
+            .inviteeId(rs.getString("invitee_id"))
+            .startTime(rs.getObject("start_time", LocalDateTime.class))
+            .endTime(rs.getObject("end_time", LocalDateTime.class))
+            .build();
+
+    private record Write(Appointment appointment, boolean replace) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchWriter<Write, Boolean> writer;
+
+    public H2AppointmentRepository(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   AppointmentProperties appointmentProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writer = new BatchWriter<>("h2-appointment-writer",
+                appointmentProperties.getH2().getMaxBatchSize(), this::writeBatch);
+    }
+
+    @PostConstruct
+    void createSchema() {
+        jdbcTemplate.execute(CREATE_TABLE);
+        jdbcTemplate.execute(CREATE_SLOT_INDEX);
+    }
+
+    @PreDestroy
+    void close() {
+        writer.close();
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        return jdbcTemplate.query(SELECT_BETWEEN, APPOINTMENT_ROW_MAPPER,
+                ownerId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public Map<String, List<Appointment>> findByOwnerIdsAndDate(Collection<String> ownerIds, LocalDate date) {
+        Map<String, List<Appointment>> appointmentsByOwner = new HashMap<>();
+        ownerIds.forEach(ownerId -> appointmentsByOwner.put(ownerId, new ArrayList<>()));
+        if (ownerIds.isEmpty()) {
+            return appointmentsByOwner;
+        }
+        var placeholders = String.join(", ", Collections.nCopies(ownerIds.size(), "?"));
+        var args = new ArrayList<Object>(ownerIds);
+        args.add(date.atStartOfDay());
+        args.add(date.plusDays(1).atStartOfDay());
+        jdbcTemplate.query(String.format(SELECT_OWNERS_BETWEEN, placeholders), APPOINTMENT_ROW_MAPPER, args.toArray())
+                .forEach(appointment -> appointmentsByOwner.get(appointment.getOwnerId()).add(appointment));
+        return appointmentsByOwner;
+    }
+
+    @Override
+    public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
+        var count = jdbcTemplate.queryForObject(EXISTS, Long.class, ownerId, startTime);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        var count = jdbcTemplate.queryForObject(EXISTS_OVERLAPPING, Long.class, ownerId, endTime, startTime);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public void save(Appointment appointment) {
+        writer.submit(new Write(appointment, true));
+    }
+
+    @Override
+    public boolean saveIfSlotFree(Appointment appointment) {
+        return writer.submit(new Write(appointment, false));
+    }
+
+    @Override
+    public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
+        //limit/offset is served from the (owner_id, start_time) index, no sorting in java
+        var appointments = jdbcTemplate.query(SELECT_AFTER, APPOINTMENT_ROW_MAPPER,
+                ownerId, after, pageable.getPageSize(), pageable.getOffset());
+        var total = jdbcTemplate.queryForObject(COUNT_AFTER, Long.class, ownerId, after);
+        return new PageImpl<>(appointments, pageable, total == null ? 0 : total);
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_KEY, APPOINTMENT_ROW_MAPPER,
+                ownerId, key.startTime(), key.startTime(), key.appointmentId(), limit);
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        var total = jdbcTemplate.queryForObject(COUNT_AFTER, Long.class, ownerId, after);
+        return total == null ? 0 : total;
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_BETWEEN, APPOINTMENT_ROW_MAPPER, ownerId, from, to);
+    }
+
+    private List<Boolean> writeBatch(List<Write> writes) {
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<Boolean>>) connection -> {
+            List<Boolean> results = new ArrayList<>(writes.size());
+            //consecutive writes of the same kind go out as one JDBC batch, order between runs is kept
+            var from = 0;
+            while (from < writes.size()) {
+                var replace = writes.get(from).replace();
+                var to = from;
+                while (to < writes.size() && writes.get(to).replace() == replace) {
+                    to++;
+                }
+                var run = writes.subList(from, to);
+                results.addAll(replace ? upsert(connection, run) : insert(connection, run));
+                from = to;
+            }
+            return results;
+        }));
+    }
+
+    private static List<Boolean> upsert(Connection connection, List<Write> writes) throws SQLException {
+        try (var statement = connection.prepareStatement(UPSERT)) {
+            for (var write : writes) {
+                bind(statement, write.appointment());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return writes.stream().map(write -> true).toList();
+    }
+
+    private static List<Boolean> insert(Connection connection, List<Write> writes) throws SQLException {
+        int[] counts;
+        try (var statement = connection.prepareStatement(INSERT_IF_FREE)) {
+            for (var write : writes) {
+                bindIfFree(statement, write.appointment());
+                statement.addBatch();
+            }
+            try {
+                counts = statement.executeBatch();
+            } catch (BatchUpdateException e) {
+                //a taken start time still fails on the unique index, the update counts say which ones
+                if (!isConstraintViolation(e)) {
+                    throw e;
+                }
+                counts = e.getUpdateCounts();
+            }
+        }
+        List<Boolean> results = new ArrayList<>(writes.size());
+        for (int i = 0; i < writes.size(); i++) {
+            //a driver may stop at the first failure, the rest are inserted one by one
+            //an overlapping appointment inserts no row
+            results.add(i < counts.length
+                    ? counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO
+                    : insertOne(connection, writes.get(i).appointment()));
+        }
+        return results;
+    }
+
+    private static boolean insertOne(Connection connection, Appointment appointment) throws SQLException {
+        try (var statement = connection.prepareStatement(INSERT_IF_FREE)) {
+            bindIfFree(statement, appointment);
+            return statement.executeUpdate() > 0;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            return false;
+        }
+    }
+
+    private static boolean isConstraintViolation(BatchUpdateException e) {
+        var cause = e.getNextException();
+        if (cause == null) {
+            return e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION);
+        }
+        for (; cause != null; cause = cause.getNextException()) {
+            if (cause.getSQLState() == null || !cause.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void bind(PreparedStatement statement, Appointment appointment) throws SQLException {
+        statement.setString(1, appointment.getAppointmentId());
+        statement.setString(2, appointment.getOwnerId());
+        statement.setString(3, appointment.getInviteeId());
+        statement.setObject(4, appointment.getStartTime());
+        statement.setObject(5, appointment.getEndTime());
+    }
+
+    private static void bindIfFree(PreparedStatement statement, Appointment appointment) throws SQLException {
+        bind(statement, appointment);
+        statement.setString(6, appointment.getOwnerId());
+        statement.setObject(7, appointment.getEndTime());
+        statement.setObject(8, appointment.getStartTime());
+    }
+}
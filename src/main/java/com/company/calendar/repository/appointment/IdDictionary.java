@@ -0,0 +1,34 @@
+package com.company.calendar.repository.appointment;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding of user ids. Every distinct id is stored once and referenced by an int code.
+ * Codes are never reused, ids of deleted users simply stay in the dictionary.
+ */
+class IdDictionary {
+
+    private final Map<String, Integer> codesById = new ConcurrentHashMap<>();
+    private volatile String[] idsByCode = new String[1024];
+    private int size;
+
+    int encode(String id) {
+        return codesById.computeIfAbsent(id, this::append);
+    }
+
+    String decode(int code) {
+        return idsByCode[code];
+    }
+
+    private synchronized int append(String id) {
+        var ids = idsByCode;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[size] = id;
+        idsByCode = ids;
+        return size++;
+    }
+}
@@ -10,84 +10,141 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 @Repository
 @ConditionalOnProperty(name = "appointment.repository", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryAppointmentRepository implements AppointmentRepository {
 
-    private final Map<String, List<Appointment>> store = new ConcurrentHashMap<>();
+    //per owner index ordered by start time. An owner can have only one appointment per start time,
+    //so start time is a natural key here. Existence checks are O(log n), day lookups are range scans
+    //and upcoming queries walk the index in order without sorting.
+    private final Map<String, ConcurrentSkipListMap<LocalDateTime, Appointment>> store = new ConcurrentHashMap<>();
+    //one write lock per owner, kept as long as the owner's index. A ReentrantLock rather than a monitor,
+    //so a virtual thread waiting for it does not pin its carrier thread.
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
 
     @Override
     public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
-        return store.getOrDefault(ownerId, List.of())
-                .stream()
-                .filter(a -> a.getStartTime().toLocalDate().equals(date))
-                .toList();
+        var ownerAppointments = store.get(ownerId);
+        if (ownerAppointments == null) {
+            return List.of();
+        }
+        return new ArrayList<>(ownerAppointments
+                .subMap(date.atStartOfDay(), true, date.plusDays(1).atStartOfDay(), false)
+                .values());
     }
 
     @Override
     public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
-        return store.getOrDefault(ownerId, List.of())
-                .stream()
-                .anyMatch(a -> a.getStartTime().equals(startTime));
+        var ownerAppointments = store.get(ownerId);
+        return ownerAppointments != null && ownerAppointments.containsKey(startTime);
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        var ownerAppointments = store.get(ownerId);
+        return ownerAppointments != null && overlaps(ownerAppointments, startTime, endTime);
     }
 
     @Override
     public void save(Appointment appointment) {
-        store.computeIfAbsent(appointment.getOwnerId(), k -> new ArrayList<>())
-                .add(appointment);
+        ownerIndex(appointment.getOwnerId()).put(appointment.getStartTime(), appointment);
     }
 
     @Override
-    //You can add a new method to atomically check-and-insert an appointment in a thread-safe way:
     public boolean saveIfSlotFree(Appointment appointment) {
-        String ownerId = appointment.getOwnerId();
-        LocalDateTime startTime = appointment.getStartTime();
-
-        return store.compute(ownerId, (key, existingList) -> {
-            if (existingList == null) {
-                existingList = new ArrayList<>();
-            }
-
-            boolean exists = existingList.stream()
-                    .anyMatch(a -> a.getStartTime().equals(startTime));
-
-            if (exists) {
-                return existingList; // no changes, slot already taken
+        var ownerAppointments = ownerIndex(appointment.getOwnerId());
+        //a neighbour may now overlap without sharing the start time, so putIfAbsent alone is not enough.
+        //Writers of one owner check and insert under the owner's write lock, readers stay lock-free.
+        var writeLock = writeLocks.computeIfAbsent(appointment.getOwnerId(), k -> new ReentrantLock());
+        writeLock.lock();
+        try {
+            if (overlaps(ownerAppointments, appointment.getStartTime(), appointment.getEndTime())) {
+                return false;
             }
+            ownerAppointments.put(appointment.getStartTime(), appointment);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
-            existingList.add(appointment);
-            return existingList;
-        }).stream().anyMatch(a ->
-                a.getStartTime().equals(startTime) &&
-                        a.getInviteeId().equals(appointment.getInviteeId()) &&
-                        a.getAppointmentId().equals(appointment.getAppointmentId())
-        );
-        //confirm insertion step
-        //After .compute() finishes, it returns the updated list.
-        //We double-check if the newly added appointment is really in the list.
-        //If yes → return true.
-        //If no (slot taken by another thread in the same compute call) → return false.
+    //the appointment starting last before endTime is the only candidate, earlier ones end before it starts
+    private static boolean overlaps(NavigableMap<LocalDateTime, Appointment> ownerAppointments,
+                                    LocalDateTime startTime, LocalDateTime endTime) {
+        var previous = ownerAppointments.lowerEntry(endTime);
+        return previous != null && previous.getValue().getEndTime().isAfter(startTime);
     }
 
     @Override
     public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
-        List<Appointment> filteredAppointments = store.getOrDefault(ownerId, List.of()).stream()
-                .filter(a -> a.getStartTime().isAfter(after))
-                .sorted(Comparator.comparing(Appointment::getStartTime))
-                .toList();
+        var ownerAppointments = store.get(ownerId);
+        if (ownerAppointments == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
 
-        long total = filteredAppointments.size();
+        NavigableMap<LocalDateTime, Appointment> upcoming = ownerAppointments.tailMap(after, false);
+        long total = upcoming.size();
 
-        List<Appointment> pagedAppointments = filteredAppointments.stream()
+        List<Appointment> pagedAppointments = upcoming.values().stream()
                 .skip(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .toList();
 
         return new PageImpl<>(pagedAppointments, pageable, total);
     }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        var ownerAppointments = store.get(ownerId);
+        if (ownerAppointments == null) {
+            return List.of();
+        }
+        //seeks straight to the key, so a late page costs the same as the first one
+        return ownerAppointments.tailMap(key.startTime(), true).values().stream()
+                .dropWhile(appointment -> !key.precedes(appointment))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        var ownerAppointments = store.get(ownerId);
+        return ownerAppointments == null ? 0 : ownerAppointments.tailMap(after, false).size();
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        var ownerAppointments = store.get(ownerId);
+        if (ownerAppointments == null || !from.isBefore(to)) {
+            return List.of();
+        }
+        return new ArrayList<>(ownerAppointments.subMap(from, true, to, false).values());
+    }
+
+    /**
+     * Removes exactly this appointment, if it still occupies its slot.
+     */
+    public boolean delete(Appointment appointment) {
+        var ownerAppointments = store.get(appointment.getOwnerId());
+        return ownerAppointments != null && ownerAppointments.remove(appointment.getStartTime(), appointment);
+    }
+
+    /**
+     * Visits every stored appointment. Weakly consistent: concurrent writes may or may not be seen.
+     */
+    public void forEach(Consumer<Appointment> consumer) {
+        store.values().forEach(ownerAppointments -> ownerAppointments.values().forEach(consumer));
+    }
+
+    private ConcurrentSkipListMap<LocalDateTime, Appointment> ownerIndex(String ownerId) {
+        return store.computeIfAbsent(ownerId, k -> new ConcurrentSkipListMap<>());
+    }
 }
@@ -0,0 +1,172 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Durable appointment store. Every booking is appended to a write-ahead journal before it is acknowledged,
+ * reads are served from an in-memory index. A booking waits in a pending index while it is journaled: it already
+ * blocks overlapping bookings there, but reads only see it once it is durable. On startup the index is rebuilt
+ * from the latest snapshot plus the journal tail (see StoreRecoveryService); until then every call waits at the StoreRecoveryGate.
+ */
+@Repository
+@ConditionalOnProperty(name = "appointment.repository", havingValue = "journal")
+public class JournalAppointmentRepository implements AppointmentRepository {
+
+    private final InMemoryAppointmentRepository index = new InMemoryAppointmentRepository();
+    //appointments being journaled, not visible to reads yet
+    private final InMemoryAppointmentRepository pending = new InMemoryAppointmentRepository();
+    //per owner, guards the overlap check across both indexes and the move from pending to index
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+    private final AppointmentJournal journal;
+    private final StoreRecoveryGate storeRecoveryGate;
+
+    public JournalAppointmentRepository(AppointmentProperties appointmentProperties, StoreRecoveryGate storeRecoveryGate) {
+        this(new AppointmentJournal(Path.of(appointmentProperties.getJournal().getPath()),
+                appointmentProperties.getJournal().getMaxBatchSize()), storeRecoveryGate);
+    }
+
+    JournalAppointmentRepository(AppointmentJournal journal, StoreRecoveryGate storeRecoveryGate) {
+        this.journal = journal;
+        this.storeRecoveryGate = storeRecoveryGate;
+    }
+
+    /**
+     * Reads journal records written at or after fromOffset, must be called once before the first booking.
+     */
+    public long replayJournal(long fromOffset, Consumer<Appointment> consumer) {
+        return journal.replay(fromOffset, consumer);
+    }
+
+    /**
+     * Puts a recovered appointment into the index without journaling it again.
+     */
+    public void restore(Appointment appointment) {
+        index.save(appointment);
+    }
+
+    public long journalOffset() {
+        return journal.committedOffset();
+    }
+
+    /**
+     * Visits every stored and every pending appointment, pending ones first: an appointment moving to the index
+     * meanwhile is then seen at least once. A snapshot taken at a journal offset so finds every appointment
+     * journaled before it, including those whose booking call has not returned yet.
+     */
+    public void forEach(Consumer<Appointment> consumer) {
+        pending.forEach(consumer);
+        index.forEach(consumer);
+    }
+
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        storeRecoveryGate.awaitRecovery();
+        return index.findByOwnerIdAndDate(ownerId, date);
+    }
+
+    @Override
+    public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
+        storeRecoveryGate.awaitRecovery();
+        return index.existsByOwnerIdAndStartTime(ownerId, startTime);
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        storeRecoveryGate.awaitRecovery();
+        return index.existsOverlapping(ownerId, startTime, endTime);
+    }
+
+    @Override
+    public void save(Appointment appointment) {
+        storeRecoveryGate.awaitRecovery();
+        pending.save(appointment);
+        journalAndPublish(appointment);
+    }
+
+    @Override
+    public boolean saveIfSlotFree(Appointment appointment) {
+        storeRecoveryGate.awaitRecovery();
+        var writeLock = writeLock(appointment.getOwnerId());
+        writeLock.lock();
+        try {
+            //bookings still being journaled take part in the check, so they cannot be booked twice
+            if (index.existsOverlapping(appointment.getOwnerId(), appointment.getStartTime(), appointment.getEndTime())
+                    || pending.existsOverlapping(appointment.getOwnerId(), appointment.getStartTime(), appointment.getEndTime())) {
+                return false;
+            }
+            pending.save(appointment);
+        } finally {
+            writeLock.unlock();
+        }
+        journalAndPublish(appointment);
+        return true;
+    }
+
+    //the journal append waits for the fsync, other owners' bookings and all reads go on meanwhile
+    private void journalAndPublish(Appointment appointment) {
+        try {
+            journal.append(appointment);
+        } catch (RuntimeException e) {
+            //not durable, so it must not stay booked
+            pending.delete(appointment);
+            throw e;
+        }
+        var writeLock = writeLock(appointment.getOwnerId());
+        writeLock.lock();
+        try {
+            index.save(appointment);
+            pending.delete(appointment);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private ReentrantLock writeLock(String ownerId) {
+        return writeLocks.computeIfAbsent(ownerId, k -> new ReentrantLock());
+    }
+
+    @Override
+    public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
+        storeRecoveryGate.awaitRecovery();
+        return index.findByOwnerIdAndStartTimeAfter(ownerId, after, pageable);
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        storeRecoveryGate.awaitRecovery();
+        return index.findByOwnerIdAfterKey(ownerId, key, limit);
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        storeRecoveryGate.awaitRecovery();
+        return index.countByOwnerIdAndStartTimeAfter(ownerId, after);
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        storeRecoveryGate.awaitRecovery();
+        return index.findByOwnerIdAndStartTimeBetween(ownerId, from, to);
+    }
+}
@@ -0,0 +1,272 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appointment store that keeps appointment records outside the java heap, in direct ByteBuffer slabs.
+ * The heap only holds a per owner index of start minute to record number, so heap usage and GC work
+ * stay flat as calendars grow. Direct memory is limited by -XX:MaxDirectMemorySize.
+ * <p>
+ * Record layout (32 bytes): start minute, end minute, appointment UUID (2 longs), invitee code, owner code.
+ */
+@Repository
+@Slf4j
+@ConditionalOnProperty(name = "appointment.repository", havingValue = "off-heap")
+public class OffHeapAppointmentRepository implements AppointmentRepository {
+
+    private static final int RECORD_SIZE = 32;
+    private static final int START_OFFSET = 0;
+    private static final int END_OFFSET = 4;
+    private static final int ID_MOST_SIG_BITS_OFFSET = 8;
+    private static final int ID_LEAST_SIG_BITS_OFFSET = 16;
+    private static final int INVITEE_OFFSET = 24;
+    private static final int OWNER_OFFSET = 28;
+
+    private static final int RECORDS_PER_SLAB_SHIFT = 15;
+    private static final int RECORDS_PER_SLAB = 1 << RECORDS_PER_SLAB_SHIFT;
+    private static final int RECORD_IN_SLAB_MASK = RECORDS_PER_SLAB - 1;
+
+    //an appointment converted to the fields of its record, before any slab space is taken for it
+    private record EncodedAppointment(int startMinute, int endMinute, UUID id, int inviteeCode) {
+    }
+
+    private final Map<String, OwnerIndex> indexes = new ConcurrentHashMap<>();
+    private final IdDictionary userIds = new IdDictionary();
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+    private int recordCount;
+
+    @Override
+    public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        var index = indexes.get(ownerId);
+        if (index == null) {
+            return List.of();
+        }
+        var dayStart = AppointmentCodec.epochMinute(date);
+        return index.findBetween(dayStart, dayStart + 24 * 60);
+    }
+
+    @Override
+    public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
+        var index = indexes.get(ownerId);
+        return index != null && index.contains(AppointmentCodec.epochMinute(startTime));
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        var index = indexes.get(ownerId);
+        return index != null && index.overlaps(AppointmentCodec.epochMinuteFloor(startTime), AppointmentCodec.epochMinuteCeil(endTime));
+    }
+
+    @Override
+    public void save(Appointment appointment) {
+        index(appointment.getOwnerId()).insert(appointment, true);
+    }
+
+    @Override
+    public boolean saveIfSlotFree(Appointment appointment) {
+        return index(appointment.getOwnerId()).insert(appointment, false);
+    }
+
+    @Override
+    public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
+        var index = indexes.get(ownerId);
+        if (index == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        return index.findAfter(AppointmentCodec.epochMinuteFloor(after), pageable);
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        var index = indexes.get(ownerId);
+        return index == null ? List.of() : index.findAfterKey(key, limit);
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        var index = indexes.get(ownerId);
+        return index == null ? 0 : index.countAfter(AppointmentCodec.epochMinuteFloor(after));
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        var index = indexes.get(ownerId);
+        if (index == null) {
+            return List.of();
+        }
+        return index.findBetween(AppointmentCodec.epochMinuteCeil(from), AppointmentCodec.epochMinuteCeil(to));
+    }
+
+    private OwnerIndex index(String ownerId) {
+        return indexes.computeIfAbsent(ownerId, OwnerIndex::new);
+    }
+
+    private synchronized int allocateRecord() {
+        var record = recordCount;
+        var slab = record >>> RECORDS_PER_SLAB_SHIFT;
+        if (slab == slabs.length) {
+            var grown = Arrays.copyOf(slabs, slab + 1);
+            grown[slab] = ByteBuffer.allocateDirect(RECORDS_PER_SLAB * RECORD_SIZE);
+            slabs = grown;
+            log.info("Allocated off-heap appointment slab #{} ({} bytes)", slab, RECORDS_PER_SLAB * RECORD_SIZE);
+        }
+        recordCount++;
+        return record;
+    }
+
+    private ByteBuffer slabOf(int record) {
+        return slabs[record >>> RECORDS_PER_SLAB_SHIFT];
+    }
+
+    private static int offsetOf(int record) {
+        return (record & RECORD_IN_SLAB_MASK) * RECORD_SIZE;
+    }
+
+    //throws for an invalid appointment, so callers encode before they allocate or overwrite a record
+    private EncodedAppointment encode(Appointment appointment) {
+        return new EncodedAppointment(
+                AppointmentCodec.epochMinute(appointment.getStartTime()),
+                AppointmentCodec.epochMinute(appointment.getEndTime()),
+                AppointmentCodec.toUuid(appointment.getAppointmentId()),
+                userIds.encode(appointment.getInviteeId()));
+    }
+
+    private void write(int record, int ownerCode, EncodedAppointment encoded) {
+        var slab = slabOf(record);
+        var offset = offsetOf(record);
+        slab.putInt(offset + START_OFFSET, encoded.startMinute());
+        slab.putInt(offset + END_OFFSET, encoded.endMinute());
+        slab.putLong(offset + ID_MOST_SIG_BITS_OFFSET, encoded.id().getMostSignificantBits());
+        slab.putLong(offset + ID_LEAST_SIG_BITS_OFFSET, encoded.id().getLeastSignificantBits());
+        slab.putInt(offset + INVITEE_OFFSET, encoded.inviteeCode());
+        slab.putInt(offset + OWNER_OFFSET, ownerCode);
+    }
+
+    private Appointment read(int record) {
+        var slab = slabOf(record);
+        var offset = offsetOf(record);
+        return Appointment.builder()
+                .appointmentId(AppointmentCodec.toAppointmentId(
+                        slab.getLong(offset + ID_MOST_SIG_BITS_OFFSET), slab.getLong(offset + ID_LEAST_SIG_BITS_OFFSET)))
+                .ownerId(userIds.decode(slab.getInt(offset + OWNER_OFFSET)))
+                .inviteeId(userIds.decode(slab.getInt(offset + INVITEE_OFFSET)))
+                .startTime(AppointmentCodec.toLocalDateTime(slab.getInt(offset + START_OFFSET)))
+                .endTime(AppointmentCodec.toLocalDateTime(slab.getInt(offset + END_OFFSET)))
+                .build();
+    }
+
+    //On-heap index of one owner: record numbers sorted by start minute.
+    //The owner lock also orders record writes before their reads.
+    private final class OwnerIndex {
+        private final int ownerCode;
+        private int size;
+        private int[] startMinutes = new int[8];
+        private int[] records = new int[8];
+
+        private OwnerIndex(String ownerId) {
+            this.ownerCode = userIds.encode(ownerId);
+        }
+
+        synchronized boolean contains(int startMinute) {
+            return Arrays.binarySearch(startMinutes, 0, size, startMinute) >= 0;
+        }
+
+        synchronized boolean overlaps(int startMinute, int endMinute) {
+            //the appointment starting last before endMinute is the only candidate, its end is read from the slab
+            var previous = lowerBound(endMinute) - 1;
+            if (previous < 0) {
+                return false;
+            }
+            var record = records[previous];
+            return slabOf(record).getInt(offsetOf(record) + END_OFFSET) > startMinute;
+        }
+
+        synchronized boolean insert(Appointment appointment, boolean replace) {
+            //an invalid appointment fails here, before a record is allocated or overwritten
+            var encoded = encode(appointment);
+            var startMinute = encoded.startMinute();
+            if (!replace && overlaps(startMinute, encoded.endMinute())) {
+                return false;
+            }
+            var position = Arrays.binarySearch(startMinutes, 0, size, startMinute);
+            if (position >= 0) {
+                //overwrite in place, the slot keeps its record
+                write(records[position], ownerCode, encoded);
+                return true;
+            }
+            var record = allocateRecord();
+            write(record, ownerCode, encoded);
+            position = -position - 1;
+            if (size == startMinutes.length) {
+                var capacity = size + (size >> 1);
+                startMinutes = Arrays.copyOf(startMinutes, capacity);
+                records = Arrays.copyOf(records, capacity);
+            }
+            System.arraycopy(startMinutes, position, startMinutes, position + 1, size - position);
+            System.arraycopy(records, position, records, position + 1, size - position);
+            startMinutes[position] = startMinute;
+            records[position] = record;
+            size++;
+            return true;
+        }
+
+        //appointments with fromMinute <= start < toMinute
+        synchronized List<Appointment> findBetween(int fromMinute, int toMinute) {
+            List<Appointment> appointments = new ArrayList<>();
+            for (int i = lowerBound(fromMinute); i < size && startMinutes[i] < toMinute; i++) {
+                appointments.add(read(records[i]));
+            }
+            return appointments;
+        }
+
+        synchronized Page<Appointment> findAfter(int afterMinute, Pageable pageable) {
+            var first = lowerBound(afterMinute + 1);
+            long total = size - first;
+            var from = (int) Math.min(size, first + pageable.getOffset());
+            var to = Math.min(size, from + pageable.getPageSize());
+            List<Appointment> appointments = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                appointments.add(read(records[i]));
+            }
+            return new PageImpl<>(appointments, pageable, total);
+        }
+
+        //binary search to the key, then at most the appointment at the key itself is skipped
+        synchronized List<Appointment> findAfterKey(AppointmentKey key, int limit) {
+            List<Appointment> appointments = new ArrayList<>(Math.min(limit, size));
+            var first = lowerBound(AppointmentCodec.epochMinuteFloor(key.startTime()));
+            for (int i = first; i < size && appointments.size() < limit; i++) {
+                var appointment = read(records[i]);
+                if (key.precedes(appointment)) {
+                    appointments.add(appointment);
+                }
+            }
+            return appointments;
+        }
+
+        synchronized long countAfter(int afterMinute) {
+            return size - lowerBound(afterMinute + 1);
+        }
+
+        private int lowerBound(int minute) {
+            var position = Arrays.binarySearch(startMinutes, 0, size, minute);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.company.calendar.repository.availabilityOverride;
+
+import com.company.calendar.entity.AvailabilityOverride;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface AvailabilityOverrideRepository {
+
+    //replaces all date-specific overrides and holiday calendar references of the owner
+    void save(String ownerId, List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds);
+
+    //used by startup recovery, does not wait for recovery to finish
+    void restore(String ownerId, List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds);
+
+    List<AvailabilityOverride> findByOwnerIdAndDate(String ownerId, LocalDate date);
+
+    Set<String> findHolidayCalendarIds(String ownerId);
+
+    Set<String> findOwnerIdsByHolidayCalendarId(String calendarId);
+
+    Map<String, OwnerOverrides> findAll();
+}
@@ -0,0 +1,101 @@
+package com.company.calendar.repository.availabilityOverride;
+
+import com.company.calendar.entity.AvailabilityOverride;
+import com.company.calendar.persistence.StoreChange;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Overrides of an owner are kept in a map sorted by date, so the lookup for one date is a tree search instead of a
+ * scan over all of the owner's overrides. Each save publishes a new map, a published one is never modified.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InMemoryAvailabilityOverrideRepository implements AvailabilityOverrideRepository {
+
+    private record IndexedOverrides(NavigableMap<LocalDate, List<AvailabilityOverride>> byDate,
+                                    Set<String> holidayCalendarIds) {
+    }
+
+    private final Map<String, IndexedOverrides> store = new ConcurrentHashMap<>();
+    //per owner, keeps the journal in the order the owner's overrides were stored
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+    private final StoreRecoveryGate storeRecoveryGate;
+    private final StoreJournal storeJournal;
+
+    @Override
+    public void save(String ownerId, List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds) {
+        storeRecoveryGate.awaitRecovery();
+        var indexed = index(overrides, holidayCalendarIds);
+        var lock = writeLocks.computeIfAbsent(ownerId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            storeJournal.write(new StoreChange.OverridesSaved(ownerId, overrides, indexed.holidayCalendarIds()),
+                    () -> store.put(ownerId, indexed));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(String ownerId, List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds) {
+        store.put(ownerId, index(overrides, holidayCalendarIds));
+    }
+
+    @Override
+    public List<AvailabilityOverride> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        storeRecoveryGate.awaitRecovery();
+        var ownerOverrides = store.get(ownerId);
+        return ownerOverrides == null ? List.of() : ownerOverrides.byDate().getOrDefault(date, List.of());
+    }
+
+    @Override
+    public Set<String> findHolidayCalendarIds(String ownerId) {
+        storeRecoveryGate.awaitRecovery();
+        var ownerOverrides = store.get(ownerId);
+        return ownerOverrides == null ? Set.of() : ownerOverrides.holidayCalendarIds();
+    }
+
+    @Override
+    public Set<String> findOwnerIdsByHolidayCalendarId(String calendarId) {
+        storeRecoveryGate.awaitRecovery();
+        //only needed when a holiday calendar changes, which is rare
+        return store.entrySet().stream()
+                .filter(entry -> entry.getValue().holidayCalendarIds().contains(calendarId))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Map<String, OwnerOverrides> findAll() {
+        storeRecoveryGate.awaitRecovery();
+        Map<String, OwnerOverrides> all = new HashMap<>();
+        store.forEach((ownerId, indexed) -> all.put(ownerId, new OwnerOverrides(
+                indexed.byDate().values().stream().flatMap(List::stream).toList(), indexed.holidayCalendarIds())));
+        return all;
+    }
+
+    private static IndexedOverrides index(List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds) {
+        NavigableMap<LocalDate, List<AvailabilityOverride>> byDate = new TreeMap<>();
+        for (var override : overrides) {
+            byDate.computeIfAbsent(override.getDate(), date -> new ArrayList<>()).add(override);
+        }
+        byDate.replaceAll((date, dayOverrides) -> List.copyOf(dayOverrides));
+        return new IndexedOverrides(Collections.unmodifiableNavigableMap(byDate), Set.copyOf(holidayCalendarIds));
+    }
+}
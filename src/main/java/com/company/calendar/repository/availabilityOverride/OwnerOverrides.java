@@ -0,0 +1,12 @@
+package com.company.calendar.repository.availabilityOverride;
+
+import com.company.calendar.entity.AvailabilityOverride;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Everything saved for one owner in a single AvailabilityOverrideRepository.save call.
+ */
+public record OwnerOverrides(List<AvailabilityOverride> overrides, Set<String> holidayCalendarIds) {
+}
@@ -4,14 +4,20 @@ import com.company.calendar.entity.AvailabilityRule;
 
 import java.time.DayOfWeek;
 import java.util.List;
+import java.util.Map;
 
 public interface AvailabilityRuleRepository {
 
     void save(String ownerId, List<AvailabilityRule> rules);
 
+    //used by startup recovery, does not wait for recovery to finish
+    void restore(String ownerId, List<AvailabilityRule> rules);
+
     boolean saveIfAbsent(String ownerId, List<AvailabilityRule> rules);
 
     List<AvailabilityRule> findByOwnerId(String ownerId);
 
     List<AvailabilityRule> findByOwnerIdAndDayOfWeek(String ownerId, DayOfWeek dayOfWeek);
+
+    Map<String, List<AvailabilityRule>> findAll();
 }
@@ -1,36 +1,77 @@
 package com.company.calendar.repository.availabilityRule;
 
 import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.persistence.StoreChange;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Repository
+@RequiredArgsConstructor
 public class InMemoryAvailabilityRuleRepository implements AvailabilityRuleRepository {
 
     private final Map<String, List<AvailabilityRule>> store = new ConcurrentHashMap<>();
+    //per owner, keeps the journal in the order the owner's rule sets were stored
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+    private final StoreRecoveryGate storeRecoveryGate;
+    private final StoreJournal storeJournal;
 
     @Override
     public void save(String ownerId, List<AvailabilityRule> rules) {
+        storeRecoveryGate.awaitRecovery();
+        var lock = writeLocks.computeIfAbsent(ownerId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            storeJournal.write(new StoreChange.RulesSaved(ownerId, rules), () -> store.put(ownerId, rules));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(String ownerId, List<AvailabilityRule> rules) {
         store.put(ownerId, rules);
     }
 
     public boolean saveIfAbsent(String ownerId, List<AvailabilityRule> rules) {
-        return store.computeIfAbsent(ownerId, id -> rules) == rules;
+        storeRecoveryGate.awaitRecovery();
+        var lock = writeLocks.computeIfAbsent(ownerId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (store.containsKey(ownerId)) {
+                return false;
+            }
+            storeJournal.write(new StoreChange.RulesSaved(ownerId, rules), () -> store.put(ownerId, rules));
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public List<AvailabilityRule> findByOwnerId(String ownerId) {
+        storeRecoveryGate.awaitRecovery();
         return store.getOrDefault(ownerId, List.of());
     }
 
     @Override
     public List<AvailabilityRule> findByOwnerIdAndDayOfWeek(String ownerId, DayOfWeek dayOfWeek) {
+        storeRecoveryGate.awaitRecovery();
         List<AvailabilityRule> rules = store.getOrDefault(ownerId, List.of());
         return rules.stream().filter(rule ->
                 rule.getDayOfWeek().equals(dayOfWeek))
                 .toList();
     }
+
+    @Override
+    public Map<String, List<AvailabilityRule>> findAll() {
+        storeRecoveryGate.awaitRecovery();
+        return Map.copyOf(store);
+    }
 }
@@ -0,0 +1,19 @@
+package com.company.calendar.repository.holidayCalendar;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface HolidayCalendarRepository {
+
+    //replaces the holidays of the calendar, keyed by date with the holiday name as value
+    void save(String calendarId, Map<LocalDate, String> holidays);
+
+    //used by startup recovery, does not wait for recovery to finish
+    void restore(String calendarId, Map<LocalDate, String> holidays);
+
+    boolean existsById(String calendarId);
+
+    boolean isHoliday(String calendarId, LocalDate date);
+
+    Map<String, Map<LocalDate, String>> findAll();
+}
@@ -0,0 +1,66 @@
+package com.company.calendar.repository.holidayCalendar;
+
+import com.company.calendar.persistence.StoreChange;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holiday calendars shared by many owners. A calendar is stored once and owners only hold its id.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InMemoryHolidayCalendarRepository implements HolidayCalendarRepository {
+
+    private final Map<String, NavigableMap<LocalDate, String>> store = new ConcurrentHashMap<>();
+    //per calendar, keeps the journal in the order the calendar's versions were stored
+    private final Map<String, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+    private final StoreRecoveryGate storeRecoveryGate;
+    private final StoreJournal storeJournal;
+
+    @Override
+    public void save(String calendarId, Map<LocalDate, String> holidays) {
+        storeRecoveryGate.awaitRecovery();
+        var sorted = Collections.unmodifiableNavigableMap(new TreeMap<>(holidays));
+        var lock = writeLocks.computeIfAbsent(calendarId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            storeJournal.write(new StoreChange.HolidayCalendarSaved(calendarId, sorted), () -> store.put(calendarId, sorted));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(String calendarId, Map<LocalDate, String> holidays) {
+        store.put(calendarId, Collections.unmodifiableNavigableMap(new TreeMap<>(holidays)));
+    }
+
+    @Override
+    public boolean existsById(String calendarId) {
+        storeRecoveryGate.awaitRecovery();
+        return store.containsKey(calendarId);
+    }
+
+    @Override
+    public boolean isHoliday(String calendarId, LocalDate date) {
+        storeRecoveryGate.awaitRecovery();
+        var holidays = store.get(calendarId);
+        return holidays != null && holidays.containsKey(date);
+    }
+
+    @Override
+    public Map<String, Map<LocalDate, String>> findAll() {
+        storeRecoveryGate.awaitRecovery();
+        return Map.copyOf(store);
+    }
+}
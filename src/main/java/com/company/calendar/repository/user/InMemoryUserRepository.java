@@ -1,33 +1,63 @@
 package com.company.calendar.repository.user;
 
 import com.company.calendar.entity.User;
+import com.company.calendar.persistence.StoreChange;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Repository
+@RequiredArgsConstructor
 @ConditionalOnProperty(name = "user.repository", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryUserRepository implements UserRepository {
 
     private final Map<String, User> userStore = new ConcurrentHashMap<>();
     private final Map<String, User> emailToUser = new ConcurrentHashMap<>();
-    private final Object userLock = new Object();
+    //a ReentrantLock rather than a monitor, so virtual request threads waiting for it do not pin their carrier
+    private final ReentrantLock userLock = new ReentrantLock();
+    private final StoreRecoveryGate storeRecoveryGate;
+    private final StoreJournal storeJournal;
 
     @Override
     public void save(User user) {
-        synchronized (userLock) {
-            userStore.put(user.getId(), user);
-            emailToUser.put(user.getUserMetadata().getEmail(), user);
+        storeRecoveryGate.awaitRecovery();
+        userLock.lock();
+        try {
+            storeJournal.write(new StoreChange.UserSaved(user), () -> put(user));
+        } finally {
+            userLock.unlock();
         }
     }
 
+    @Override
+    public void restore(User user) {
+        userLock.lock();
+        try {
+            put(user);
+        } finally {
+            userLock.unlock();
+        }
+    }
+
+    @Override
+    public void restoreDeleteById(String id) {
+        userStore.remove(id);
+    }
+
     public boolean saveIfAbsent(User user) {
-        synchronized (userLock) {
+        storeRecoveryGate.awaitRecovery();
+        userLock.lock();
+        try {
             if (userStore.containsKey(user.getId())) {
                 return false;
             }
@@ -36,38 +66,61 @@ public class InMemoryUserRepository implements UserRepository {
                 return false;
             }
 
-            userStore.put(user.getId(), user);
-            emailToUser.put(user.getUserMetadata().getEmail(), user);
+            storeJournal.write(new StoreChange.UserSaved(user), () -> put(user));
             return true;
+        } finally {
+            userLock.unlock();
         }
     }
 
     @Override
     public Optional<User> findById(String id) {
+        storeRecoveryGate.awaitRecovery();
         return Optional.ofNullable(userStore.get(id));
     }
 
     @Override
     public void deleteById(String id) {
-        userStore.remove(id);
+        storeRecoveryGate.awaitRecovery();
+        userLock.lock();
+        try {
+            storeJournal.write(new StoreChange.UserDeleted(id), () -> userStore.remove(id));
+        } finally {
+            userLock.unlock();
+        }
     }
 
     @Override
     public List<User> findByIds(Set<String> ids) {
-        return userStore.entrySet().stream()
-                .filter(entry -> ids.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
+        storeRecoveryGate.awaitRecovery();
+        //one lookup per requested id instead of a scan over every user
+        return ids.stream()
+                .map(userStore::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
+        storeRecoveryGate.awaitRecovery();
         return Optional.ofNullable(emailToUser.get(email));
     }
 
     @Override
     public boolean existsByEmailExcludingId(String email, String excludedUserId) {
+        storeRecoveryGate.awaitRecovery();
         User existing = emailToUser.getOrDefault(email, null);
         return existing != null && !existing.getId().equals(excludedUserId);
     }
+
+    @Override
+    public List<User> findAll() {
+        storeRecoveryGate.awaitRecovery();
+        return List.copyOf(userStore.values());
+    }
+
+    private void put(User user) {
+        userStore.put(user.getId(), user);
+        emailToUser.put(user.getUserMetadata().getEmail(), user);
+    }
 }
@@ -8,10 +8,15 @@ import java.util.Set;
 
 public interface UserRepository {
     void save(User user);
+    //used by startup recovery, does not wait for recovery to finish
+    void restore(User user);
     boolean saveIfAbsent(User user);
     Optional<User> findById(String id);
     void deleteById(String id);
+    //used by startup recovery, does not wait for recovery to finish
+    void restoreDeleteById(String id);
     List<User> findByIds(Set<String> ids);
     Optional<User> findByEmail(String email);
     boolean existsByEmailExcludingId(String email, String excludedUserId);
+    List<User> findAll();
 }
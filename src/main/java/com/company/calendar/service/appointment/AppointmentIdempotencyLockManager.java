@@ -1,27 +1,17 @@
 package com.company.calendar.service.appointment;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.TimeUnit;
-
 @Component
 public class AppointmentIdempotencyLockManager {
-    private final Cache<String, Object> appointmentLockCache;
-
-    public AppointmentIdempotencyLockManager() {
-        this.appointmentLockCache = Caffeine.newBuilder()
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .maximumSize(10_000)
-                .build();
-    }
+    private final KeyedLockRegistry idempotencyLocks;
 
-    public Object getLock(String key) {
-        return appointmentLockCache.get(key, k -> new Object());
+    public AppointmentIdempotencyLockManager(MeterRegistry meterRegistry) {
+        this.idempotencyLocks = new KeyedLockRegistry("idempotency", meterRegistry);
     }
 
-    public void releaseLock(String key) {
-        appointmentLockCache.invalidate(key);
+    public KeyedLockRegistry.Handle lock(String idempotencyKey) {
+        return idempotencyLocks.lock(idempotencyKey);
     }
-}
\ No newline at end of file
+}
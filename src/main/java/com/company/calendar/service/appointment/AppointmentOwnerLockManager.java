@@ -1,28 +1,17 @@
 package com.company.calendar.service.appointment;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.TimeUnit;
-
-
 @Component
 public class AppointmentOwnerLockManager {
-    private final Cache<String, Object> appointmentLockCache;
-
-    public AppointmentOwnerLockManager() {
-        this.appointmentLockCache = Caffeine.newBuilder()
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .maximumSize(10_000)
-                .build();
-    }
+    private final KeyedLockRegistry ownerLocks;
 
-    public Object getLock(String key) {
-        return appointmentLockCache.get(key, k -> new Object());
+    public AppointmentOwnerLockManager(MeterRegistry meterRegistry) {
+        this.ownerLocks = new KeyedLockRegistry("owner", meterRegistry);
     }
 
-    public void releaseLock(String key) {
-        appointmentLockCache.invalidate(key);
+    public KeyedLockRegistry.Handle lock(String ownerId) {
+        return ownerLocks.lock(ownerId);
     }
-}
\ No newline at end of file
+}
@@ -3,11 +3,16 @@ package com.company.calendar.service.appointment;
 import com.company.calendar.config.AppointmentProperties;
 import com.company.calendar.dto.appointment.BookAppointmentRequest;
 import com.company.calendar.dto.appointment.BookAppointmentResult;
+import com.company.calendar.dto.appointment.UpcomingAppointmentResponse;
 import com.company.calendar.dto.appointment.UpcomingAppointmentsResponseDto;
 import com.company.calendar.entity.Appointment;
 import com.company.calendar.exceptions.appointment.SlotAlreadyBookedException;
+import com.company.calendar.repository.appointment.AppointmentKey;
 import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.availability.AvailableSlotsCache;
 import com.company.calendar.service.user.UserService;
+import com.company.calendar.utils.AppointmentCursor;
+import com.company.calendar.utils.ETagUtils;
 import com.company.calendar.validator.AppointmentValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +21,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,6 +39,7 @@ public class AppointmentService {
     private final AppointmentIdempotencyLockManager appointmentIdempotencyLockManager;
     private final AppointmentValidator appointmentValidator;
     private final UserService userService;
+    private final AvailableSlotsCache availableSlotsCache;
 
     public BookAppointmentResult bookAppointment(String idempotencyKey, BookAppointmentRequest request) {
         var ownerId = request.getOwnerId();
@@ -47,48 +54,47 @@ public class AppointmentService {
                     .newlyCreated(false).build();
         }
 
-        var lock = appointmentIdempotencyLockManager.getLock(idempotencyKey);
-
-        synchronized (lock) {
-            try {
-                existing = appointmentIdempotencyStore.get(idempotencyKey);
-                if (existing != null) {
-                    log.info("Returning cached appointment (post-lock) for idempotencyKey: {}, appointmentId: {}", idempotencyKey, existing);
-                    return BookAppointmentResult.builder()
-                            .appointmentId(existing)
-                            .newlyCreated(false)
-                            .message("Appointment already exists for owner id: " + ownerId)
-                            .build();
-                }
-
-                var duration = appointmentProperties.getDurationMinutes();
-                log.debug("Validating appointment for ownerId: {}, duration: {} minutes", ownerId, duration);
-                appointmentValidator.validateAppointment(request, duration);
-
-                var appointmentId = UUID.randomUUID().toString();
-                log.info("Generated new appointmentId: {} for ownerId: {}, inviteeId: {}", appointmentId, ownerId, request.getInviteeId());
-
-                var success = appointmentBookingStrategy.book(request, duration, appointmentId);
-                if (!success) {
-                    log.warn("Slot already booked for ownerId: {}, startTime: {}", ownerId, request.getStartDateTime());
-                    throw new SlotAlreadyBookedException(ownerId);
-                }
-
-                appointmentIdempotencyStore.put(idempotencyKey, appointmentId);
-                log.info("Successfully booked appointment. Stored in idempotency store for key: {}", idempotencyKey);
-
+        try (var lock = appointmentIdempotencyLockManager.lock(idempotencyKey)) {
+            existing = appointmentIdempotencyStore.get(idempotencyKey);
+            if (existing != null) {
+                log.info("Returning cached appointment (post-lock) for idempotencyKey: {}, appointmentId: {}", idempotencyKey, existing);
                 return BookAppointmentResult.builder()
-                        .appointmentId(appointmentId)
-                        .newlyCreated(true)
-                        .message("Appointment booked successfully for owner id: " + ownerId)
+                        .appointmentId(existing)
+                        .newlyCreated(false)
+                        .message("Appointment already exists for owner id: " + ownerId)
                         .build();
-            } catch (Exception e) {
-                log.error("Error while booking appointment for ownerId: {}, idempotencyKey: {}, error: {}", ownerId, idempotencyKey, e.getMessage(), e);
-                throw e;
+            }
+
+            var duration = request.getDurationMinutes() != null ? request.getDurationMinutes() : appointmentProperties.getDurationMinutes();
+            log.debug("Validating appointment for ownerId: {}, duration: {} minutes", ownerId, duration);
+            appointmentValidator.validateAppointment(request, duration);
+
+            var appointmentId = UUID.randomUUID().toString();
+            log.info("Generated new appointmentId: {} for ownerId: {}, inviteeId: {}", appointmentId, ownerId, request.getInviteeId());
+
+            boolean success;
+            try {
+                success = appointmentBookingStrategy.book(request, duration, appointmentId);
             } finally {
-                appointmentIdempotencyLockManager.releaseLock(idempotencyKey);
-                log.debug("Released lock for idempotencyKey: {}", idempotencyKey);
+                //also when the strategy failed half way, the appointment may have been stored anyway
+                availableSlotsCache.invalidateBooking(ownerId, request.getStartDateTime(), duration);
+            }
+            if (!success) {
+                log.warn("Slot already booked for ownerId: {}, startTime: {}", ownerId, request.getStartDateTime());
+                throw new SlotAlreadyBookedException(ownerId);
             }
+
+            appointmentIdempotencyStore.put(idempotencyKey, appointmentId);
+            log.info("Successfully booked appointment. Stored in idempotency store for key: {}", idempotencyKey);
+
+            return BookAppointmentResult.builder()
+                    .appointmentId(appointmentId)
+                    .newlyCreated(true)
+                    .message("Appointment booked successfully for owner id: " + ownerId)
+                    .build();
+        } catch (Exception e) {
+            log.error("Error while booking appointment for ownerId: {}, idempotencyKey: {}, error: {}", ownerId, idempotencyKey, e.getMessage(), e);
+            throw e;
         }
     }
 
@@ -105,18 +111,64 @@ public class AppointmentService {
             return emptyResponse(ownerId, page);
         }
 
-        var inviteeIds = pagedAppointments.stream()
+        var upcomingAppointments = toResponses(pagedAppointments.getContent());
+
+        log.info("Returning {} upcoming appointments for ownerId: {}", upcomingAppointments.size(), ownerId);
+        return successResponse(ownerId, pagedAppointments, upcomingAppointments);
+    }
+
+    /**
+     * Keyset variant of {@link #getUpcomingAppointments(String, int, int)}: continues after the cursor instead of
+     * skipping an offset, so every page costs the same. Totals need a count over all upcoming appointments
+     * and are only computed when includeTotal is set.
+     */
+    public UpcomingAppointmentsResponseDto getUpcomingAppointmentsByCursor(String ownerId, String cursor, int size, boolean includeTotal) {
+        log.info("Fetching upcoming appointments for ownerId: {}, cursor: {}, size: {}, includeTotal: {}", ownerId, cursor, size, includeTotal);
+
+        userService.validateUserExists(ownerId);
+        var now = LocalDateTime.now();
+        var key = cursor == null ? AppointmentKey.after(now) : AppointmentCursor.decode(cursor);
+
+        //one extra appointment tells whether there is a next page, without counting
+        var appointments = appointmentRepository.findByOwnerIdAfterKey(ownerId, key, size + 1);
+        var hasNext = appointments.size() > size;
+        var pageAppointments = hasNext ? appointments.subList(0, size) : appointments;
+        var nextCursor = hasNext ? AppointmentCursor.encode(AppointmentKey.of(pageAppointments.getLast())) : null;
+        var totalItems = includeTotal ? appointmentRepository.countByOwnerIdAndStartTimeAfter(ownerId, now) : null;
+
+        var upcomingAppointments = toResponses(pageAppointments);
+        log.info("Returning {} upcoming appointments for ownerId: {}, has next page: {}", upcomingAppointments.size(), ownerId, hasNext);
+        return cursorResponse(ownerId, upcomingAppointments, nextCursor, totalItems, size);
+    }
+
+    /**
+     * Strong ETag of the owner's upcoming appointments, the same for every page. Has to be taken before the page is
+     * fetched, so a booking racing with the fetch only makes the next conditional request miss.
+     */
+    public String getUpcomingAppointmentsETag(String ownerId) {
+        var bookingsVersion = availableSlotsCache.bookingsVersion(ownerId);
+        //the owner's existence decides between page and 404, invitee details are part of the page
+        var ownerVersion = userService.getUserVersion(ownerId);
+        var userDetailsVersion = userService.getUserDetailsVersion();
+        //without any write the pages still change once the first upcoming appointment has started
+        var next = appointmentRepository.findByOwnerIdAfterKey(ownerId, AppointmentKey.after(LocalDateTime.now()), 1);
+        var nextStartTime = next.isEmpty() ? "none" : next.getFirst().getStartTime();
+        return ETagUtils.strongETag(ownerVersion, userDetailsVersion, bookingsVersion, nextStartTime);
+    }
+
+    private List<UpcomingAppointmentResponse> toResponses(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return List.of();
+        }
+        var inviteeIds = appointments.stream()
                 .map(Appointment::getInviteeId)
                 .collect(Collectors.toSet());
 
         log.debug("Fetching user details for invitees: {}", inviteeIds);
         var inviteeMap = userService.getUsersByIds(inviteeIds);
 
-        var upcomingAppointments = pagedAppointments.stream()
+        return appointments.stream()
                 .map(appointment -> toResponse(appointment, inviteeMap))
                 .toList();
-
-        log.info("Returning {} upcoming appointments for ownerId: {}", upcomingAppointments.size(), ownerId);
-        return successResponse(ownerId, pagedAppointments, upcomingAppointments);
     }
 }
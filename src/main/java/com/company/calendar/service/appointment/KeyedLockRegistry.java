@@ -0,0 +1,89 @@
+package com.company.calendar.service.appointment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One lock per key, alive exactly as long as somebody holds or waits for it.
+ * Every caller of lock(key) increments the key's reference count before it blocks and decrements it on close,
+ * the entry is removed when the count drops to zero. So all threads contending for a key always share the same
+ * lock, no matter how many distinct keys exist, and idle keys cost no memory.
+ * <p>
+ * Time spent waiting for a lock is recorded in the appointment.lock.acquire.wait timer, tagged with the registry name.
+ */
+public class KeyedLockRegistry {
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        //only read and written inside ConcurrentHashMap.compute for the entry's key
+        private int references;
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Timer acquireWaitTimer;
+
+    public KeyedLockRegistry(String name, MeterRegistry meterRegistry) {
+        this.acquireWaitTimer = Timer.builder("appointment.lock.acquire.wait")
+                .description("Time spent waiting to acquire a keyed lock")
+                .tag("registry", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("appointment.lock.active.keys", entries, Map::size)
+                .description("Keys that are currently locked or waited for")
+                .tag("registry", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until the lock for key is held. Close the returned handle to release it.
+     */
+    public Handle lock(String key) {
+        var entry = entries.compute(key, (k, existing) -> {
+            var referenced = existing == null ? new Entry() : existing;
+            referenced.references++;
+            return referenced;
+        });
+        var startedAt = System.nanoTime();
+        entry.lock.lock();
+        acquireWaitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return new Handle(key, entry);
+    }
+
+    /**
+     * Number of keys that are currently locked or waited for.
+     */
+    public int activeKeys() {
+        return entries.size();
+    }
+
+    private void unlock(String key, Entry entry) {
+        entry.lock.unlock();
+        entries.computeIfPresent(key, (k, referenced) -> --referenced.references == 0 ? null : referenced);
+    }
+
+    public final class Handle implements AutoCloseable {
+        private final String key;
+        private final Entry entry;
+        private boolean released;
+
+        private Handle(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public void close() {
+            //handles are used by the locking thread only, so a plain flag is enough to make close idempotent
+            if (!released) {
+                released = true;
+                unlock(key, entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.company.calendar.service.appointment;
+
+import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Books without locks. Every owner-day is a bitmap of 15 minute cells and a booking claims the cells its
+ * appointment covers with compareAndSet. Two requests for the same time can never both win, and requests for
+ * different times of one owner never wait for each other. A one hour slot lies within one word, so booking
+ * it is a single CAS. The appointment is then stored without a second overlap check, which only holds as long as
+ * every booking goes through this strategy.
+ * <p>
+ * Bitmaps are loaded lazily from the repository the first time an owner-day is booked, and dropped once
+ * their day is in the past.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "appointment.booking-strategy", havingValue = "lock-free")
+public class LockFreeBookingStrategy implements AppointmentBookingStrategy {
+
+    private static final int CELL_MINUTES = 15;
+    private static final int CELLS_PER_DAY = 24 * 60 / CELL_MINUTES;
+
+    private record OwnerDay(String ownerId, LocalDate date) {
+    }
+
+    private record Claim(SlotBitmap bitmap, int fromCell, int toCell) {
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final Map<OwnerDay, SlotBitmap> bitmaps = new ConcurrentHashMap<>();
+    private volatile LocalDate sweptOn = LocalDate.MIN;
+
+    @Override
+    public boolean book(BookAppointmentRequest request, int durationMinutes, String appointmentId) {
+        var ownerId = request.getOwnerId();
+        var startTime = request.getStartDateTime();
+        var endTime = startTime.plusMinutes(durationMinutes);
+        log.info("Attempting lock-free booking for appointmentId: {}, ownerId: {}, startTime: {}, endTime: {}",
+                appointmentId, ownerId, startTime, endTime);
+        sweepPastDays();
+
+        var claims = claim(ownerId, startTime, endTime);
+        if (claims == null) {
+            log.warn("Appointment slot already booked for ownerId: {}, startTime: {}", ownerId, startTime);
+            return false;
+        }
+
+        var appointment = Appointment.builder()
+                .appointmentId(appointmentId)
+                .ownerId(ownerId)
+                .inviteeId(request.getInviteeId())
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+        try {
+            //the claimed cells already prove the interval free, so a plain save without the repository's
+            //per-owner overlap check, which would serialize the owner's bookings again
+            appointmentRepository.save(appointment);
+        } catch (RuntimeException e) {
+            log.error("Error while booking appointment for ownerId: {}, startTime: {}, error: {}", ownerId, startTime, e.getMessage(), e);
+            release(claims);
+            throw e;
+        }
+        log.info("Appointment booked successfully for appointmentId: {}", appointmentId);
+        return true;
+    }
+
+    //claims every cell in [startTime, endTime), day by day; null if any of them is taken
+    private List<Claim> claim(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Claim> claims = new ArrayList<>(1);
+        for (var date = startTime.toLocalDate(); date.atStartOfDay().isBefore(endTime); date = date.plusDays(1)) {
+            var cells = cells(date, startTime, endTime);
+            var bitmap = bitmap(ownerId, date);
+            if (!bitmap.claim(cells[0], cells[1])) {
+                release(claims);
+                return null;
+            }
+            claims.add(new Claim(bitmap, cells[0], cells[1]));
+        }
+        return claims;
+    }
+
+    private static void release(List<Claim> claims) {
+        claims.forEach(claim -> claim.bitmap().release(claim.fromCell(), claim.toCell()));
+    }
+
+    private SlotBitmap bitmap(String ownerId, LocalDate date) {
+        var key = new OwnerDay(ownerId, date);
+        var bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        //built outside the map so no bin lock is held while the repository is read. Nothing can be booked
+        //through a bitmap before it is published, so a loser of the race simply uses the winner's bitmap.
+        var loaded = new SlotBitmap();
+        var dayStart = date.atStartOfDay();
+        var appointments = new ArrayList<>(appointmentRepository.findByOwnerIdAndDate(ownerId, date.minusDays(1)));
+        appointments.addAll(appointmentRepository.findByOwnerIdAndDate(ownerId, date));
+        for (var appointment : appointments) {
+            //previous day appointments only count when they run past midnight
+            if (appointment.getEndTime().isAfter(dayStart)) {
+                var cells = cells(date, appointment.getStartTime(), appointment.getEndTime());
+                loaded.claim(cells[0], cells[1]);
+            }
+        }
+        var raced = bitmaps.putIfAbsent(key, loaded);
+        return raced == null ? loaded : raced;
+    }
+
+    //cell range of [startTime, endTime) clipped to date, partially covered cells included
+    private static int[] cells(LocalDate date, LocalDateTime startTime, LocalDateTime endTime) {
+        var dayStart = date.atStartOfDay();
+        var dayEnd = dayStart.plusDays(1);
+        var from = startTime.isAfter(dayStart) ? startTime : dayStart;
+        var to = endTime.isBefore(dayEnd) ? endTime : dayEnd;
+        var fromMinute = Duration.between(dayStart, from).toMinutes();
+        var toMinute = Duration.between(dayStart, to.minusNanos(1)).toMinutes() + 1;
+        return new int[]{(int) (fromMinute / CELL_MINUTES), (int) ((toMinute + CELL_MINUTES - 1) / CELL_MINUTES)};
+    }
+
+    private void sweepPastDays() {
+        var today = LocalDate.now();
+        if (today.isAfter(sweptOn)) {
+            sweptOn = today;
+            bitmaps.keySet().removeIf(key -> key.date().isBefore(today));
+        }
+    }
+
+    //one bit per cell, claims are all-or-nothing across words
+    static final class SlotBitmap {
+        private final AtomicLongArray words = new AtomicLongArray((CELLS_PER_DAY + 63) / 64);
+
+        boolean claim(int fromCell, int toCell) {
+            for (int word = fromCell >>> 6; word <= (toCell - 1) >>> 6; word++) {
+                var mask = mask(word, fromCell, toCell);
+                while (true) {
+                    var current = words.get(word);
+                    if ((current & mask) != 0) {
+                        //undo the words claimed so far
+                        if (word > fromCell >>> 6) {
+                            release(fromCell, word << 6);
+                        }
+                        return false;
+                    }
+                    if (words.compareAndSet(word, current, current | mask)) {
+                        break;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void release(int fromCell, int toCell) {
+            for (int word = fromCell >>> 6; word <= (toCell - 1) >>> 6; word++) {
+                var mask = mask(word, fromCell, toCell);
+                words.getAndUpdate(word, current -> current & ~mask);
+            }
+        }
+
+        private static long mask(int word, int fromCell, int toCell) {
+            var from = Math.max(fromCell, word << 6) - (word << 6);
+            var to = Math.min(toCell, (word + 1) << 6) - (word << 6);
+            var high = to == 64 ? -1L : (1L << to) - 1;
+            return high & (-1L << from);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.company.calendar.service.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Every owner gets a mailbox, and at most one writer drains a mailbox at a time. Callers post their booking and
+ * wait for its future; the writer takes everything that piled up (up to appointment.single-writer.max-batch-size),
+ * reads the owner's appointments once per day in the batch and decides all bookings in one pass.
+ * Requests for a busy owner queue up instead of fighting over a lock, and the repository reads are shared by the batch.
+ * Only the reads are amortized: every accepted booking is still written with its own saveIfSlotFree call.
+ * <p>
+ * Mailboxes are drained on a fixed pool of appointment.single-writer.writer-threads, one batch per turn,
+ * so a busy owner cannot starve the others. A mailbox is dropped once it is drained and idle, so owners
+ * that stopped booking cost no memory.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "appointment.booking-strategy", havingValue = "single-writer")
+public class SingleWriterBookingStrategy implements AppointmentBookingStrategy {
+
+    private record Booking(Appointment appointment, CompletableFuture<Boolean> result) {
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final int maxBatchSize;
+    private final ExecutorService writers;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public SingleWriterBookingStrategy(AppointmentRepository appointmentRepository,
+                                       AppointmentProperties appointmentProperties) {
+        this.appointmentRepository = appointmentRepository;
+        this.maxBatchSize = appointmentProperties.getSingleWriter().getMaxBatchSize();
+        this.writers = Executors.newFixedThreadPool(appointmentProperties.getSingleWriter().getWriterThreads(),
+                Thread.ofPlatform().name("booking-writer-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        writers.shutdown();
+        if (!writers.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Booking writers did not finish within 5 seconds");
+        }
+    }
+
+    @Override
+    public boolean book(BookAppointmentRequest request, int durationMinutes, String appointmentId) {
+        var ownerId = request.getOwnerId();
+        var startTime = request.getStartDateTime();
+        log.info("Attempting single-writer booking for appointmentId: {}, ownerId: {}, startTime: {}", appointmentId, ownerId, startTime);
+
+        var appointment = Appointment.builder()
+                .appointmentId(appointmentId)
+                .ownerId(ownerId)
+                .inviteeId(request.getInviteeId())
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(durationMinutes))
+                .build();
+        var booking = new Booking(appointment, new CompletableFuture<>());
+        //added inside compute, so an idle mailbox cannot be dropped between the lookup and the add
+        var mailbox = mailboxes.compute(ownerId, (k, existing) -> {
+            var live = existing == null ? new Mailbox(k) : existing;
+            live.pending.add(booking);
+            return live;
+        });
+        mailbox.schedule();
+
+        boolean booked;
+        try {
+            booked = booking.result().join();
+        } catch (CompletionException e) {
+            log.error("Error while booking appointment for ownerId: {}, startTime: {}, error: {}",
+                    ownerId, startTime, e.getCause().getMessage(), e.getCause());
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (booked) {
+            log.info("Appointment booked successfully for appointmentId: {}", appointmentId);
+        } else {
+            log.warn("Appointment slot already booked for ownerId: {}, startTime: {}", ownerId, startTime);
+        }
+        return booked;
+    }
+
+    /**
+     * Number of owners that currently have a mailbox, i.e. bookings pending or being applied.
+     */
+    int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    //decides the batch in arrival order, so the earliest request for a slot wins it
+    private void apply(String ownerId, List<Booking> batch) {
+        //start time -> end time of the owner's appointments on the days read so far
+        TreeMap<LocalDateTime, LocalDateTime> booked = new TreeMap<>();
+        Set<LocalDate> loadedDays = new HashSet<>();
+        for (var booking : batch) {
+            var startTime = booking.appointment().getStartTime();
+            var endTime = booking.appointment().getEndTime();
+            //an appointment of the previous day may still run into this one
+            for (var date = startTime.toLocalDate().minusDays(1); date.atStartOfDay().isBefore(endTime); date = date.plusDays(1)) {
+                if (loadedDays.add(date)) {
+                    appointmentRepository.findByOwnerIdAndDate(ownerId, date)
+                            .forEach(appointment -> booked.put(appointment.getStartTime(), appointment.getEndTime()));
+                }
+            }
+            //booked intervals never overlap, so the one starting last before endTime is the only candidate
+            var previous = booked.lowerEntry(endTime);
+            if (previous != null && previous.getValue().isAfter(startTime)) {
+                booking.result().complete(false);
+                continue;
+            }
+            booked.put(startTime, endTime);
+            try {
+                //this writer is the only one booking for the owner, so the check only guards against other writers
+                //of the repository (imports, another node)
+                booking.result().complete(appointmentRepository.saveIfSlotFree(booking.appointment()));
+            } catch (RuntimeException e) {
+                booked.remove(startTime);
+                booking.result().completeExceptionally(e);
+            }
+        }
+        log.debug("Applied a batch of {} booking(s) for ownerId: {}", batch.size(), ownerId);
+    }
+
+    private final class Mailbox implements Runnable {
+        private final String ownerId;
+        private final Queue<Booking> pending = new ConcurrentLinkedQueue<>();
+        //true while a drain of this mailbox is queued or running
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(String ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writers.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                Booking booking;
+                while ((booking = pending.poll()) != null) {
+                    booking.result().completeExceptionally(new IllegalStateException("Booking writers are shut down"));
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Booking> batch = new ArrayList<>(Math.min(maxBatchSize, 16));
+            try {
+                Booking booking;
+                while (batch.size() < maxBatchSize && (booking = pending.poll()) != null) {
+                    batch.add(booking);
+                }
+                if (!batch.isEmpty()) {
+                    apply(ownerId, batch);
+                }
+            } catch (RuntimeException e) {
+                //e.g. the repository read failed, nobody must be left waiting. Already decided bookings keep their result
+                log.error("Booking writer failed for ownerId: {}, error: {}", ownerId, e.getMessage(), e);
+                batch.forEach(booking -> booking.result().completeExceptionally(e));
+            } finally {
+                scheduled.set(false);
+                //bookings posted while this batch was applied saw scheduled == true and left the drain to us
+                if (!pending.isEmpty()) {
+                    schedule();
+                } else {
+                    //a booking posted from here on either keeps the mailbox or lands in a new one
+                    mailboxes.computeIfPresent(ownerId, (k, mailbox) ->
+                            mailbox == this && pending.isEmpty() && !scheduled.get() ? null : mailbox);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.company.calendar.service.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.dto.appointment.BookAppointmentResult;
+import com.company.calendar.dto.appointment.BookTeamAppointmentRequest;
+import com.company.calendar.exceptions.appointment.NoTeamMemberAvailableException;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.availability.AvailabilityServiceHelper;
+import com.company.calendar.service.availability.AvailableSlotsCache;
+import com.company.calendar.utils.DateUtils;
+import com.company.calendar.validator.AppointmentValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Books a pool of owners as one team: the appointment goes to the least loaded member who is free for the requested
+ * time. Members are scanned once, and when another request claims the chosen member first the next candidate
+ * of the same scan is tried, so clients never have to probe members or retry on their own.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TeamAppointmentService {
+
+    private record Candidate(String ownerId, int load) {
+    }
+
+    //team bookings share the idempotency store and lock manager with single bookings, their keys live apart
+    private static final String IDEMPOTENCY_KEY_PREFIX = "team:";
+
+    private final AppointmentProperties appointmentProperties;
+    private final AppointmentBookingStrategy appointmentBookingStrategy;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentIdempotencyStore appointmentIdempotencyStore;
+    private final AppointmentIdempotencyLockManager appointmentIdempotencyLockManager;
+    private final AppointmentValidator appointmentValidator;
+    private final AvailabilityServiceHelper availabilityServiceHelper;
+    private final AvailableSlotsCache availableSlotsCache;
+    //where the next scan starts, so members with equal load take turns
+    private final AtomicInteger nextScanStart = new AtomicInteger();
+
+    public BookAppointmentResult bookTeamAppointment(String idempotencyKey, BookTeamAppointmentRequest request) {
+        log.info("Received team appointment booking request for {} member(s), idempotencyKey: {}", request.getMemberIds().size(), idempotencyKey);
+
+        var teamIdempotencyKey = IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
+        try (var lock = appointmentIdempotencyLockManager.lock(teamIdempotencyKey)) {
+            var existing = appointmentIdempotencyStore.get(teamIdempotencyKey);
+            if (existing != null) {
+                log.info("Returning cached team appointment for idempotencyKey: {}, appointmentId: {}", idempotencyKey, existing);
+                return BookAppointmentResult.builder()
+                        .appointmentId(existing)
+                        .newlyCreated(false)
+                        .message("Team appointment already exists")
+                        .build();
+            }
+
+            var duration = request.getDurationMinutes() != null ? request.getDurationMinutes() : appointmentProperties.getDurationMinutes();
+            appointmentValidator.validateTeamAppointment(request, duration);
+
+            var startTime = request.getStartDateTime();
+            var appointmentId = UUID.randomUUID().toString();
+            for (var candidate : freeMembers(request.getMemberIds(), startTime, duration)) {
+                var memberRequest = BookAppointmentRequest.builder()
+                        .ownerId(candidate.ownerId())
+                        .inviteeId(request.getInviteeId())
+                        .startDateTime(startTime)
+                        .durationMinutes(duration)
+                        .build();
+                boolean success;
+                try {
+                    success = appointmentBookingStrategy.book(memberRequest, duration, appointmentId);
+                } finally {
+                    availableSlotsCache.invalidateBooking(candidate.ownerId(), startTime, duration);
+                }
+                if (success) {
+                    appointmentIdempotencyStore.put(teamIdempotencyKey, appointmentId);
+                    log.info("Booked team appointment: {} with ownerId: {}, load: {}", appointmentId, candidate.ownerId(), candidate.load());
+                    return BookAppointmentResult.builder()
+                            .appointmentId(appointmentId)
+                            .ownerId(candidate.ownerId())
+                            .newlyCreated(true)
+                            .message("Appointment booked successfully for owner id: " + candidate.ownerId())
+                            .build();
+                }
+                log.debug("Team member ownerId: {} was booked concurrently at {}, trying next member", candidate.ownerId(), startTime);
+            }
+
+            log.warn("No team member available at startTime: {}", startTime);
+            throw new NoTeamMemberAvailableException(DateUtils.formatDateTime(startTime));
+        } catch (Exception e) {
+            log.error("Error while booking team appointment, idempotencyKey: {}, error: {}", idempotencyKey, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    //members available for [startTime, startTime + durationMinutes) without an overlapping booking, least loaded first
+    private List<Candidate> freeMembers(List<String> memberIds, LocalDateTime startTime, int durationMinutes) {
+        var endTime = startTime.plusMinutes(durationMinutes);
+        var members = memberIds.stream().distinct().toList();
+        var scanStart = Math.floorMod(nextScanStart.getAndIncrement(), members.size());
+        //bitmap lookups first, the repository is only read for members who could host the slot at all
+        List<String> available = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            var ownerId = members.get((scanStart + i) % members.size());
+            if (availabilityServiceHelper.isAvailable(ownerId, startTime, durationMinutes)) {
+                available.add(ownerId);
+            }
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        if (available.isEmpty()) {
+            log.debug("No team member out of {} has availability at {}", members.size(), startTime);
+            return candidates;
+        }
+        //one bulk read for all of them instead of one read per member
+        var appointmentsByOwner = appointmentRepository.findByOwnerIdsAndDate(available, startTime.toLocalDate());
+        for (var ownerId : available) {
+            var appointments = appointmentsByOwner.getOrDefault(ownerId, List.of());
+            if (appointments.stream().noneMatch(appointment -> appointment.getStartTime().isBefore(endTime)
+                    && appointment.getEndTime().isAfter(startTime))) {
+                candidates.add(new Candidate(ownerId, appointments.size()));
+            }
+        }
+        //stable sort keeps the rotated scan order among members with equal load
+        candidates.sort(Comparator.comparingInt(Candidate::load));
+        log.debug("Found {} free team member(s) out of {} at {}", candidates.size(), members.size(), startTime);
+        return candidates;
+    }
+}
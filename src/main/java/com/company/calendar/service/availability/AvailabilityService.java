@@ -1,31 +1,64 @@
 package com.company.calendar.service.availability;
 
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.availability.AvailabilityOverridesRequest;
 import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.dto.availability.HolidayCalendarRequest;
 import com.company.calendar.dto.availability.UpdateAvailabilityRulesResult;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityOverride;
 import com.company.calendar.entity.AvailabilityRule;
 import com.company.calendar.dto.availability.AvailabilityRuleSetupRequest;
 import com.company.calendar.exceptions.availability.AvailabilityRulesAlreadyExistsException;
 import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.repository.availabilityOverride.AvailabilityOverrideRepository;
 import com.company.calendar.repository.availabilityRule.AvailabilityRuleRepository;
+import com.company.calendar.repository.holidayCalendar.HolidayCalendarRepository;
 import com.company.calendar.service.user.UserService;
+import com.company.calendar.utils.ETagUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
+import static com.company.calendar.constants.ApplicationConstants.MAX_BULK_OWNERS;
+import static com.company.calendar.constants.ApplicationConstants.MAX_COLLECTIVE_OWNERS;
+import static com.company.calendar.constants.ApplicationConstants.MAX_SLOT_RANGE_DAYS;
+import static com.company.calendar.constants.ApplicationConstants.MAX_SLOT_STREAM_DAYS;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AvailabilityService {
 
+    private static final int NEXT_SLOT_SEARCH_CHUNK_DAYS = 7;
+    private static final int SLOT_STREAM_CHUNK_DAYS = 7;
+
+    private final AppointmentProperties appointmentProperties;
     private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final AvailabilityOverrideRepository availabilityOverrideRepository;
+    private final HolidayCalendarRepository holidayCalendarRepository;
     private final AppointmentRepository appointmentRepository;
     private final AvailabilityServiceHelper availabilityServiceHelper;
     private final UserService userService;
+    private final CompiledAvailability compiledAvailability;
+    private final AvailableSlotsCache availableSlotsCache;
 
     public String createAvailabilityRules(AvailabilityRuleSetupRequest request) {
         var ownerId = request.getOwnerId();
@@ -45,6 +78,8 @@ public class AvailabilityService {
             log.warn("Availability rules already exist for ownerId: {}", ownerId);
             throw new AvailabilityRulesAlreadyExistsException(ownerId);
         }
+        compiledAvailability.refresh(ownerId);
+        availableSlotsCache.invalidateOwner(ownerId);
         String message = "Availability rules created successfully for owner id: " + ownerId;
         log.info(message);
         return message;
@@ -72,6 +107,8 @@ public class AvailabilityService {
         //no high contention here. Lost updates are fine here.
         //For the same owner, I am enabling latest update to be persisted in in-memory store
         availabilityRuleRepository.save(ownerId, rules);
+        compiledAvailability.refresh(ownerId);
+        availableSlotsCache.invalidateOwner(ownerId);
         String message = (alreadyCreated ? "Availability rules updated successfully for owner id: "
                 : "Availability rules created successfully for owner id: ") + ownerId;
         log.info(message);
@@ -82,6 +119,55 @@ public class AvailabilityService {
                 .build();
     }
 
+    /**
+     * Replaces the date-specific overrides and holiday calendar references of the owner. They are applied on top of
+     * the weekly rules whenever slots of a date are looked up, so nothing has to be recompiled.
+     */
+    public String setAvailabilityOverrides(String ownerId, AvailabilityOverridesRequest request) {
+        log.info("Setting {} availability override(s) for owner id: {}", request.getOverrides().size(), ownerId);
+        userService.validateUserExists(ownerId);
+        log.debug("User validation passed for owner id: {}", ownerId);
+
+        var holidayCalendarIds = request.getHolidayCalendarIds() == null ? Set.<String>of() : request.getHolidayCalendarIds();
+        for (var calendarId : holidayCalendarIds) {
+            if (!holidayCalendarRepository.existsById(calendarId)) {
+                log.warn("Holiday calendar not found with id: {} for owner id: {}", calendarId, ownerId);
+                throw new IllegalArgumentException("Holiday calendar not found with id: " + calendarId);
+            }
+        }
+        var overrides = request.getOverrides().stream()
+                .map(override -> AvailabilityOverride.builder()
+                        .ownerId(ownerId)
+                        .date(override.getDate())
+                        .type(override.getType())
+                        .startTime(override.getStartTime())
+                        .endTime(override.getEndTime())
+                        .build())
+                .toList();
+
+        availabilityOverrideRepository.save(ownerId, overrides, holidayCalendarIds);
+        availableSlotsCache.invalidateOwner(ownerId);
+        String message = "Availability overrides saved successfully for owner id: " + ownerId;
+        log.info(message);
+        return message;
+    }
+
+    /**
+     * Creates or replaces a shared holiday calendar. Every owner referencing it sees the change on the next lookup.
+     */
+    public String saveHolidayCalendar(String calendarId, HolidayCalendarRequest request) {
+        log.info("Saving holiday calendar id: {} with {} holiday(s)", calendarId, request.getHolidays().size());
+        Map<LocalDate, String> holidays = new HashMap<>();
+        request.getHolidays().forEach(holiday -> holidays.put(holiday.getDate(), holiday.getName() == null ? "" : holiday.getName()));
+
+        holidayCalendarRepository.save(calendarId, holidays);
+        var ownerIds = availabilityOverrideRepository.findOwnerIdsByHolidayCalendarId(calendarId);
+        ownerIds.forEach(availableSlotsCache::invalidateOwner);
+        String message = "Holiday calendar saved successfully with id: " + calendarId;
+        log.info("{}, referenced by {} owner(s)", message, ownerIds.size());
+        return message;
+    }
+
     private List<AvailabilityRule> buildRules(String ownerId, List<AvailabilityRuleSetupRequest.AvailabilityRuleRequest> rules) {
         return rules.stream()
                 .map(r -> {
@@ -101,24 +187,283 @@ public class AvailabilityService {
         userService.validateUserExists(ownerId);
         log.debug("User validation passed for owner id: {}", ownerId);
 
-        //available = total - booked
-        var rules = availabilityServiceHelper.getRulesForOwnerAndDay(ownerId, date.getDayOfWeek());
-        if (CollectionUtils.isEmpty(rules)) {
+        return availableSlotsCache.get(ownerId, date, () -> computeAvailableSlots(ownerId, date));
+    }
+
+    /**
+     * Strong ETag of the owner's available slots on date. Has to be taken before the slots are fetched: a change
+     * racing with the fetch then only makes the next conditional request miss, it can never match outdated slots.
+     */
+    public String getAvailableSlotsETag(String ownerId, LocalDate date) {
+        //slots show no user details, only the owner's own existence matters
+        return ETagUtils.strongETag(userService.getUserVersion(ownerId), availableSlotsCache.slotsVersion(ownerId, date));
+    }
+
+    private List<AvailableSlotDto> computeAvailableSlots(String ownerId, LocalDate date) {
+        //available = rule bitmap minus every slot overlapping a booking
+        var slotStarts = compiledAvailability.slotStartsFor(ownerId, date);
+        if (slotStarts.isEmpty()) {
             log.warn("No availability rules found for owner id: {} on day: {}", ownerId, date.getDayOfWeek());
             return List.of();
         }
-        log.debug("Found {} availability rules for owner id: {} on day: {}", rules.size(), ownerId, date.getDayOfWeek());
+        log.debug("Found {} slot start(s) for owner id: {} on day: {}", slotStarts.cardinality(), ownerId, date.getDayOfWeek());
 
         var appointments = appointmentRepository.findByOwnerIdAndDate(ownerId, date);
-        var bookedStartTimes = appointments.stream()
-                .map(appt -> appt.getStartTime().toLocalTime())
-                .collect(Collectors.toSet());
-
         log.debug("Found {} existing appointments for owner id: {} on {}", appointments.size(), ownerId, date);
 
-        var availableSlots = availabilityServiceHelper.generateAvailableSlotsFromRules(rules, bookedStartTimes, date);
+        var availableSlots = availabilityServiceHelper.generateAvailableSlots(slotStarts, appointments, date);
         log.info("Generated {} available slots for owner id: {} on {}", availableSlots.size(), ownerId, date);
 
         return availableSlots;
     }
-}
\ No newline at end of file
+
+    /**
+     * Available slots of every day in [from, to], grouped by date in date order.
+     */
+    public Map<LocalDate, List<AvailableSlotDto>> getAvailableSlotsInRange(String ownerId, LocalDate from, LocalDate to) {
+        log.info("Fetching available slots for owner id: {} from: {} to: {}", ownerId, from, to);
+        validateRange(from, to, MAX_SLOT_RANGE_DAYS);
+        userService.validateUserExists(ownerId);
+        log.debug("User validation passed for owner id: {}", ownerId);
+
+        var appointments = appointmentsByDate(ownerId, from, to);
+
+        //days are independent of each other, so they are generated in parallel on the common fork-join pool
+        var dates = from.datesUntil(to.plusDays(1)).toList();
+        var slotsPerDate = dates.parallelStream()
+                .map(date -> {
+                    var slotStarts = compiledAvailability.slotStartsFor(ownerId, date);
+                    return slotStarts.isEmpty() ? List.<AvailableSlotDto>of()
+                            : availabilityServiceHelper.generateAvailableSlots(slotStarts, appointments.getOrDefault(date, List.of()), date);
+                })
+                .toList();
+
+        var slotsByDate = zip(dates, slotsPerDate);
+        log.info("Generated available slots for owner id: {} on {} day(s)", ownerId, dates.size());
+        return slotsByDate;
+    }
+
+    /**
+     * Available slots of every day in [from, to] as a stream in start time order, for ranges of up to
+     * MAX_SLOT_STREAM_DAYS days. Appointments are read and slots generated a week at a time only once the subscriber
+     * has consumed the previous week, so at most one week of slots is held in memory however long the range is.
+     * The range and owner are validated before the stream is returned, so those errors still become a plain error response.
+     */
+    public Flux<AvailableSlotDto> streamAvailableSlotsInRange(String ownerId, LocalDate from, LocalDate to) {
+        log.info("Streaming available slots for owner id: {} from: {} to: {}", ownerId, from, to);
+        validateRange(from, to, MAX_SLOT_STREAM_DAYS);
+        userService.validateUserExists(ownerId);
+        log.debug("User validation passed for owner id: {}", ownerId);
+
+        return Flux.fromStream(() -> Stream.iterate(from, weekStart -> !weekStart.isAfter(to),
+                        weekStart -> weekStart.plusDays(SLOT_STREAM_CHUNK_DAYS)))
+                //prefetch of one week, the next week is only generated when the current one has been emitted
+                .concatMapIterable(weekStart -> {
+                    var weekEnd = weekStart.plusDays(SLOT_STREAM_CHUNK_DAYS - 1);
+                    return availableSlotsOfWeek(ownerId, weekStart, weekEnd.isAfter(to) ? to : weekEnd);
+                }, 1)
+                //repository reads block, so they stay off the servlet and event loop threads
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnComplete(() -> log.info("Streamed available slots for owner id: {} from: {} to: {}", ownerId, from, to));
+    }
+
+    private List<AvailableSlotDto> availableSlotsOfWeek(String ownerId, LocalDate weekStart, LocalDate weekEnd) {
+        List<AvailableSlotDto> weekSlots = new ArrayList<>();
+        Map<LocalDate, List<Appointment>> appointments = null;
+        for (var date = weekStart; !date.isAfter(weekEnd); date = date.plusDays(1)) {
+            var slotStarts = compiledAvailability.slotStartsFor(ownerId, date);
+            if (slotStarts.isEmpty()) {
+                continue;
+            }
+            //weeks without any rule are skipped without a repository read
+            if (appointments == null) {
+                appointments = appointmentsByDate(ownerId, weekStart, weekEnd);
+            }
+            weekSlots.addAll(availabilityServiceHelper.generateAvailableSlots(slotStarts,
+                    appointments.getOrDefault(date, List.of()), date));
+        }
+        return weekSlots;
+    }
+
+    /**
+     * Slots in which every one of the owners is available and unbooked, for every day in [from, to] grouped by date.
+     * Per day the owners' slot bitmaps, each minus the slots overlapping its bookings, are intersected.
+     */
+    public Map<LocalDate, List<AvailableSlotDto>> getCollectiveAvailableSlots(Set<String> ownerIds, LocalDate from, LocalDate to) {
+        log.info("Fetching collective available slots for owner ids: {} from: {} to: {}", ownerIds, from, to);
+        if (ownerIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one owner id is required");
+        }
+        if (ownerIds.size() > MAX_COLLECTIVE_OWNERS) {
+            throw new IllegalArgumentException("At most " + MAX_COLLECTIVE_OWNERS + " owner ids are allowed");
+        }
+        validateRange(from, to, MAX_SLOT_RANGE_DAYS);
+        ownerIds.forEach(userService::validateUserExists);
+        log.debug("User validation passed for owner ids: {}", ownerIds);
+
+        Map<String, Map<LocalDate, List<Appointment>>> appointments = new HashMap<>();
+        for (var ownerId : ownerIds) {
+            appointments.put(ownerId, appointmentsByDate(ownerId, from, to));
+        }
+
+        var dates = from.datesUntil(to.plusDays(1)).toList();
+        var slotsPerDate = dates.parallelStream()
+                .map(date -> {
+                    var free = collectiveSlotStarts(ownerIds, appointments, date);
+                    return free.isEmpty() ? List.<AvailableSlotDto>of()
+                            : availabilityServiceHelper.generateAvailableSlots(free, List.of(), date);
+                })
+                .toList();
+
+        var slotsByDate = zip(dates, slotsPerDate);
+        log.info("Generated collective available slots for {} owner(s) on {} day(s)", ownerIds.size(), dates.size());
+        return slotsByDate;
+    }
+
+    /**
+     * Available slots of every owner on date, keyed by owner id in the order of ownerIds. Users are validated and
+     * appointments are read with one bulk call each, the owners' slots are then generated in parallel.
+     */
+    public Map<String, List<AvailableSlotDto>> getAvailableSlotsForOwners(Set<String> ownerIds, LocalDate date) {
+        log.info("Fetching available slots for {} owner(s) on date: {}", ownerIds.size(), date);
+        if (ownerIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one owner id is required");
+        }
+        if (ownerIds.size() > MAX_BULK_OWNERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_OWNERS + " owner ids are allowed");
+        }
+        userService.validateUsersExist(ownerIds);
+        log.debug("User validation passed for owner ids: {}", ownerIds);
+
+        var appointmentsByOwner = appointmentRepository.findByOwnerIdsAndDate(ownerIds, date);
+        var owners = List.copyOf(ownerIds);
+        var slotsPerOwner = owners.parallelStream()
+                .map(ownerId -> {
+                    //compiled rules are a map lookup, no rule scan per owner
+                    var slotStarts = compiledAvailability.slotStartsFor(ownerId, date);
+                    if (slotStarts.isEmpty()) {
+                        return List.<AvailableSlotDto>of();
+                    }
+                    return availabilityServiceHelper.generateAvailableSlots(slotStarts,
+                            appointmentsByOwner.getOrDefault(ownerId, List.of()), date);
+                })
+                .toList();
+
+        Map<String, List<AvailableSlotDto>> slotsByOwner = new LinkedHashMap<>();
+        for (int i = 0; i < owners.size(); i++) {
+            slotsByOwner.put(owners.get(i), slotsPerOwner.get(i));
+        }
+        log.info("Generated available slots for {} owner(s) on {}", owners.size(), date);
+        return slotsByOwner;
+    }
+
+    /**
+     * Earliest available slot of the owner starting at or after the given time, searched for at most
+     * MAX_SLOT_RANGE_DAYS days. Days are walked on the
+     * compiled weekly rule pattern and the appointments are read a week at a time, only once a day of that week has slots.
+     * Days whose booked minutes fill their slots are skipped without building a free bitmap.
+     */
+    public Optional<AvailableSlotDto> findNextAvailableSlot(String ownerId, LocalDateTime after) {
+        log.info("Searching next available slot for owner id: {} after: {}", ownerId, after);
+        userService.validateUserExists(ownerId);
+        log.debug("User validation passed for owner id: {}", ownerId);
+
+        var firstDate = after.toLocalDate();
+        var afterTime = after.toLocalTime();
+        //slots start on whole minutes, so a later second rounds up to the next minute
+        var firstMinute = CompiledAvailability.minuteOfDay(afterTime)
+                + (afterTime.truncatedTo(ChronoUnit.MINUTES).equals(afterTime) ? 0 : 1);
+        var lastDate = firstDate.plusDays(MAX_SLOT_RANGE_DAYS - 1);
+
+        for (var weekStart = firstDate; !weekStart.isAfter(lastDate); weekStart = weekStart.plusDays(NEXT_SLOT_SEARCH_CHUNK_DAYS)) {
+            var weekEnd = weekStart.plusDays(NEXT_SLOT_SEARCH_CHUNK_DAYS - 1);
+            if (weekEnd.isAfter(lastDate)) {
+                weekEnd = lastDate;
+            }
+            Map<LocalDate, List<Appointment>> appointments = null;
+            for (var date = weekStart; !date.isAfter(weekEnd); date = date.plusDays(1)) {
+                var fromMinute = date.equals(firstDate) ? firstMinute : 0;
+                var slotStarts = compiledAvailability.slotStartsFor(ownerId, date);
+                if (slotStarts.nextSetBit(fromMinute) < 0) {
+                    continue;
+                }
+                if (appointments == null) {
+                    appointments = appointmentsByDate(ownerId, weekStart, weekEnd);
+                }
+                var dayAppointments = appointments.getOrDefault(date, List.of());
+                var durationMinutes = appointmentProperties.getDurationMinutes();
+                //a day whose bookings leave no minute of its slots free is skipped without building a free bitmap
+                if (CompiledAvailability.bookedThrough(slotStarts, fromMinute, dayAppointments, date, durationMinutes)) {
+                    continue;
+                }
+                //a day without bookings needs no copy of the shared bitmap
+                var free = dayAppointments.isEmpty() ? slotStarts
+                        : CompiledAvailability.freeSlotStarts(slotStarts, dayAppointments, date, durationMinutes);
+                var minute = free.nextSetBit(fromMinute);
+                if (minute >= 0) {
+                    var slot = availabilityServiceHelper.slotAt(date, minute);
+                    log.info("Next available slot for owner id: {} starts at: {}", ownerId, slot.getStartDateTime());
+                    return Optional.of(slot);
+                }
+            }
+        }
+        log.info("No available slot for owner id: {} within {} days after: {}", ownerId, MAX_SLOT_RANGE_DAYS, after);
+        return Optional.empty();
+    }
+
+    private BitSet collectiveSlotStarts(Set<String> ownerIds, Map<String, Map<LocalDate, List<Appointment>>> appointments,
+                                        LocalDate date) {
+        var durationMinutes = appointmentProperties.getDurationMinutes();
+        BitSet free = null;
+        for (var ownerId : ownerIds) {
+            //compiled bitmaps are shared, so the first owner's is copied before it is narrowed down
+            var slotStarts = CompiledAvailability.freeSlotStarts(compiledAvailability.slotStartsFor(ownerId, date),
+                    appointments.get(ownerId).getOrDefault(date, List.of()), date, durationMinutes);
+            if (free == null) {
+                free = slotStarts;
+            } else {
+                free.and(slotStarts);
+            }
+            if (free.isEmpty()) {
+                //no other owner can bring a slot back
+                break;
+            }
+        }
+        return free;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to, int maxDays) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before range start " + from);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new IllegalArgumentException("Range can span at most " + maxDays + " days");
+        }
+    }
+
+    //one repository read for the whole range instead of one per day. It reaches back by the longest possible
+    //appointment, and an appointment is listed under every day of the range it overlaps, so one running past
+    //midnight also blocks the slots at the start of the next day
+    private Map<LocalDate, List<Appointment>> appointmentsByDate(String ownerId, LocalDate from, LocalDate to) {
+        var appointments = appointmentRepository.findByOwnerIdAndStartTimeBetween(
+                ownerId, from.atStartOfDay().minusMinutes(MAX_APPOINTMENT_MINUTES), to.plusDays(1).atStartOfDay());
+        log.debug("Found {} existing appointments for owner id: {} from {} to {}", appointments.size(), ownerId, from, to);
+        Map<LocalDate, List<Appointment>> appointmentsByDate = new HashMap<>();
+        for (var appointment : appointments) {
+            var firstDay = appointment.getStartTime().toLocalDate();
+            var lastDay = appointment.getEndTime().minusNanos(1).toLocalDate();
+            for (var date = firstDay.isBefore(from) ? from : firstDay; !date.isAfter(lastDay) && !date.isAfter(to); date = date.plusDays(1)) {
+                appointmentsByDate.computeIfAbsent(date, d -> new ArrayList<>()).add(appointment);
+            }
+        }
+        return appointmentsByDate;
+    }
+
+    private static Map<LocalDate, List<AvailableSlotDto>> zip(List<LocalDate> dates, List<List<AvailableSlotDto>> slotsPerDate) {
+        Map<LocalDate, List<AvailableSlotDto>> slotsByDate = new LinkedHashMap<>();
+        for (int i = 0; i < dates.size(); i++) {
+            slotsByDate.put(dates.get(i), slotsPerDate.get(i));
+        }
+        return slotsByDate;
+    }
+}
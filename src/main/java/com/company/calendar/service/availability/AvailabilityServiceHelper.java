@@ -3,10 +3,7 @@ package com.company.calendar.service.availability;
 import com.company.calendar.config.AppointmentProperties;
 import com.company.calendar.dto.availability.AvailabilityRuleSetupRequest;
 import com.company.calendar.dto.availability.AvailableSlotDto;
-import com.company.calendar.entity.AvailabilityRule;
-import com.company.calendar.repository.availabilityRule.AvailabilityRuleRepository;
-import com.company.calendar.utils.DateUtils;
-import jakarta.validation.constraints.NotEmpty;
+import com.company.calendar.entity.Appointment;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,10 +14,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -29,57 +27,55 @@ import java.util.stream.Collectors;
 public class AvailabilityServiceHelper {
 
     private final AppointmentProperties appointmentProperties;
-    private final AvailabilityRuleRepository availabilityRuleRepository;
-
-    public List<AvailableSlotDto> generateAvailableSlotsFromRules(@NotEmpty List<AvailabilityRule> rules,
-                                                                  Set<LocalTime> bookedStartTimes,
-                                                                  @NotNull LocalDate date) {
-        log.debug("Generating available slots for date: {}, rules count: {}, booked slots count: {}",
-                date, rules.size(), bookedStartTimes.size());
-        List<AvailableSlotDto> availableSlots = new ArrayList<>();
-        int duration = appointmentProperties.getDurationMinutes();
-
-        for (AvailabilityRule rule : rules) {
-
-            if (!rule.getDayOfWeek().equals(date.getDayOfWeek())) continue;
-
-            LocalTime slotStart = rule.getStartTime();
-            LocalTime slotEnd = rule.getEndTime();
-
-            while (true) {
-                LocalTime slotEndTime = slotStart.plusMinutes(duration);
-
-                if (!bookedStartTimes.contains(slotStart)) {
-                    LocalDateTime startDateTime = LocalDateTime.of(date, slotStart);
-                    LocalDateTime endDateTime = startDateTime.plusMinutes(duration);
-
-                    // Handle special case: if endTime is midnight and it's the last slot of day
-                    if (slotEndTime.equals(LocalTime.MIDNIGHT)) {
-                        endDateTime = LocalDateTime.of(date.plusDays(1), LocalTime.MIDNIGHT);
-                    }
-
-                    availableSlots.add(AvailableSlotDto.builder()
-                            .startDateTime(DateUtils.formatDateTime(startDateTime))
-                            .endDateTime(DateUtils.formatDateTime(endDateTime))
-                            .build());
-                }
-
-                boolean wrapsToNextDay = slotEndTime.isBefore(slotStart);
-                if (wrapsToNextDay || slotEndTime.isAfter(slotEnd)) {
-                    break;
-                }
-
-                slotStart = slotStart.plusMinutes(duration);
-            }
+    private final CompiledAvailability compiledAvailability;
+
+    /**
+     * Available slots of date given its compiled slot starts, in start time order. A slot is dropped when any
+     * appointment overlaps it, so a 30 minute booking in the middle of a slot blocks it as well.
+     */
+    public List<AvailableSlotDto> generateAvailableSlots(@NotNull BitSet slotStarts,
+                                                         Collection<Appointment> appointments,
+                                                         @NotNull LocalDate date) {
+        var available = CompiledAvailability.freeSlotStarts(slotStarts, appointments, date, appointmentProperties.getDurationMinutes());
+
+        List<AvailableSlotDto> availableSlots = new ArrayList<>(available.cardinality());
+        for (int minute = available.nextSetBit(0); minute >= 0; minute = available.nextSetBit(minute + 1)) {
+            availableSlots.add(slotAt(date, minute));
         }
         log.info("Available slots generated for date {}: {} slot(s) found", date, availableSlots.size());
         return availableSlots;
     }
 
-    public List<AvailabilityRule> getRulesForOwnerAndDay(String ownerId, DayOfWeek dayOfWeek) {
-        var rules = availabilityRuleRepository.findByOwnerIdAndDayOfWeek(ownerId, dayOfWeek);
-        log.debug("Fetched {} availability rules for owner id: {}, day:{}", rules.size(), ownerId, dayOfWeek);
-        return rules;
+    /**
+     * Slot of date starting at the given minute of the day. Only minute offsets are stored, the times are
+     * written out as text when the response is serialized.
+     */
+    public AvailableSlotDto slotAt(LocalDate date, int startMinute) {
+        return AvailableSlotDto.builder()
+                .date(date)
+                .startMinute(startMinute)
+                .endMinute(startMinute + appointmentProperties.getDurationMinutes())
+                .build();
+    }
+
+    /**
+     * Whether an appointment of durationMinutes starting at startDateTime lies within the owner's availability,
+     * i.e. the owner's slots of that day cover the whole interval. The same rule holds for every length, so 60
+     * minutes at 09:30 fit consecutive 09:00 and 10:00 slots just as 30 minutes at 09:15 fit the 09:00 slot.
+     */
+    public boolean isAvailable(String ownerId, LocalDateTime startDateTime, int durationMinutes) {
+        var time = startDateTime.toLocalTime();
+        //slots start on whole minutes
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return false;
+        }
+        var fromMinute = CompiledAvailability.minuteOfDay(time);
+        var toMinute = fromMinute + durationMinutes;
+        if (toMinute > CompiledAvailability.MINUTES_PER_DAY) {
+            return false;
+        }
+        return CompiledAvailability.coversMinutes(compiledAvailability.slotStartsFor(ownerId, startDateTime.toLocalDate()),
+                fromMinute, toMinute, appointmentProperties.getDurationMinutes());
     }
 
     public List<AvailabilityRuleSetupRequest.AvailabilityRuleRequest> mergeOverlappingSlots(List<AvailabilityRuleSetupRequest.AvailabilityRuleRequest> rules) {
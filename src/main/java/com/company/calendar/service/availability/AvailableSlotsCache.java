@@ -0,0 +1,136 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Computed available slots per (owner, date), tagged with the version of the owner's rules and of the owner-day's
+ * bookings at the time the computation started. Writers bump the version after their change is stored, so an entry
+ * computed before a booking or a rule change can never match the current version again, and every read that starts
+ * after a booking returned misses or sees the booking.
+ * The same versions back the ETags of the slot and upcoming appointment endpoints.
+ */
+@Component
+@Slf4j
+public class AvailableSlotsCache {
+
+    private record OwnerDay(String ownerId, LocalDate date) {
+    }
+
+    private record Version(long rules, long bookings) {
+    }
+
+    private record CachedSlots(Version version, List<AvailableSlotDto> slots) {
+    }
+
+    private final Cache<OwnerDay, CachedSlots> cache;
+    private final Map<String, Long> ruleVersions = new ConcurrentHashMap<>();
+    private final Map<OwnerDay, Long> bookingVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> ownerBookingVersions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private volatile LocalDate sweptOn = LocalDate.MIN;
+
+    public AvailableSlotsCache(AppointmentProperties appointmentProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appointmentProperties.getSlotCache().getMaximumSize())
+                .build();
+        this.hits = Counter.builder("availability.slots.cache.requests")
+                .description("Available slot lookups served by the slot cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("availability.slots.cache.requests")
+                .description("Available slot lookups served by the slot cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached slots of the owner on date, or the result of loader if the cached ones are missing or outdated.
+     */
+    public List<AvailableSlotDto> get(String ownerId, LocalDate date, Supplier<List<AvailableSlotDto>> loader) {
+        sweepPastDays();
+        var key = new OwnerDay(ownerId, date);
+        //read before loading: if a writer changes anything while we load, the entry is born outdated
+        var version = currentVersion(key);
+        var cached = cache.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            hits.increment();
+            return cached.slots();
+        }
+        misses.increment();
+        var slots = List.copyOf(loader.get());
+        //a slower loader may overwrite a newer entry, that only costs a miss
+        cache.put(key, new CachedSlots(version, slots));
+        return slots;
+    }
+
+    /**
+     * Call after a booking of the owner on date has been stored.
+     */
+    public void invalidateDay(String ownerId, LocalDate date) {
+        bookingVersions.merge(new OwnerDay(ownerId, date), 1L, Long::sum);
+        ownerBookingVersions.merge(ownerId, 1L, Long::sum);
+        log.debug("Invalidated cached slots for owner id: {} on {}", ownerId, date);
+    }
+
+    /**
+     * Call after an appointment of the owner has been stored, invalidates every day the appointment touches.
+     */
+    public void invalidateBooking(String ownerId, LocalDateTime startTime, int durationMinutes) {
+        var lastDay = startTime.plusMinutes(durationMinutes).minusNanos(1).toLocalDate();
+        for (var date = startTime.toLocalDate(); !date.isAfter(lastDay); date = date.plusDays(1)) {
+            invalidateDay(ownerId, date);
+        }
+    }
+
+    /**
+     * Call after the availability rules of the owner have been saved, or its rules or appointments restored at startup.
+     */
+    public void invalidateOwner(String ownerId) {
+        ruleVersions.merge(ownerId, 1L, Long::sum);
+        log.debug("Invalidated cached slots for owner id: {}", ownerId);
+    }
+
+    /**
+     * Version of the owner's slots on date, changes whenever the owner's rules or that day's bookings change.
+     */
+    public String slotsVersion(String ownerId, LocalDate date) {
+        var version = currentVersion(new OwnerDay(ownerId, date));
+        return version.rules() + "." + version.bookings();
+    }
+
+    /**
+     * Version of all bookings of the owner, changes whenever one of them is stored.
+     */
+    public long bookingsVersion(String ownerId) {
+        return ownerBookingVersions.getOrDefault(ownerId, 0L);
+    }
+
+    private Version currentVersion(OwnerDay key) {
+        return new Version(ruleVersions.getOrDefault(key.ownerId(), 0L), bookingVersions.getOrDefault(key, 0L));
+    }
+
+    //past days can not be booked anymore, so forgetting their versions is safe
+    private void sweepPastDays() {
+        var today = LocalDate.now();
+        if (today.isAfter(sweptOn)) {
+            sweptOn = today;
+            bookingVersions.keySet().removeIf(key -> key.date().isBefore(today));
+            cache.asMap().keySet().removeIf(key -> key.date().isBefore(today));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import com.company.calendar.repository.availabilityOverride.AvailabilityOverrideRepository;
+import com.company.calendar.repository.availabilityRule.AvailabilityRuleRepository;
+import com.company.calendar.repository.holidayCalendar.HolidayCalendarRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Availability rules compiled into slot bitmaps. For every owner and weekday there is one bit per minute of the day,
+ * set where a slot may start. Rules are walked once when they change instead of on every slot request.
+ * Date-specific overrides and holidays are applied on top of the weekday bitmap when a date is looked up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompiledAvailability {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final AppointmentProperties appointmentProperties;
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final AvailabilityOverrideRepository availabilityOverrideRepository;
+    private final HolidayCalendarRepository holidayCalendarRepository;
+    //owner id -> slot starts indexed by DayOfWeek ordinal, never modified once published
+    private final Map<String, BitSet[]> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Slot starts of the owner on date: the weekday's compiled rules with the date's holidays and overrides applied.
+     * The bitmap may be shared and must not be modified.
+     */
+    public BitSet slotStartsFor(String ownerId, LocalDate date) {
+        var weekdays = compiled.get(ownerId);
+        if (weekdays == null) {
+            //rules restored from a snapshot never went through refresh
+            weekdays = compiled.computeIfAbsent(ownerId, this::compileOwner);
+        }
+        return applyOverrides(ownerId, date, weekdays[date.getDayOfWeek().ordinal()]);
+    }
+
+    //a lookup by date per referenced holiday calendar and one for the owner's own overrides, the weekly bitmap is
+    //only copied when the date actually has an override
+    private BitSet applyOverrides(String ownerId, LocalDate date, BitSet weekly) {
+        for (var calendarId : availabilityOverrideRepository.findHolidayCalendarIds(ownerId)) {
+            if (holidayCalendarRepository.isHoliday(calendarId, date)) {
+                return new BitSet();
+            }
+        }
+        var overrides = availabilityOverrideRepository.findByOwnerIdAndDate(ownerId, date);
+        if (overrides.isEmpty()) {
+            return weekly;
+        }
+        var durationMinutes = appointmentProperties.getDurationMinutes();
+        var slotStarts = (BitSet) weekly.clone();
+        //extra hours first, so a blackout on the same date always wins
+        var extraRules = overrides.stream()
+                .filter(override -> override.getType() == AvailabilityOverrideType.EXTRA)
+                .map(override -> AvailabilityRule.builder()
+                        .ownerId(ownerId)
+                        .dayOfWeek(date.getDayOfWeek())
+                        .startTime(override.getStartTime())
+                        .endTime(override.getEndTime())
+                        .build())
+                .toList();
+        slotStarts.or(compileDay(extraRules, durationMinutes));
+        for (var override : overrides) {
+            if (override.getType() != AvailabilityOverrideType.BLACKOUT) {
+                continue;
+            }
+            if (override.getStartTime() == null) {
+                slotStarts.clear();
+                break;
+            }
+            clearOverlapping(slotStarts, minuteOfDay(override.getStartTime()), minuteOfDay(override.getEndTime()), durationMinutes);
+        }
+        return slotStarts;
+    }
+
+    /**
+     * Recompiles the rules of the owner, has to be called whenever they are saved.
+     */
+    public void refresh(String ownerId) {
+        //compute serializes refreshes of one owner, so the last one always compiles the latest saved rules
+        compiled.compute(ownerId, (id, previous) -> compileOwner(id));
+        log.debug("Compiled availability rules for owner id: {}", ownerId);
+    }
+
+    private BitSet[] compileOwner(String ownerId) {
+        var rules = availabilityRuleRepository.findByOwnerId(ownerId);
+        var durationMinutes = appointmentProperties.getDurationMinutes();
+        var weekdays = new BitSet[DayOfWeek.values().length];
+        for (var dayOfWeek : DayOfWeek.values()) {
+            var dayRules = rules.stream().filter(rule -> rule.getDayOfWeek() == dayOfWeek).toList();
+            weekdays[dayOfWeek.ordinal()] = compileDay(dayRules, durationMinutes);
+        }
+        return weekdays;
+    }
+
+    /**
+     * Slot starts of rules that all belong to one weekday. A rule yields its start time and every further
+     * duration step that does not start after the rule's end time or reach midnight.
+     */
+    static BitSet compileDay(List<AvailabilityRule> dayRules, int durationMinutes) {
+        var slotStarts = new BitSet(MINUTES_PER_DAY);
+        for (var rule : dayRules) {
+            var end = minuteOfDay(rule.getEndTime());
+            for (int start = minuteOfDay(rule.getStartTime()); ; start += durationMinutes) {
+                slotStarts.set(start);
+                var next = start + durationMinutes;
+                if (next >= MINUTES_PER_DAY || next > end) {
+                    break;
+                }
+            }
+        }
+        return slotStarts;
+    }
+
+    /**
+     * Clears every slot start whose slot overlaps [fromMinute, toMinute) of the day.
+     */
+    static void clearOverlapping(BitSet slotStarts, int fromMinute, int toMinute, int durationMinutes) {
+        var to = Math.min(toMinute, MINUTES_PER_DAY);
+        var from = Math.max(0, fromMinute - durationMinutes + 1);
+        if (from < to) {
+            slotStarts.clear(from, to);
+        }
+    }
+
+    /**
+     * Copy of slotStarts without the slots that overlap one of the appointments, whatever their length.
+     * Appointments may start on an earlier day, only the part that falls on date counts.
+     */
+    public static BitSet freeSlotStarts(BitSet slotStarts, Collection<Appointment> appointments, LocalDate date, int durationMinutes) {
+        var free = (BitSet) slotStarts.clone();
+        var dayStart = date.atStartOfDay();
+        for (var appointment : appointments) {
+            var fromMinute = Duration.between(dayStart, appointment.getStartTime()).toMinutes();
+            var toMinute = Duration.between(dayStart, appointment.getEndTime()).toMinutes();
+            if (toMinute > 0 && fromMinute < MINUTES_PER_DAY) {
+                clearOverlapping(free, (int) Math.max(fromMinute, 0), (int) Math.min(toMinute, MINUTES_PER_DAY), durationMinutes);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Whether the appointments, in start time order, book every minute from the first slot start at or after
+     * fromMinute to the end of the last slot, so none of those slots is free. Only adds up booked minutes, no bitmap
+     * is copied. Overlapping appointments are counted once, booked minutes outside the slots' span never count.
+     */
+    static boolean bookedThrough(BitSet slotStarts, int fromMinute, List<Appointment> appointments, LocalDate date, int durationMinutes) {
+        var first = slotStarts.nextSetBit(fromMinute);
+        if (first < 0) {
+            return true;
+        }
+        var spanEnd = Math.min(slotStarts.length() - 1 + durationMinutes, MINUTES_PER_DAY);
+        var dayStart = date.atStartOfDay();
+        long booked = 0;
+        //end of the booked minutes counted so far, later appointments only add what lies beyond it
+        long counted = first;
+        for (var appointment : appointments) {
+            var from = Math.max(Duration.between(dayStart, appointment.getStartTime()).toMinutes(), counted);
+            var to = Math.min(Duration.between(dayStart, appointment.getEndTime()).toMinutes(), spanEnd);
+            if (to > from) {
+                booked += to - from;
+                counted = to;
+            }
+        }
+        return booked >= spanEnd - first;
+    }
+
+    /**
+     * Whether every minute of [fromMinute, toMinute) lies within one of the slots, i.e. an appointment of any
+     * length could be placed there. Slots are durationMinutes long from each set start.
+     */
+    static boolean coversMinutes(BitSet slotStarts, int fromMinute, int toMinute, int durationMinutes) {
+        var minute = fromMinute;
+        while (minute < toMinute) {
+            //all slots are equally long, so the latest start at or before the minute reaches the furthest
+            var start = slotStarts.previousSetBit(minute);
+            if (start < 0 || start + durationMinutes <= minute) {
+                return false;
+            }
+            minute = start + durationMinutes;
+        }
+        return true;
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+}
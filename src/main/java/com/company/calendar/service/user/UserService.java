@@ -11,9 +11,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +25,12 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    //every user write takes the next number, the user keeps it as its version. Deleted users keep theirs,
+    //so a user created again under the same id never gets a version it had before.
+    private final AtomicLong userWrites = new AtomicLong();
+    private final Map<String, Long> userVersions = new ConcurrentHashMap<>();
+    //bumped when the details of a known user change or it is deleted, creating a new user leaves it as is
+    private final AtomicLong userDetailsVersion = new AtomicLong();
 
     public String createUser(CreateUserRequest request) {
         var id = request.getId();
@@ -45,6 +54,7 @@ public class UserService {
             log.warn("User already exists in system");
             throw new UserAlreadyExistsException("User already exists in system");
         }
+        userWritten(id, false);
         var message = "User created successfully with id: " + id;
         log.info(message);
         return message;
@@ -73,6 +83,7 @@ public class UserService {
 
         //ok with lost updates here
         userRepository.save(user);
+        userWritten(id, alreadyCreated);
 
         String message;
         if (alreadyCreated) {
@@ -95,6 +106,7 @@ public class UserService {
             throw new UserNotFoundException(id);
         }
         userRepository.deleteById(id);
+        userWritten(id, true);
         var message = "User deleted successfully with id: " + id;
         log.info(message);
         return message;
@@ -119,6 +131,30 @@ public class UserService {
                 });
     }
 
+    /**
+     * Version of the user's last create, update or delete in this instance, 0 if there was none. Responses that
+     * depend on one user's existence are tagged with it, so writes to other users leave their ETags alone.
+     */
+    public long getUserVersion(String userId) {
+        return userVersions.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Changes whenever details of an already known user change or a user is deleted, for responses that show
+     * the details of users other than their owner. Creating a user does not change it.
+     */
+    public long getUserDetailsVersion() {
+        return userDetailsVersion.get();
+    }
+
+    //a user written before in this instance may be shown with its old details, even if it was deleted since
+    private void userWritten(String id, boolean existed) {
+        var previous = userVersions.put(id, userWrites.incrementAndGet());
+        if (existed || previous != null) {
+            userDetailsVersion.incrementAndGet();
+        }
+    }
+
     public Map<String, User> getUsersByIds(Set<String> ids) {
         log.info("Fetching users by ids: {}", ids);
         var users = userRepository.findByIds(ids);
@@ -134,4 +170,18 @@ public class UserService {
         }
         log.info("User exists with id: {}", userId);
     }
+
+    /**
+     * Bulk variant of {@link #validateUserExists(String)}: one repository lookup for all ids.
+     */
+    public void validateUsersExist(Collection<String> userIds) {
+        log.info("Validating existence of {} user(s)", userIds.size());
+        var found = getUsersByIds(Set.copyOf(userIds));
+        for (var userId : userIds) {
+            if (!found.containsKey(userId)) {
+                log.warn("User not found during validation with id: {}", userId);
+                throw new UserNotFoundException(userId);
+            }
+        }
+    }
 }
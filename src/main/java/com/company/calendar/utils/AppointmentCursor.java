@@ -0,0 +1,38 @@
+package com.company.calendar.utils;
+
+import com.company.calendar.repository.appointment.AppointmentKey;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque pagination token for upcoming appointments: the (startTime, appointmentId) of the last
+ * appointment on a page, base64url encoded. Clients pass it back as is to get the next page.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class AppointmentCursor {
+
+    private static final char SEPARATOR = '|';
+
+    public static String encode(AppointmentKey key) {
+        var raw = key.startTime().toString() + SEPARATOR + key.appointmentId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AppointmentKey decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new AppointmentKey(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.company.calendar.dto.appointment.UpcomingAppointmentsResponseDto;
 import com.company.calendar.entity.Appointment;
 import com.company.calendar.entity.User;
 import com.company.calendar.entity.UserMetadata;
+import com.company.calendar.repository.appointment.AppointmentKey;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -46,7 +47,7 @@ public class AppointmentServiceUtil {
                 .appointments(List.of())
                 .currentPage(page)
                 .totalPages(0)
-                .totalItems(0)
+                .totalItems(0L)
                 .build();
     }
 
@@ -62,6 +63,28 @@ public class AppointmentServiceUtil {
                 .currentPage(pagedAppointments.getNumber())
                 .totalPages(pagedAppointments.getTotalPages())
                 .totalItems(pagedAppointments.getTotalElements())
+                .nextCursor(pagedAppointments.hasNext()
+                        ? AppointmentCursor.encode(AppointmentKey.of(pagedAppointments.getContent().getLast()))
+                        : null)
+                .build();
+    }
+
+    public static UpcomingAppointmentsResponseDto cursorResponse(
+            String ownerId,
+            List<UpcomingAppointmentResponse> upcomingAppointments,
+            String nextCursor,
+            Long totalItems,
+            int size
+    ) {
+        return UpcomingAppointmentsResponseDto.builder()
+                .success(true)
+                .message(upcomingAppointments.isEmpty()
+                        ? "No upcoming appointments found for owner id: " + ownerId
+                        : "Fetched upcoming appointments successfully for owner id: " + ownerId)
+                .appointments(upcomingAppointments)
+                .totalItems(totalItems)
+                .totalPages(totalItems == null ? null : (int) ((totalItems + size - 1) / size))
+                .nextCursor(nextCursor)
                 .build();
     }
 }
@@ -0,0 +1,24 @@
+package com.company.calendar.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ETagUtils {
+
+    //versions are counted in memory from zero, so a tag handed out before a restart must never match after it
+    private static final String INSTANCE_ID = UUID.randomUUID().toString().substring(0, 8);
+
+    /**
+     * Strong ETag made of the given versions. Equal versions within one run give equal tags.
+     */
+    public static String strongETag(Object... versions) {
+        return Arrays.stream(versions)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"" + INSTANCE_ID + "-", "\""));
+    }
+}
@@ -1,6 +1,7 @@
 package com.company.calendar.validator;
 
 import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.dto.appointment.BookTeamAppointmentRequest;
 import com.company.calendar.exceptions.appointment.AvailableSlotNotFoundException;
 import com.company.calendar.service.availability.AvailabilityServiceHelper;
 import com.company.calendar.service.user.UserService;
@@ -8,9 +9,6 @@ import com.company.calendar.utils.DateUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
-
-import java.util.Set;
 
 @Component
 @Slf4j
@@ -35,21 +33,26 @@ public class AppointmentValidator {
 
         appointmentTimeValidator.validate(startDateTime, endDateTime);
 
-        var availabilityRules = availabilityServiceHelper.getRulesForOwnerAndDay(request.getOwnerId(), startDateTime.toLocalDate().getDayOfWeek());
-        if (CollectionUtils.isEmpty(availabilityRules)) {
-            log.warn("No availability rules found for owner id: {} on {}", request.getOwnerId(), startDateTime.getDayOfWeek());
-            throw new AvailableSlotNotFoundException(DateUtils.formatDateTime(startDateTime), request.getOwnerId());
-        }
-
-        var availableSlots =  availabilityServiceHelper.generateAvailableSlotsFromRules(availabilityRules, Set.of(), startDateTime.toLocalDate());
-        var isAvailableSlotPresent = availableSlots.stream()
-                .anyMatch(rule -> rule.getStartDateTime().equals(DateUtils.formatDateTime(startDateTime)));
-
-        if (!isAvailableSlotPresent) {
+        if (!availabilityServiceHelper.isAvailable(request.getOwnerId(), startDateTime, (int) duration)) {
             log.warn("No available slot found for appointment start date time: {} for owner id: {}", startDateTime, request.getOwnerId());
             throw new AvailableSlotNotFoundException(DateUtils.formatDateTime(startDateTime), request.getOwnerId());
         }
         log.debug("Appointment validation successful for start date time: {} and ownerId: {}, inviteeId: {}", startDateTime, request.getOwnerId(), request.getInviteeId());
         return true;
     }
+
+    /**
+     * Validates everything of a team booking that does not depend on the member, which members have a free slot
+     * is decided while booking.
+     */
+    public void validateTeamAppointment(BookTeamAppointmentRequest request, long duration) {
+        log.debug("Validating team appointment request for {} member(s) with duration: {} minutes", request.getMemberIds().size(), duration);
+
+        userService.validateUserExists(request.getInviteeId());
+        request.getMemberIds().forEach(userService::validateUserExists);
+
+        var startDateTime = request.getStartDateTime();
+        appointmentTimeValidator.validate(startDateTime, startDateTime.plusMinutes(duration));
+        log.debug("Team appointment validation successful for start date time: {} and inviteeId: {}", startDateTime, request.getInviteeId());
+    }
 }
@@ -0,0 +1,56 @@
+package com.company.calendar.validator;
+
+import com.company.calendar.dto.availability.AvailabilityOverridesRequest;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class AvailabilityOverridesValidator implements ConstraintValidator<ValidAvailabilityOverrides, AvailabilityOverridesRequest> {
+
+    @Override
+    public boolean isValid(AvailabilityOverridesRequest request, ConstraintValidatorContext context) {
+        if (request.getOverrides() == null) {
+            //reported by @NotNull
+            return true;
+        }
+
+        for (AvailabilityOverridesRequest.AvailabilityOverrideRequest override : request.getOverrides()) {
+            if (override == null || override.getDate() == null || override.getType() == null) {
+                log.debug("Validation failed: Missing date or type in override");
+                return false;
+            }
+
+            var start = override.getStartTime();
+            var end = override.getEndTime();
+
+            //1. Extra hours need a window, blackouts either a window or none for the whole day
+            if ((start == null) != (end == null) || (start == null && override.getType() == AvailabilityOverrideType.EXTRA)) {
+                return violation(context, "Start and end time must both be given, or both be omitted for a whole day blackout");
+            }
+            if (start == null) {
+                continue;
+            }
+
+            //2. Must be on-the-hour (e.g., 14:00, not 14:30), same as the weekly rules
+            if (start.getMinute() != 0 || end.getMinute() != 0) {
+                return violation(context, "Start and end time must be at full hour");
+            }
+
+            //3. Start must be before end
+            if (!start.isBefore(end)) {
+                log.debug("Validation failed: Start time is not before end time - start: {}, end: {}", start, end);
+                return violation(context, "Start time must be before end time");
+            }
+        }
+        log.debug("Validation passed: All availability overrides are valid.");
+        return true;
+    }
+
+    private static boolean violation(ConstraintValidatorContext context, String message) {
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message).addConstraintViolation();
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.company.calendar.validator;
+
+import com.company.calendar.exceptions.InvalidStartDateTimeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
+
+/**
+ * Validator for variable length appointments, ensures that:
+ * 1. Appointment starts on a quarter hour (e.g., 10:00, 10:15, 10:30 or 10:45).
+ * 2. Appointment lasts a multiple of 15 minutes, at most MAX_APPOINTMENT_MINUTES.
+ * 3. Appointment ends on the day it starts, at the latest at midnight.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "appointment.time-validator-strategy", havingValue = "quarterHour")
+public class QuarterHourValidator implements AppointmentTimeValidator {
+
+    private static final int QUARTER_HOUR_MINUTES = 15;
+
+    @Override
+    public void validate(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        log.debug("Validating appointment start: {}, end: {}", startDateTime, endDateTime);
+
+        if (startDateTime.getMinute() % QUARTER_HOUR_MINUTES != 0 || startDateTime.getSecond() != 0 || startDateTime.getNano() != 0) {
+            log.debug("Validation failed: Start time is not on a quarter hour: {}", startDateTime);
+            throw new InvalidStartDateTimeException("Appointments must start on a quarter hour");
+        }
+
+        var duration = Duration.between(startDateTime, endDateTime);
+        if (duration.isNegative() || duration.isZero() || duration.toMinutes() > MAX_APPOINTMENT_MINUTES
+                || duration.toMinutes() % QUARTER_HOUR_MINUTES != 0 || duration.toSecondsPart() != 0 || duration.toNanosPart() != 0) {
+            log.debug("Validation failed: Appointment length is not a multiple of 15 minutes. start: {}, end: {}", startDateTime, endDateTime);
+            throw new InvalidStartDateTimeException("Appointment must last a multiple of 15 minutes, at most " + MAX_APPOINTMENT_MINUTES + " minutes");
+        }
+
+        if (endDateTime.isAfter(startDateTime.toLocalDate().plusDays(1).atStartOfDay())) {
+            log.debug("Validation failed: Appointment runs past midnight. start: {}, end: {}", startDateTime, endDateTime);
+            throw new InvalidStartDateTimeException("Appointment must end on the day it starts");
+        }
+
+        log.debug("Validation passed: Appointment duration and start time are valid.");
+    }
+}
@@ -0,0 +1,16 @@
+package com.company.calendar.validator;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = AvailabilityOverridesValidator.class)
+@Documented
+public @interface ValidAvailabilityOverrides {
+    String message() default "Invalid availability overrides";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,55 @@
+package com.company.calendar.benchmark;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.repository.appointment.CompactAppointmentRepository;
+import com.company.calendar.repository.appointment.InMemoryAppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+//Measures retained heap per stored appointment with JOL, for the entity based and the compact store.
+@Slf4j
+@BenchmarkTest
+public class AppointmentFootprintBenchmark {
+
+    private static final int OWNERS = 100;
+    private static final int INVITEES = 1_000;
+    private static final int APPOINTMENTS_PER_OWNER = 1_000;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void compareBytesPerAppointment() {
+        measure("in-memory", InMemoryAppointmentRepository::new);
+        measure("compact", CompactAppointmentRepository::new);
+    }
+
+    private void measure(String name, Supplier<AppointmentRepository> repositorySupplier) {
+        //user ids come from one pool in both runs, like they would come from the user store
+        var ownerIds = IntStream.range(0, OWNERS).mapToObj(i -> "owner-" + i).toArray(String[]::new);
+        var inviteeIds = IntStream.range(0, INVITEES).mapToObj(i -> "invitee-" + i).toArray(String[]::new);
+
+        var repository = repositorySupplier.get();
+        var empty = GraphLayout.parseInstance(repository, ownerIds, inviteeIds).totalSize();
+        for (int owner = 0; owner < OWNERS; owner++) {
+            for (int i = 0; i < APPOINTMENTS_PER_OWNER; i++) {
+                var startTime = FIRST_SLOT.plusHours(i);
+                repository.save(Appointment.builder()
+                        .appointmentId(UUID.randomUUID().toString())
+                        .ownerId(ownerIds[owner])
+                        .inviteeId(inviteeIds[(owner + i) % INVITEES])
+                        .startTime(startTime)
+                        .endTime(startTime.plusMinutes(60))
+                        .build());
+            }
+        }
+        var appointments = (long) OWNERS * APPOINTMENTS_PER_OWNER;
+        var filled = GraphLayout.parseInstance(repository, ownerIds, inviteeIds).totalSize();
+        log.info("[{}] {} appointments, {} bytes per appointment", name, appointments, (filled - empty) / appointments);
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.calendar.benchmark;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.repository.appointment.InMemoryAppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//Compares the start time indexed in-memory store with the list based store it replaced,
+//for a busy owner with tens of thousands of appointments.
+@Slf4j
+@BenchmarkTest
+public class AppointmentRepositoryBenchmark {
+
+    private static final String OWNER_ID = "busy-owner";
+    private static final int APPOINTMENTS = 40_000;
+    private static final int OPERATIONS = 2_000;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void compareListAndIndexedStores() {
+        run("list", ListAppointmentRepository::new);
+        run("indexed", InMemoryAppointmentRepository::new);
+    }
+
+    private void run(String name, Supplier<AppointmentRepository> repositorySupplier) {
+        var repository = repositorySupplier.get();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            repository.save(appointment(FIRST_SLOT.plusHours(i)));
+        }
+        //warm up so that JIT compiled code gets measured
+        measure(repository);
+        var result = measure(repository);
+        log.info("[{}] appointments: {}, existsByOwnerIdAndStartTime: {} ns/op, findByOwnerIdAndDate: {} ns/op, " +
+                        "findByOwnerIdAndStartTimeAfter: {} ns/op, saveIfSlotFree: {} ns/op, existsOverlapping: {} ns/op",
+                name, APPOINTMENTS, result[0], result[1], result[2], result[3], result[4]);
+    }
+
+    private long[] measure(AppointmentRepository repository) {
+        var result = new long[5];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            repository.existsByOwnerIdAndStartTime(OWNER_ID, FIRST_SLOT.plusHours((i * 31L) % APPOINTMENTS));
+        }
+        result[0] = (System.nanoTime() - start) / OPERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            var date = FIRST_SLOT.plusHours((i * 31L) % APPOINTMENTS).toLocalDate();
+            assertEquals(24, repository.findByOwnerIdAndDate(OWNER_ID, date).size());
+        }
+        result[1] = (System.nanoTime() - start) / OPERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            repository.findByOwnerIdAndStartTimeAfter(OWNER_ID, FIRST_SLOT.plusHours(APPOINTMENTS / 2), PageRequest.of(0, 10));
+        }
+        result[2] = (System.nanoTime() - start) / OPERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            //all of these slots are taken, so this measures the conflict check only
+            repository.saveIfSlotFree(appointment(FIRST_SLOT.plusHours((i * 31L) % APPOINTMENTS)));
+        }
+        result[3] = (System.nanoTime() - start) / OPERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            //a quarter hour inside a booked hour, no appointment starts there
+            var startTime = FIRST_SLOT.plusHours((i * 31L) % APPOINTMENTS).plusMinutes(15);
+            repository.existsOverlapping(OWNER_ID, startTime, startTime.plusMinutes(15));
+        }
+        result[4] = (System.nanoTime() - start) / OPERATIONS;
+        return result;
+    }
+
+    private Appointment appointment(LocalDateTime startTime) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(OWNER_ID)
+                .inviteeId("invitee")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(60))
+                .build();
+    }
+}
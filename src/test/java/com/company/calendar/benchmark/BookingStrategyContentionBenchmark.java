@@ -0,0 +1,107 @@
+package com.company.calendar.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.repository.appointment.InMemoryAppointmentRepository;
+import com.company.calendar.service.appointment.AppointmentBookingStrategy;
+import com.company.calendar.service.appointment.AppointmentOwnerLockManager;
+import com.company.calendar.service.appointment.LockFreeBookingStrategy;
+import com.company.calendar.service.appointment.OptimisticBookingStrategy;
+import com.company.calendar.service.appointment.PessimisticBookingStrategy;
+import com.company.calendar.service.appointment.SingleWriterBookingStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//Many threads booking one popular owner at the same time. Every slot is requested by CONTENDERS threads,
+//so each strategy has to both spread distinct slots and reject the duplicates.
+@Slf4j
+@BenchmarkTest
+public class BookingStrategyContentionBenchmark {
+
+    private static final String OWNER_ID = "popular-owner";
+    private static final int THREADS = 16;
+    private static final int CONTENDERS = 4;
+    private static final int SLOTS = 20_000;
+    private static final LocalDateTime FIRST_SLOT = LocalDate.now().plusDays(1).atStartOfDay();
+
+    @BeforeAll
+    static void silenceBookingLogs() {
+        //per booking info/warn lines would dominate the measurement
+        ((Logger) LoggerFactory.getLogger("com.company.calendar.service")).setLevel(Level.ERROR);
+    }
+
+    @Test
+    void compareBookingStrategies() throws InterruptedException {
+        var ownerLockManager = new AppointmentOwnerLockManager(new SimpleMeterRegistry());
+        var appointmentProperties = new AppointmentProperties();
+        for (int round = 0; round < 2; round++) {
+            //first round is the warm up
+            run("optimistic", OptimisticBookingStrategy::new);
+            run("pessimistic", repository -> new PessimisticBookingStrategy(repository, ownerLockManager));
+            run("lock-free", LockFreeBookingStrategy::new);
+            run("single-writer", repository -> new SingleWriterBookingStrategy(repository, appointmentProperties));
+        }
+    }
+
+    private void run(String name, Function<AppointmentRepository, AppointmentBookingStrategy> strategyFactory)
+            throws InterruptedException {
+        var strategy = strategyFactory.apply(new InMemoryAppointmentRepository());
+        var booked = new AtomicInteger();
+        var startLatch = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            //threads t, t + THREADS / CONTENDERS, ... walk the same slots
+            var firstSlot = t % (THREADS / CONTENDERS);
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int slot = firstSlot; slot < SLOTS; slot += THREADS / CONTENDERS) {
+                    var request = BookAppointmentRequest.builder()
+                            .ownerId(OWNER_ID)
+                            .inviteeId("invitee")
+                            .startDateTime(FIRST_SLOT.plusHours(slot))
+                            .build();
+                    if (strategy.book(request, 60, UUID.randomUUID().toString())) {
+                        booked.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        var start = System.nanoTime();
+        startLatch.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+        var elapsedNanos = System.nanoTime() - start;
+        //its writer pool would otherwise outlive the run
+        if (strategy instanceof SingleWriterBookingStrategy singleWriterBookingStrategy) {
+            singleWriterBookingStrategy.close();
+        }
+
+        assertEquals(SLOTS, booked.get());
+        var attempts = (long) SLOTS * CONTENDERS;
+        log.info("[{}] threads: {}, attempts: {}, booked: {}, {} ns/attempt, {} attempts/ms",
+                name, THREADS, attempts, booked.get(), elapsedNanos / attempts, attempts * 1_000_000 / elapsedNanos);
+    }
+}
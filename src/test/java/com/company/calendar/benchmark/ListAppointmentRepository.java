@@ -0,0 +1,114 @@
+package com.company.calendar.benchmark;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.AppointmentKey;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * List based appointment store used by InMemoryAppointmentRepository before the start time index was added.
+ * Kept only as a baseline for benchmarks.
+ */
+public class ListAppointmentRepository implements AppointmentRepository {
+
+    private final Map<String, List<Appointment>> store = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Appointment> findByOwnerIdAndDate(String ownerId, LocalDate date) {
+        return store.getOrDefault(ownerId, List.of())
+                .stream()
+                .filter(a -> a.getStartTime().toLocalDate().equals(date))
+                .toList();
+    }
+
+    @Override
+    public boolean existsByOwnerIdAndStartTime(String ownerId, LocalDateTime startTime) {
+        return store.getOrDefault(ownerId, List.of())
+                .stream()
+                .anyMatch(a -> a.getStartTime().equals(startTime));
+    }
+
+    @Override
+    public boolean existsOverlapping(String ownerId, LocalDateTime startTime, LocalDateTime endTime) {
+        return store.getOrDefault(ownerId, List.of())
+                .stream()
+                .anyMatch(a -> a.getStartTime().isBefore(endTime) && a.getEndTime().isAfter(startTime));
+    }
+
+    @Override
+    public void save(Appointment appointment) {
+        store.computeIfAbsent(appointment.getOwnerId(), k -> new ArrayList<>())
+                .add(appointment);
+    }
+
+    @Override
+    public boolean saveIfSlotFree(Appointment appointment) {
+        String ownerId = appointment.getOwnerId();
+        LocalDateTime startTime = appointment.getStartTime();
+
+        return store.compute(ownerId, (key, existingList) -> {
+            if (existingList == null) {
+                existingList = new ArrayList<>();
+            }
+            boolean exists = existingList.stream()
+                    .anyMatch(a -> a.getStartTime().equals(startTime));
+            if (!exists) {
+                existingList.add(appointment);
+            }
+            return existingList;
+        }).stream().anyMatch(a ->
+                a.getStartTime().equals(startTime) &&
+                        a.getInviteeId().equals(appointment.getInviteeId()) &&
+                        a.getAppointmentId().equals(appointment.getAppointmentId())
+        );
+    }
+
+    @Override
+    public Page<Appointment> findByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after, Pageable pageable) {
+        List<Appointment> filteredAppointments = store.getOrDefault(ownerId, List.of()).stream()
+                .filter(a -> a.getStartTime().isAfter(after))
+                .sorted(Comparator.comparing(Appointment::getStartTime))
+                .toList();
+
+        List<Appointment> pagedAppointments = filteredAppointments.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+
+        return new PageImpl<>(pagedAppointments, pageable, filteredAppointments.size());
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAfterKey(String ownerId, AppointmentKey key, int limit) {
+        return store.getOrDefault(ownerId, List.of()).stream()
+                .filter(key::precedes)
+                .sorted(Comparator.comparing(Appointment::getStartTime).thenComparing(Appointment::getAppointmentId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long countByOwnerIdAndStartTimeAfter(String ownerId, LocalDateTime after) {
+        return store.getOrDefault(ownerId, List.of()).stream()
+                .filter(a -> a.getStartTime().isAfter(after))
+                .count();
+    }
+
+    @Override
+    public List<Appointment> findByOwnerIdAndStartTimeBetween(String ownerId, LocalDateTime from, LocalDateTime to) {
+        return store.getOrDefault(ownerId, List.of()).stream()
+                .filter(a -> !a.getStartTime().isBefore(from) && a.getStartTime().isBefore(to))
+                .sorted(Comparator.comparing(Appointment::getStartTime))
+                .toList();
+    }
+}
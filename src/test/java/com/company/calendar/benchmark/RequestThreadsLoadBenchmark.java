@@ -0,0 +1,184 @@
+package com.company.calendar.benchmark;
+
+import com.company.calendar.CalendarBookingSystemApplication;
+import com.company.calendar.dto.availability.AvailabilityRuleSetupRequest;
+import com.company.calendar.entity.User;
+import com.company.calendar.entity.UserMetadata;
+import com.company.calendar.repository.user.UserRepository;
+import com.company.calendar.service.availability.AvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.company.calendar.constants.ApplicationConstants.YYYY_MM_DD_HH_MM_SS_FORMAT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//CLIENTS concurrent clients each book one distinct slot over HTTP, once against Tomcat on its platform thread pool
+//and once with spring.threads.virtual.enabled. Bookings go to the journal repository, so every request waits for a
+//group commit fsync: with platform threads at most server.tomcat.threads.max requests can wait at a time, with
+//virtual threads all of them can and share the same fsync.
+//Needs a file descriptor limit above 2 * CLIENTS (ulimit -n).
+@Slf4j
+@BenchmarkTest
+public class RequestThreadsLoadBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final int OWNERS = 100;
+    private static final int SLOTS_PER_DAY = 12;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(YYYY_MM_DD_HH_MM_SS_FORMAT);
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws InterruptedException {
+        run("platform threads", false);
+        run("virtual threads", true);
+    }
+
+    private void run(String name, boolean virtualThreads) throws InterruptedException {
+        var directory = dataDirectory.resolve(virtualThreads ? "virtual" : "platform");
+        //closing the client does not shut down an executor it was given, so both are closed here
+        try (var context = start(virtualThreads, directory);
+             var clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             var httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .executor(clientExecutor)
+                     .build()) {
+            seed(context);
+            var bookUri = URI.create("http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/v1/appointments/book");
+
+            //warm up on the slots after the ones the measured round books
+            book(httpClient, bookUri, 1_000, CLIENTS / OWNERS);
+            var latencies = new long[CLIENTS];
+            var start = System.nanoTime();
+            var created = book(httpClient, bookUri, CLIENTS, 0, latencies);
+            var elapsedNanos = System.nanoTime() - start;
+
+            assertEquals(CLIENTS, created);
+            Arrays.sort(latencies);
+            log.info("[{}] clients: {}, {} ms, {} requests/s, p50: {} ms, p99: {} ms",
+                    name, CLIENTS, elapsedNanos / 1_000_000, CLIENTS * 1_000_000_000L / elapsedNanos,
+                    latencies[CLIENTS / 2] / 1_000_000, latencies[CLIENTS * 99 / 100] / 1_000_000);
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads, Path directory) {
+        return new SpringApplicationBuilder(CalendarBookingSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.max-connections=" + 2 * CLIENTS,
+                        "server.tomcat.accept-count=" + CLIENTS,
+                        "appointment.repository=journal",
+                        "appointment.booking-strategy=pessimistic",
+                        "appointment.journal.path=" + directory.resolve("appointments.journal"),
+                        "appointment.journal.snapshot-directory=" + directory.resolve("snapshots"),
+                        //per request log lines would dominate the measurement
+                        "logging.level.root=WARN",
+                        "logging.level.com.company.calendar=ERROR")
+                .run();
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        var userRepository = context.getBean(UserRepository.class);
+        var availabilityService = context.getBean(AvailabilityService.class);
+        userRepository.save(user("invitee"));
+        for (int owner = 0; owner < OWNERS; owner++) {
+            userRepository.save(user("owner-" + owner));
+            var rules = Arrays.stream(DayOfWeek.values())
+                    .map(day -> AvailabilityRuleSetupRequest.AvailabilityRuleRequest.builder()
+                            .dayOfWeek(day)
+                            .startTime(LocalTime.of(8, 0))
+                            .endTime(LocalTime.of(8 + SLOTS_PER_DAY, 0))
+                            .build())
+                    .toList();
+            availabilityService.createAvailabilityRules(AvailabilityRuleSetupRequest.builder()
+                    .ownerId("owner-" + owner)
+                    .rules(rules)
+                    .build());
+        }
+    }
+
+    private int book(HttpClient httpClient, URI bookUri, int clients, int firstSlot) throws InterruptedException {
+        return book(httpClient, bookUri, clients, firstSlot, new long[clients]);
+    }
+
+    //every client books its own (owner, slot), so all of them are expected to get 201
+    private int book(HttpClient httpClient, URI bookUri, int clients, int firstSlot, long[] latencies)
+            throws InterruptedException {
+        var created = new AtomicInteger();
+        var startLatch = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>(clients);
+        for (int client = 0; client < clients; client++) {
+            var index = client;
+            var slot = firstSlot + client / OWNERS;
+            var startTime = FIRST_DAY.plusDays(slot / SLOTS_PER_DAY).atTime(8 + slot % SLOTS_PER_DAY, 0);
+            var request = HttpRequest.newBuilder(bookUri)
+                    .timeout(Duration.ofMinutes(2))
+                    .header("Content-Type", "application/json")
+                    .header("Idempotency-Key", UUID.randomUUID().toString())
+                    .POST(HttpRequest.BodyPublishers.ofString(body("owner-" + client % OWNERS, startTime)))
+                    .build();
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    startLatch.await();
+                    var sentAt = System.nanoTime();
+                    var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[index] = System.nanoTime() - sentAt;
+                    if (response.statusCode() == 201) {
+                        created.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    log.error("Client {} failed: {}", index, e.getMessage());
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+        return created.get();
+    }
+
+    private static String body(String ownerId, LocalDateTime startTime) {
+        return """
+                {"ownerId": "%s", "inviteeId": "invitee", "startDateTime": "%s"}""".formatted(ownerId, FORMATTER.format(startTime));
+    }
+
+    private static User user(String id) {
+        return User.builder()
+                .id(id)
+                .userMetadata(UserMetadata.builder()
+                        .name(id)
+                        .email(id + "@example.com")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.company.calendar.controller;
+
+import com.company.calendar.dto.appointment.UpcomingAppointmentsResponseDto;
+import com.company.calendar.service.appointment.AppointmentService;
+import com.company.calendar.service.appointment.TeamAppointmentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AppointmentController.class)
+public class GetUpcomingAppointmentsControllerTest {
+
+    private static final String OWNER_ID = "1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AppointmentService appointmentService;
+
+    @MockitoBean
+    private TeamAppointmentService teamAppointmentService;
+
+    @Test
+    @DisplayName("Page other than 0 without a cursor is rejected when totals are skipped")
+    void testPageWithoutTotalRejected() throws Exception {
+        mockMvc.perform(get("/appointments/owner/{ownerId}/upcoming", OWNER_ID)
+                        .param("page", "2")
+                        .param("includeTotal", "false"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value(
+                        "Invalid request: page cannot be combined with includeTotal=false, use the nextCursor of the previous response"));
+
+        verify(appointmentService, never()).getUpcomingAppointmentsByCursor(any(), any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("First page without totals is read by key")
+    void testFirstPageWithoutTotal() throws Exception {
+        when(appointmentService.getUpcomingAppointmentsETag(OWNER_ID)).thenReturn("\"etag\"");
+        when(appointmentService.getUpcomingAppointmentsByCursor(OWNER_ID, null, 10, false))
+                .thenReturn(UpcomingAppointmentsResponseDto.builder()
+                        .success(true)
+                        .appointments(List.of())
+                        .build());
+
+        mockMvc.perform(get("/appointments/owner/{ownerId}/upcoming", OWNER_ID)
+                        .param("page", "0")
+                        .param("includeTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+    }
+}
@@ -0,0 +1,139 @@
+package com.company.calendar.controller;
+
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.exceptions.user.UserNotFoundException;
+import com.company.calendar.service.availability.AvailabilityService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AvailabilityController.class)
+public class StreamAvailableSlotsControllerTest {
+
+    private static final String OWNER_ID = "1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    private final LocalDate from = LocalDate.now().plusDays(1);
+    private final LocalDate to = from.plusDays(6);
+
+    @Test
+    @DisplayName("NDJSON body holds one slot per line in start time order")
+    void testNdjsonBody() throws Exception {
+        when(availabilityService.streamAvailableSlotsInRange(OWNER_ID, from, to)).thenReturn(Flux.just(slot(9 * 60), slot(10 * 60)));
+
+        var result = mockMvc.perform(streamRequest().accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(slotJson(9) + "\n" + slotJson(10) + "\n"));
+    }
+
+    @Test
+    @DisplayName("SSE body holds one data event per slot in start time order")
+    void testServerSentEventsBody() throws Exception {
+        when(availabilityService.streamAvailableSlotsInRange(OWNER_ID, from, to)).thenReturn(Flux.just(slot(9 * 60), slot(10 * 60)));
+
+        var result = mockMvc.perform(streamRequest().accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("data:" + slotJson(9) + "\n\n" + "data:" + slotJson(10) + "\n\n"));
+    }
+
+    @Test
+    @DisplayName("Empty range streams an empty body")
+    void testEmptyStream() throws Exception {
+        when(availabilityService.streamAvailableSlotsInRange(OWNER_ID, from, to)).thenReturn(Flux.empty());
+
+        var result = mockMvc.perform(streamRequest().accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Unknown owner is answered with the JSON error body although only NDJSON is accepted")
+    void testUserNotFoundWithNdjsonOnly() throws Exception {
+        when(availabilityService.streamAvailableSlotsInRange(OWNER_ID, from, to)).thenThrow(new UserNotFoundException(OWNER_ID));
+
+        mockMvc.perform(streamRequest().accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("User not found with id: " + OWNER_ID));
+    }
+
+    @Test
+    @DisplayName("Invalid range is answered with the JSON error body although only SSE is accepted")
+    void testInvalidRangeWithEventStreamOnly() throws Exception {
+        when(availabilityService.streamAvailableSlotsInRange(eq(OWNER_ID), any(), any()))
+                .thenThrow(new IllegalArgumentException("Range can span at most 366 days"));
+
+        mockMvc.perform(streamRequest().accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Invalid request: Range can span at most 366 days"));
+    }
+
+    @Test
+    @DisplayName("Missing request parameter is answered with the JSON error body although only NDJSON is accepted")
+    void testMissingParameterWithNdjsonOnly() throws Exception {
+        mockMvc.perform(get("/availability/{ownerId}/slots/stream", OWNER_ID)
+                        .param("from", from.toString())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Validation failed: Missing required request parameter: to"));
+    }
+
+    private MockHttpServletRequestBuilder streamRequest() {
+        return get("/availability/{ownerId}/slots/stream", OWNER_ID)
+                .param("from", from.toString())
+                .param("to", to.toString());
+    }
+
+    private AvailableSlotDto slot(int startMinute) {
+        return AvailableSlotDto.builder()
+                .date(from)
+                .startMinute(startMinute)
+                .endMinute(startMinute + 60)
+                .build();
+    }
+
+    private String slotJson(int hour) {
+        return String.format("{\"startDateTime\":\"%s %02d:00:00\",\"endDateTime\":\"%s %02d:00:00\"}", from, hour, from, hour + 1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.company.calendar.dto.availability;
+
+import com.company.calendar.utils.DateUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailableSlotDtoSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalDate date = LocalDate.of(2025, 8, 8);
+
+    @Test
+    @DisplayName("Slot is written in the same format the formatter produces")
+    void testFormat() throws JsonProcessingException {
+        var slot = AvailableSlotDto.builder().date(date).startMinute(9 * 60 + 30).endMinute(10 * 60 + 30).build();
+
+        assertEquals("{\"startDateTime\":\"2025-08-08 09:30:00\",\"endDateTime\":\"2025-08-08 10:30:00\"}",
+                objectMapper.writeValueAsString(slot));
+        assertEquals(DateUtils.formatDateTime(date.atTime(9, 30)), slot.getStartDateTime());
+    }
+
+    @Test
+    @DisplayName("Slot ending at midnight ends on the next day, also across a year boundary")
+    void testEndAtMidnight() throws JsonProcessingException {
+        var lastOfYear = LocalDate.of(2025, 12, 31);
+        var slots = List.of(
+                AvailableSlotDto.builder().date(date).startMinute(23 * 60).endMinute(24 * 60).build(),
+                AvailableSlotDto.builder().date(lastOfYear).startMinute(23 * 60).endMinute(24 * 60).build());
+
+        assertEquals("[{\"startDateTime\":\"2025-08-08 23:00:00\",\"endDateTime\":\"2025-08-09 00:00:00\"},"
+                        + "{\"startDateTime\":\"2025-12-31 23:00:00\",\"endDateTime\":\"2026-01-01 00:00:00\"}]",
+                objectMapper.writeValueAsString(slots));
+    }
+
+    @Test
+    @DisplayName("Every minute of a day matches the formatter")
+    void testEveryMinute() throws JsonProcessingException {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            var slot = AvailableSlotDto.builder().date(date).startMinute(minute).endMinute(minute + 60).build();
+            var expected = "{\"startDateTime\":\"" + slot.getStartDateTime() + "\",\"endDateTime\":\"" + slot.getEndDateTime() + "\"}";
+            assertEquals(expected, objectMapper.writeValueAsString(slot));
+        }
+    }
+}
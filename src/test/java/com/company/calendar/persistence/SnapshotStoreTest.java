@@ -0,0 +1,154 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityOverride;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.entity.User;
+import com.company.calendar.entity.UserMetadata;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import com.company.calendar.repository.availabilityOverride.OwnerOverrides;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LocalDateTime startTime = LocalDateTime.of(2025, 8, 25, 10, 0);
+
+    @Test
+    @DisplayName("Saved snapshot is loaded back with all users, rules, overrides, holiday calendars and appointments")
+    void testRoundTrip() throws IOException {
+        var store = new SnapshotStore(tempDir, 2);
+        var appointment = appointment(startTime);
+        store.save(snapshot(42, appointment));
+
+        var loaded = store.loadLatest().orElseThrow();
+
+        assertEquals(42, loaded.journalOffset());
+        assertEquals(7, loaded.storeJournalOffset());
+        assertEquals("owner", loaded.users().getFirst().getId());
+        assertEquals("owner@example.com", loaded.users().getFirst().getUserMetadata().getEmail());
+        var rule = loaded.rules().get("owner").getFirst();
+        assertEquals(DayOfWeek.MONDAY, rule.getDayOfWeek());
+        assertEquals(LocalTime.of(9, 0), rule.getStartTime());
+        assertEquals(LocalTime.of(17, 0), rule.getEndTime());
+        var ownerOverrides = loaded.overrides().get("owner");
+        assertEquals(Set.of("public"), ownerOverrides.holidayCalendarIds());
+        var extra = ownerOverrides.overrides().get(0);
+        assertEquals(AvailabilityOverrideType.EXTRA, extra.getType());
+        assertEquals(LocalTime.of(18, 0), extra.getStartTime());
+        var blackout = ownerOverrides.overrides().get(1);
+        assertEquals(startTime.toLocalDate(), blackout.getDate());
+        assertNull(blackout.getStartTime());
+        assertNull(blackout.getEndTime());
+        assertEquals(Map.of(startTime.toLocalDate().plusDays(1), "Holiday"), loaded.holidayCalendars().get("public"));
+        assertEquals(appointment.getAppointmentId(), loaded.appointments().getFirst().getAppointmentId());
+        assertEquals(appointment.getStartTime(), loaded.appointments().getFirst().getStartTime());
+    }
+
+    @Test
+    @DisplayName("Corrupt newest snapshot is skipped in favour of the previous one")
+    void testCorruptSnapshotFallsBack() throws IOException {
+        var store = new SnapshotStore(tempDir, 2);
+        store.save(snapshot(10, appointment(startTime)));
+        var newest = store.save(snapshot(20, appointment(startTime.plusHours(1))));
+        try (var channel = FileChannel.open(newest, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(newest) - 3);
+        }
+
+        assertEquals(10, store.loadLatest().orElseThrow().journalOffset());
+    }
+
+    @Test
+    @DisplayName("Only the configured number of snapshots is kept")
+    void testOldSnapshotsAreDeleted() throws IOException {
+        var store = new SnapshotStore(tempDir, 2);
+        for (int offset = 1; offset <= 4; offset++) {
+            store.save(snapshot(offset, appointment(startTime)));
+        }
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+        assertEquals(4, store.loadLatest().orElseThrow().journalOffset());
+    }
+
+    @Test
+    @DisplayName("Snapshots with the same appointment journal offset are ordered by store journal offset")
+    void testOrderedByStoreJournalOffset() throws IOException {
+        var store = new SnapshotStore(tempDir, 2);
+        var appointment = appointment(startTime);
+        store.save(new StoreSnapshot(5, 9, List.of(), Map.of(), Map.of(), Map.of(), List.of(appointment)));
+        store.save(new StoreSnapshot(5, 10, List.of(), Map.of(), Map.of(), Map.of(), List.of(appointment)));
+        store.save(new StoreSnapshot(5, 11, List.of(), Map.of(), Map.of(), Map.of(), List.of(appointment)));
+
+        assertEquals(11, store.loadLatest().orElseThrow().storeJournalOffset());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Empty directory has no snapshot")
+    void testNoSnapshot() throws IOException {
+        assertTrue(new SnapshotStore(tempDir.resolve("missing"), 2).loadLatest().isEmpty());
+    }
+
+    private StoreSnapshot snapshot(long journalOffset, Appointment appointment) {
+        var user = User.builder()
+                .id("owner")
+                .userMetadata(UserMetadata.builder().name("Owner").email("owner@example.com").build())
+                .build();
+        var rule = AvailabilityRule.builder()
+                .ownerId("owner")
+                .dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(17, 0))
+                .build();
+        var extra = AvailabilityOverride.builder()
+                .ownerId("owner")
+                .date(startTime.toLocalDate())
+                .type(AvailabilityOverrideType.EXTRA)
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(20, 0))
+                .build();
+        var blackout = AvailabilityOverride.builder()
+                .ownerId("owner")
+                .date(startTime.toLocalDate())
+                .type(AvailabilityOverrideType.BLACKOUT)
+                .build();
+        return new StoreSnapshot(journalOffset, 7, List.of(user), Map.of("owner", List.of(rule)),
+                Map.of("owner", new OwnerOverrides(List.of(extra, blackout), Set.of("public"))),
+                Map.of("public", Map.of(startTime.toLocalDate().plusDays(1), "Holiday")), List.of(appointment));
+    }
+
+    private Appointment appointment(LocalDateTime start) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId("owner")
+                .inviteeId("invitee")
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+    }
+}
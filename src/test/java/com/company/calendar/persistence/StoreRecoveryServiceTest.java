@@ -0,0 +1,299 @@
+package com.company.calendar.persistence;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityOverride;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.entity.User;
+import com.company.calendar.entity.UserMetadata;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import com.company.calendar.repository.appointment.AppointmentJournal;
+import com.company.calendar.repository.appointment.JournalAppointmentRepository;
+import com.company.calendar.repository.availabilityOverride.InMemoryAvailabilityOverrideRepository;
+import com.company.calendar.repository.availabilityOverride.OwnerOverrides;
+import com.company.calendar.repository.availabilityRule.InMemoryAvailabilityRuleRepository;
+import com.company.calendar.repository.holidayCalendar.InMemoryHolidayCalendarRepository;
+import com.company.calendar.repository.user.InMemoryUserRepository;
+import com.company.calendar.service.availability.AvailableSlotsCache;
+import com.company.calendar.service.availability.CompiledAvailability;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class StoreRecoveryServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LocalDateTime startTime = LocalDateTime.of(2025, 8, 25, 10, 0);
+    private final AppointmentProperties appointmentProperties = new AppointmentProperties();
+    private final StoreRecoveryGate storeRecoveryGate = new StoreRecoveryGate();
+    private final StoreLoadingHealthIndicator storeLoadingHealthIndicator = new StoreLoadingHealthIndicator();
+    private StoreJournal storeJournal;
+    private InMemoryUserRepository userRepository;
+    private InMemoryAvailabilityRuleRepository availabilityRuleRepository;
+    private InMemoryAvailabilityOverrideRepository availabilityOverrideRepository;
+    private InMemoryHolidayCalendarRepository holidayCalendarRepository;
+    private final CompiledAvailability compiledAvailability = mock(CompiledAvailability.class);
+    private final AvailableSlotsCache availableSlotsCache = mock(AvailableSlotsCache.class);
+    private JournalAppointmentRepository appointmentRepository;
+    private StoreRecoveryService storeRecoveryService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentProperties.setRepository("journal");
+        var journal = appointmentProperties.getJournal();
+        journal.setPath(tempDir.resolve("appointments.journal").toString());
+        journal.setStorePath(tempDir.resolve("stores.journal").toString());
+        journal.setSnapshotDirectory(tempDir.resolve("snapshots").toString());
+        journal.setReplayThreads(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (storeRecoveryService != null) {
+            storeRecoveryService.stop();
+        }
+        if (appointmentRepository != null) {
+            appointmentRepository.close();
+        }
+        if (storeJournal != null) {
+            storeJournal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot is restored and only the journal tail after its offset is replayed on top")
+    void testSnapshotAndJournalTail() throws IOException {
+        var inSnapshot = appointment("owner", startTime, "snapshotted");
+        var tail = appointment("owner", startTime.plusHours(1), "tail");
+        long snapshotOffset;
+        try (var journal = openJournal()) {
+            journal.append(inSnapshot);
+            snapshotOffset = journal.committedOffset();
+            journal.append(tail);
+        }
+        saveSnapshot(snapshotOffset, List.of(inSnapshot));
+
+        createService();
+        storeRecoveryService.recover();
+
+        assertEquals("owner@example.com", userRepository.findById("owner").orElseThrow().getUserMetadata().getEmail());
+        assertEquals(DayOfWeek.MONDAY, availabilityRuleRepository.findByOwnerId("owner").getFirst().getDayOfWeek());
+        assertEquals(AvailabilityOverrideType.BLACKOUT, availabilityOverrideRepository
+                .findByOwnerIdAndDate("owner", startTime.toLocalDate().plusDays(7)).getFirst().getType());
+        assertEquals(Set.of("public"), availabilityOverrideRepository.findHolidayCalendarIds("owner"));
+        assertTrue(holidayCalendarRepository.isHoliday("public", startTime.toLocalDate().plusDays(14)));
+        //restored rules replace whatever was compiled for the owner before
+        verify(compiledAvailability).refresh("owner");
+        verify(availableSlotsCache).invalidateOwner("owner");
+        var restored = appointmentRepository.findByOwnerIdAndDate("owner", startTime.toLocalDate());
+        assertEquals(List.of("snapshotted", "tail"), restored.stream().map(Appointment::getAppointmentId).toList());
+    }
+
+    @Test
+    @DisplayName("Store changes journaled after the snapshot are replayed before the appointment tail")
+    void testStoreJournalTail() throws IOException {
+        var tail = appointment("owner", startTime.plusDays(1), "tail");
+        try (var journal = openJournal()) {
+            journal.append(tail);
+        }
+        saveSnapshot(0, List.of());
+        var tuesday = AvailabilityRule.builder()
+                .ownerId("owner")
+                .dayOfWeek(DayOfWeek.TUESDAY)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(17, 0))
+                .build();
+        var journal = new StoreJournal(Path.of(appointmentProperties.getJournal().getStorePath()), 16);
+        journal.replay(0, change -> { });
+        journal.write(new StoreChange.UserSaved(user("owner", "renamed@example.com")), () -> { });
+        journal.write(new StoreChange.RulesSaved("owner", List.of(tuesday)), () -> { });
+        journal.write(new StoreChange.UserSaved(user("deleted", "deleted@example.com")), () -> { });
+        journal.write(new StoreChange.UserDeleted("deleted"), () -> { });
+        journal.write(new StoreChange.OverridesSaved("owner", List.of(), Set.of("school")), () -> { });
+        journal.write(new StoreChange.HolidayCalendarSaved("school", Map.of(startTime.toLocalDate(), "Term break")), () -> { });
+        journal.close();
+
+        createService();
+        storeRecoveryService.recover();
+
+        assertEquals("renamed@example.com", userRepository.findById("owner").orElseThrow().getUserMetadata().getEmail());
+        assertTrue(userRepository.findById("deleted").isEmpty());
+        //the journaled overrides replace the snapshotted ones as a whole
+        assertTrue(availabilityOverrideRepository.findByOwnerIdAndDate("owner", startTime.toLocalDate().plusDays(7)).isEmpty());
+        assertEquals(Set.of("school"), availabilityOverrideRepository.findHolidayCalendarIds("owner"));
+        assertTrue(holidayCalendarRepository.isHoliday("school", startTime.toLocalDate()));
+        assertEquals(DayOfWeek.TUESDAY, availabilityRuleRepository.findByOwnerId("owner").getFirst().getDayOfWeek());
+        verify(compiledAvailability).refresh("owner");
+        assertEquals(List.of("tail"), appointmentRepository.findByOwnerIdAndDate("owner", startTime.toLocalDate().plusDays(1))
+                .stream().map(Appointment::getAppointmentId).toList());
+    }
+
+    @Test
+    @DisplayName("Store writes after recovery are journaled and come back without a newer snapshot")
+    void testWritesAfterRecoveryAreJournaled() throws IOException {
+        saveSnapshot(0, List.of());
+        createService();
+        storeRecoveryService.recover();
+        userRepository.save(user("owner", "renamed@example.com"));
+        availabilityRuleRepository.save("other", List.of());
+        holidayCalendarRepository.save("school", Map.of(startTime.toLocalDate(), "Term break"));
+        availabilityOverrideRepository.save("other", List.of(), Set.of("school"));
+        appointmentRepository.close();
+        storeJournal.close();
+
+        //a restart: fresh stores loaded from the same files
+        createService();
+        storeRecoveryService.recover();
+
+        assertEquals("renamed@example.com", userRepository.findById("owner").orElseThrow().getUserMetadata().getEmail());
+        assertTrue(availabilityRuleRepository.findAll().containsKey("other"));
+        assertEquals(Set.of("other"), availabilityOverrideRepository.findOwnerIdsByHolidayCalendarId("school"));
+        assertTrue(holidayCalendarRepository.isHoliday("school", startTime.toLocalDate()));
+    }
+
+    @Test
+    @DisplayName("Each owner's appointments are applied in journal order, whichever replay partition they land in")
+    void testJournalOrderPerOwner() throws IOException {
+        var owners = IntStream.range(0, 32).mapToObj(i -> "owner-" + i).toList();
+        //the snapshot holds a first version of every slot, the journal tail rewrites each one twice
+        List<Appointment> snapshotted = new ArrayList<>();
+        long snapshotOffset;
+        try (var journal = openJournal()) {
+            for (var owner : owners) {
+                var appointment = appointment(owner, startTime, owner + "-v1");
+                snapshotted.add(appointment);
+                journal.append(appointment);
+            }
+            snapshotOffset = journal.committedOffset();
+            for (var version = 2; version <= 3; version++) {
+                for (var owner : owners) {
+                    journal.append(appointment(owner, startTime, owner + "-v" + version));
+                }
+            }
+        }
+        saveSnapshot(snapshotOffset, snapshotted);
+
+        createService();
+        storeRecoveryService.recover();
+
+        for (var owner : owners) {
+            var restored = appointmentRepository.findByOwnerIdAndDate(owner, startTime.toLocalDate());
+            assertEquals(List.of(owner + "-v3"), restored.stream().map(Appointment::getAppointmentId).toList());
+            verify(availableSlotsCache).invalidateOwner(owner);
+        }
+    }
+
+    @Test
+    @DisplayName("Readiness stays DOWN and stores hold back requests until recovery finishes")
+    void testReadinessDownUntilRecovered() throws Exception {
+        saveSnapshot(0, List.of());
+        createService();
+        assertEquals(Status.DOWN, storeLoadingHealthIndicator.health().getStatus());
+
+        //a write sent while loading must not be overwritten by the snapshot
+        var renamed = user("owner", "renamed@example.com");
+        var write = CompletableFuture.runAsync(() -> userRepository.save(renamed));
+        var read = CompletableFuture.supplyAsync(() -> appointmentRepository.findByOwnerIdAndDate("owner", startTime.toLocalDate()));
+        Thread.sleep(100);
+        assertFalse(write.isDone());
+        assertFalse(read.isDone());
+        assertEquals(Status.DOWN, storeLoadingHealthIndicator.health().getStatus());
+
+        storeRecoveryService.recover();
+
+        write.get(5, TimeUnit.SECONDS);
+        assertTrue(read.get(5, TimeUnit.SECONDS).isEmpty());
+        assertEquals(Status.UP, storeLoadingHealthIndicator.health().getStatus());
+        assertEquals("renamed@example.com", userRepository.findById("owner").orElseThrow().getUserMetadata().getEmail());
+    }
+
+    @Test
+    @DisplayName("Failed recovery keeps readiness DOWN and fails store calls instead of serving empty stores")
+    void testFailedRecovery() throws IOException {
+        //an offset beyond the end of the journal cannot be replayed
+        saveSnapshot(1_000, List.of());
+        createService();
+
+        storeRecoveryService.recover();
+
+        assertEquals(Status.DOWN, storeLoadingHealthIndicator.health().getStatus());
+        assertThrows(IllegalStateException.class, () -> userRepository.findById("owner"));
+        assertThrows(IllegalStateException.class, () -> appointmentRepository.findByOwnerIdAndDate("owner", startTime.toLocalDate()));
+    }
+
+    private void createService() {
+        storeJournal = new StoreJournal(appointmentProperties);
+        userRepository = new InMemoryUserRepository(storeRecoveryGate, storeJournal);
+        availabilityRuleRepository = new InMemoryAvailabilityRuleRepository(storeRecoveryGate, storeJournal);
+        availabilityOverrideRepository = new InMemoryAvailabilityOverrideRepository(storeRecoveryGate, storeJournal);
+        holidayCalendarRepository = new InMemoryHolidayCalendarRepository(storeRecoveryGate, storeJournal);
+        appointmentRepository = new JournalAppointmentRepository(appointmentProperties, storeRecoveryGate);
+        storeRecoveryService = new StoreRecoveryService(userRepository, availabilityRuleRepository,
+                availabilityOverrideRepository, holidayCalendarRepository, appointmentRepository,
+                storeJournal, storeLoadingHealthIndicator, storeRecoveryGate, compiledAvailability,
+                availableSlotsCache, appointmentProperties);
+    }
+
+    private AppointmentJournal openJournal() {
+        var journal = new AppointmentJournal(Path.of(appointmentProperties.getJournal().getPath()), 16);
+        journal.replay(0, appointment -> { });
+        return journal;
+    }
+
+    private void saveSnapshot(long journalOffset, List<Appointment> appointments) throws IOException {
+        var rule = AvailabilityRule.builder()
+                .ownerId("owner")
+                .dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(17, 0))
+                .build();
+        var blackout = AvailabilityOverride.builder()
+                .ownerId("owner")
+                .date(startTime.toLocalDate().plusDays(7))
+                .type(AvailabilityOverrideType.BLACKOUT)
+                .build();
+        var snapshot = new StoreSnapshot(journalOffset, 0, List.of(user("owner", "owner@example.com")),
+                Map.of("owner", List.of(rule)), Map.of("owner", new OwnerOverrides(List.of(blackout), Set.of("public"))),
+                Map.of("public", Map.of(startTime.toLocalDate().plusDays(14), "Holiday")), appointments);
+        new SnapshotStore(Path.of(appointmentProperties.getJournal().getSnapshotDirectory()), 2).save(snapshot);
+    }
+
+    private User user(String id, String email) {
+        return User.builder()
+                .id(id)
+                .userMetadata(UserMetadata.builder().name("Owner").email(email).build())
+                .build();
+    }
+
+    private Appointment appointment(String ownerId, LocalDateTime start, String appointmentId) {
+        return Appointment.builder()
+                .appointmentId(appointmentId)
+                .ownerId(ownerId)
+                .inviteeId("invitee")
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AppointmentJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LocalDateTime startTime = LocalDateTime.of(2025, 8, 25, 10, 0);
+
+    @Test
+    @DisplayName("Appended appointments are replayed after reopening the journal")
+    void testReplayAfterRestart() {
+        var path = tempDir.resolve("appointments.journal");
+        var appointment = appointment(startTime);
+        try (var journal = new AppointmentJournal(path, 16)) {
+            journal.replay(0, a -> { });
+            journal.append(appointment);
+            journal.append(appointment(startTime.plusHours(1)));
+        }
+
+        List<Appointment> replayed = new ArrayList<>();
+        try (var journal = new AppointmentJournal(path, 16)) {
+            assertEquals(2, journal.replay(0, replayed::add));
+        }
+
+        assertEquals(appointment.getAppointmentId(), replayed.getFirst().getAppointmentId());
+        assertEquals(appointment.getOwnerId(), replayed.getFirst().getOwnerId());
+        assertEquals(appointment.getInviteeId(), replayed.getFirst().getInviteeId());
+        assertEquals(appointment.getStartTime(), replayed.getFirst().getStartTime());
+        assertEquals(appointment.getEndTime(), replayed.getFirst().getEndTime());
+    }
+
+    @Test
+    @DisplayName("Torn record at the end of the journal is truncated and later appends survive")
+    void testTornTailIsTruncated() throws IOException {
+        var path = tempDir.resolve("appointments.journal");
+        try (var journal = new AppointmentJournal(path, 16)) {
+            journal.replay(0, a -> { });
+            journal.append(appointment(startTime));
+        }
+        //simulate a crash in the middle of writing the next record
+        Files.write(path, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (var journal = new AppointmentJournal(path, 16)) {
+            assertEquals(1, journal.replay(0, a -> { }));
+            journal.append(appointment(startTime.plusHours(1)));
+        }
+
+        try (var journal = new AppointmentJournal(path, 16)) {
+            assertEquals(2, journal.replay(0, a -> { }));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent appends are all durable")
+    void testConcurrentAppends() throws Exception {
+        var path = tempDir.resolve("appointments.journal");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (var journal = new AppointmentJournal(path, 16)) {
+            journal.replay(0, a -> { });
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                var appointment = appointment(startTime.plusHours(i));
+                futures.add(executor.submit(() -> journal.append(appointment)));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (var journal = new AppointmentJournal(path, 16)) {
+            assertEquals(100, journal.replay(0, a -> { }));
+        }
+    }
+
+    private Appointment appointment(LocalDateTime startTime) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId("1")
+                .inviteeId("3")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(60))
+                .build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every AppointmentRepository has to provide. Each implementation's test extends this class
+ * and only adds the cases that are specific to that implementation.
+ */
+public abstract class AppointmentRepositoryContractTest<R extends AppointmentRepository> {
+
+    protected R appointmentRepository;
+    protected final String ownerId = "1";
+    protected final LocalDate date = LocalDate.of(2025, 8, 25);
+
+    protected abstract R createRepository();
+
+    @BeforeEach
+    void setUpRepository() {
+        appointmentRepository = createRepository();
+    }
+
+    @Test
+    @DisplayName("Stored appointment is read back with all of its fields")
+    void testRoundTrip() {
+        var appointment = appointment(date.atTime(10, 0));
+        appointmentRepository.save(appointment);
+
+        var stored = appointmentRepository.findByOwnerIdAndDate(ownerId, date).getFirst();
+
+        assertEquals(appointment.getAppointmentId(), stored.getAppointmentId());
+        assertEquals(ownerId, stored.getOwnerId());
+        assertEquals(appointment.getInviteeId(), stored.getInviteeId());
+        assertEquals(appointment.getStartTime(), stored.getStartTime());
+        assertEquals(appointment.getEndTime(), stored.getEndTime());
+    }
+
+    @Test
+    @DisplayName("Day lookup returns only appointments of that day ordered by start time")
+    void testFindByOwnerIdAndDate() {
+        appointmentRepository.save(appointment(date.atTime(23, 0)));
+        appointmentRepository.save(appointment(date.atTime(10, 0)));
+        appointmentRepository.save(appointment(date.minusDays(1).atTime(23, 0)));
+        appointmentRepository.save(appointment(date.plusDays(1).atStartOfDay()));
+
+        var appointments = appointmentRepository.findByOwnerIdAndDate(ownerId, date);
+
+        assertEquals(2, appointments.size());
+        assertEquals(date.atTime(10, 0), appointments.get(0).getStartTime());
+        assertEquals(date.atTime(23, 0), appointments.get(1).getStartTime());
+        assertTrue(appointmentRepository.findByOwnerIdAndDate("unknown", date).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Second booking for the same owner and start time is rejected")
+    void testSaveIfSlotFree() {
+        var startTime = date.atTime(10, 0);
+
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(startTime)));
+        assertFalse(appointmentRepository.saveIfSlotFree(appointment(startTime)));
+        assertTrue(appointmentRepository.existsByOwnerIdAndStartTime(ownerId, startTime));
+        assertFalse(appointmentRepository.existsByOwnerIdAndStartTime(ownerId, startTime.plusHours(1)));
+        assertEquals(1, appointmentRepository.findByOwnerIdAndDate(ownerId, date).size());
+    }
+
+    @Test
+    @DisplayName("Bookings overlapping an appointment of another length are rejected, adjacent ones are accepted")
+    void testSaveIfSlotFreeWithOverlap() {
+        //09:30 - 11:00
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(date.atTime(9, 30), 90)));
+
+        assertFalse(appointmentRepository.saveIfSlotFree(appointment(date.atTime(10, 45), 15)));
+        assertFalse(appointmentRepository.saveIfSlotFree(appointment(date.atTime(9, 0), 45)));
+        assertFalse(appointmentRepository.saveIfSlotFree(appointment(date.atTime(9, 0), 180)));
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(date.atTime(11, 0), 30)));
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(date.atTime(9, 0), 30)));
+        assertEquals(3, appointmentRepository.findByOwnerIdAndDate(ownerId, date).size());
+
+        assertTrue(appointmentRepository.existsOverlapping(ownerId, date.atTime(10, 0), date.atTime(10, 15)));
+        assertFalse(appointmentRepository.existsOverlapping(ownerId, date.atTime(11, 30), date.atTime(12, 0)));
+        assertFalse(appointmentRepository.existsOverlapping("unknown", date.atTime(10, 0), date.atTime(11, 0)));
+
+        //an appointment running past midnight blocks the start of the next day
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(date.atTime(23, 30), 60)));
+        assertFalse(appointmentRepository.saveIfSlotFree(appointment(date.plusDays(1).atStartOfDay(), 15)));
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(date.plusDays(1).atTime(0, 30), 15)));
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of one slot store exactly one appointment")
+    void testConcurrentSaveIfSlotFree() throws InterruptedException {
+        var startTime = date.atTime(10, 0);
+        var booked = new AtomicInteger();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                if (appointmentRepository.saveIfSlotFree(appointment(startTime))) {
+                    booked.incrementAndGet();
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, booked.get());
+        assertEquals(1, appointmentRepository.findByOwnerIdAndDate(ownerId, date).size());
+    }
+
+    @Test
+    @DisplayName("Upcoming appointments are paged in start time order")
+    void testFindByOwnerIdAndStartTimeAfter() {
+        for (int hour = 23; hour >= 0; hour--) {
+            appointmentRepository.save(appointment(date.atTime(hour, 0)));
+        }
+
+        var page = appointmentRepository.findByOwnerIdAndStartTimeAfter(ownerId, date.atTime(9, 0), PageRequest.of(1, 5));
+
+        assertEquals(14, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+        assertEquals(date.atTime(15, 0), page.getContent().getFirst().getStartTime());
+        assertEquals(date.atTime(19, 0), page.getContent().getLast().getStartTime());
+    }
+
+    @Test
+    @DisplayName("Day lookups and upcoming pages keep start time order, also when after is not on a full minute")
+    void testOrderedQueries() {
+        for (int hour = 23; hour >= 0; hour--) {
+            appointmentRepository.save(appointment(date.atTime(hour, 0)));
+        }
+        appointmentRepository.save(appointment(date.plusDays(1).atStartOfDay()));
+
+        assertEquals(24, appointmentRepository.findByOwnerIdAndDate(ownerId, date).size());
+
+        var page = appointmentRepository.findByOwnerIdAndStartTimeAfter(ownerId, date.atTime(9, 0, 30), PageRequest.of(1, 5));
+        assertEquals(15, page.getTotalElements());
+        assertEquals(date.atTime(15, 0), page.getContent().getFirst().getStartTime());
+        assertEquals(date.atTime(19, 0), page.getContent().getLast().getStartTime());
+    }
+
+    @Test
+    @DisplayName("Keyset pages continue right after the last appointment of the previous page")
+    void testFindByOwnerIdAfterKey() {
+        for (int hour = 23; hour >= 0; hour--) {
+            appointmentRepository.save(appointment(date.atTime(hour, 0)));
+        }
+
+        var firstPage = appointmentRepository.findByOwnerIdAfterKey(ownerId, AppointmentKey.after(date.atTime(9, 0)), 5);
+        var secondPage = appointmentRepository.findByOwnerIdAfterKey(ownerId, AppointmentKey.of(firstPage.getLast()), 5);
+
+        assertEquals(date.atTime(10, 0), firstPage.getFirst().getStartTime());
+        assertEquals(date.atTime(14, 0), firstPage.getLast().getStartTime());
+        assertEquals(date.atTime(15, 0), secondPage.getFirst().getStartTime());
+        assertEquals(date.atTime(19, 0), secondPage.getLast().getStartTime());
+        assertEquals(14, appointmentRepository.countByOwnerIdAndStartTimeAfter(ownerId, date.atTime(9, 0)));
+    }
+
+    @Test
+    @DisplayName("Range lookup returns appointments starting in [from, to) across days in start time order")
+    void testFindByOwnerIdAndStartTimeBetween() {
+        for (int day = 2; day >= 0; day--) {
+            appointmentRepository.save(appointment(date.plusDays(day).atTime(10, 0)));
+            appointmentRepository.save(appointment(date.plusDays(day).atTime(0, 0)));
+        }
+
+        var appointments = appointmentRepository.findByOwnerIdAndStartTimeBetween(
+                ownerId, date.atTime(10, 0), date.plusDays(2).atStartOfDay());
+
+        assertEquals(3, appointments.size());
+        assertEquals(date.atTime(10, 0), appointments.getFirst().getStartTime());
+        assertEquals(date.plusDays(1).atTime(10, 0), appointments.getLast().getStartTime());
+        assertTrue(appointmentRepository.findByOwnerIdAndStartTimeBetween(ownerId, date.atTime(11, 0), date.atTime(11, 0)).isEmpty());
+    }
+
+    protected Appointment appointment(LocalDateTime startTime) {
+        return appointment(startTime, 60);
+    }
+
+    protected Appointment appointment(LocalDateTime startTime, int durationMinutes) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(durationMinutes))
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactAppointmentRepositoryTest extends AppointmentRepositoryContractTest<CompactAppointmentRepository> {
+
+    @Override
+    protected CompactAppointmentRepository createRepository() {
+        return new CompactAppointmentRepository();
+    }
+
+    @Test
+    @DisplayName("Non UUID appointment ids are rejected without corrupting the schedule")
+    void testInvalidAppointmentId() {
+        var startTime = date.atTime(10, 0);
+        var invalid = Appointment.builder()
+                .appointmentId("a1")
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(60))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> appointmentRepository.save(invalid));
+        assertFalse(appointmentRepository.existsByOwnerIdAndStartTime(ownerId, startTime));
+    }
+}
@@ -0,0 +1,44 @@
+package com.company.calendar.repository.appointment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DayPartitionedAppointmentRepositoryTest extends AppointmentRepositoryContractTest<DayPartitionedAppointmentRepository> {
+
+    @Override
+    protected DayPartitionedAppointmentRepository createRepository() {
+        return new DayPartitionedAppointmentRepository();
+    }
+
+    @Test
+    @DisplayName("Upcoming appointments span day buckets in start time order")
+    void testFindByOwnerIdAndStartTimeAfterAcrossDays() {
+        appointmentRepository.save(appointment(date.plusDays(1).atTime(9, 0)));
+        appointmentRepository.save(appointment(date.atTime(22, 0)));
+        appointmentRepository.save(appointment(date.atTime(8, 0)));
+        appointmentRepository.save(appointment(date.minusDays(1).atTime(22, 0)));
+
+        var page = appointmentRepository.findByOwnerIdAndStartTimeAfter(ownerId, date.atTime(9, 0), PageRequest.of(0, 10));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(date.atTime(22, 0), page.getContent().get(0).getStartTime());
+        assertEquals(date.plusDays(1).atTime(9, 0), page.getContent().get(1).getStartTime());
+    }
+
+    @Test
+    @DisplayName("Past day buckets are removed in bulk and returned for archiving")
+    void testRemoveDaysBefore() {
+        appointmentRepository.save(appointment(date.minusDays(2).atTime(10, 0)));
+        appointmentRepository.save(appointment(date.minusDays(1).atTime(10, 0)));
+        appointmentRepository.save(appointment(date.atTime(10, 0)));
+
+        var removed = appointmentRepository.removeDaysBefore(date);
+
+        assertEquals(2, removed.size());
+        assertTrue(appointmentRepository.findByOwnerIdAndDate(ownerId, date.minusDays(1)).isEmpty());
+        assertEquals(1, appointmentRepository.findByOwnerIdAndDate(ownerId, date).size());
+    }
+}
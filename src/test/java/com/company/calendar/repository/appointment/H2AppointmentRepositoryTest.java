@@ -0,0 +1,55 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class H2AppointmentRepositoryTest extends AppointmentRepositoryContractTest<H2AppointmentRepository> {
+
+    @Override
+    protected H2AppointmentRepository createRepository() {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        var repository = new H2AppointmentRepository(
+                new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource), new AppointmentProperties());
+        repository.createSchema();
+        return repository;
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.close();
+    }
+
+    @Test
+    @DisplayName("Bulk day lookup returns each owner's appointments of that day, owners without any get an empty list")
+    void testFindByOwnerIdsAndDate() {
+        appointmentRepository.save(appointment(date.atTime(10, 0)));
+        appointmentRepository.save(appointment(date.plusDays(1).atTime(10, 0)));
+        appointmentRepository.save(Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId("3")
+                .inviteeId("2")
+                .startTime(date.atTime(11, 0))
+                .endTime(date.atTime(12, 0))
+                .build());
+
+        var appointmentsByOwner = appointmentRepository.findByOwnerIdsAndDate(List.of(ownerId, "3", "4"), date);
+
+        assertEquals(3, appointmentsByOwner.size());
+        assertEquals(date.atTime(10, 0), appointmentsByOwner.get(ownerId).getFirst().getStartTime());
+        assertEquals(1, appointmentsByOwner.get(ownerId).size());
+        assertEquals(date.atTime(11, 0), appointmentsByOwner.get("3").getFirst().getStartTime());
+        assertTrue(appointmentsByOwner.get("4").isEmpty());
+    }
+}
@@ -0,0 +1,9 @@
+package com.company.calendar.repository.appointment;
+
+public class InMemoryAppointmentRepositoryTest extends AppointmentRepositoryContractTest<InMemoryAppointmentRepository> {
+
+    @Override
+    protected InMemoryAppointmentRepository createRepository() {
+        return new InMemoryAppointmentRepository();
+    }
+}
@@ -0,0 +1,103 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalAppointmentRepositoryTest extends AppointmentRepositoryContractTest<JournalAppointmentRepository> {
+
+    @TempDir
+    Path tempDir;
+
+    private AppointmentJournal journal;
+
+    @Override
+    protected JournalAppointmentRepository createRepository() {
+        journal = new AppointmentJournal(tempDir.resolve("appointments.journal"), 16);
+        journal.replay(0, a -> { });
+        return new JournalAppointmentRepository(journal, new StoreRecoveryGate());
+    }
+
+    @AfterEach
+    void closeJournal() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Booking being journaled is hidden from reads but blocks overlapping bookings")
+    void testReservationHiddenUntilDurable() throws InterruptedException {
+        var appending = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blockingJournal = new AppointmentJournal(tempDir.resolve("blocking.journal"), 16) {
+            @Override
+            public void append(Appointment appointment) {
+                appending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.append(appointment);
+            }
+        };
+        blockingJournal.replay(0, a -> { });
+        try (blockingJournal) {
+            var repository = new JournalAppointmentRepository(blockingJournal, new StoreRecoveryGate());
+            var startTime = date.atTime(10, 0);
+            var booked = new AtomicBoolean();
+            var booking = Thread.ofPlatform().start(() -> booked.set(repository.saveIfSlotFree(appointment(startTime))));
+            assertTrue(appending.await(5, TimeUnit.SECONDS));
+
+            assertTrue(repository.findByOwnerIdAndDate(ownerId, date).isEmpty());
+            assertFalse(repository.existsByOwnerIdAndStartTime(ownerId, startTime));
+            assertFalse(repository.saveIfSlotFree(appointment(startTime.plusMinutes(30))));
+            //a snapshot taken now still has to contain the booking
+            var snapshot = new ArrayList<Appointment>();
+            repository.forEach(snapshot::add);
+            assertEquals(1, snapshot.size());
+
+            release.countDown();
+            booking.join();
+
+            assertTrue(booked.get());
+            assertEquals(1, repository.findByOwnerIdAndDate(ownerId, date).size());
+            assertTrue(repository.existsByOwnerIdAndStartTime(ownerId, startTime));
+        }
+    }
+
+    @Test
+    @DisplayName("Booking that fails to be journaled frees its slot")
+    void testFailedAppendFreesSlot() {
+        var failingJournal = new AppointmentJournal(tempDir.resolve("failing.journal"), 16) {
+            @Override
+            public void append(Appointment appointment) {
+                throw new UncheckedIOException("Failed to write appointment journal", new IOException("disk full"));
+            }
+        };
+        try (failingJournal) {
+            var repository = new JournalAppointmentRepository(failingJournal, new StoreRecoveryGate());
+            var startTime = date.atTime(10, 0);
+
+            assertThrows(UncheckedIOException.class, () -> repository.saveIfSlotFree(appointment(startTime)));
+
+            assertTrue(repository.findByOwnerIdAndDate(ownerId, date).isEmpty());
+            var snapshot = new ArrayList<Appointment>();
+            repository.forEach(snapshot::add);
+            assertTrue(snapshot.isEmpty());
+            assertFalse(repository.existsOverlapping(ownerId, startTime, startTime.plusHours(1)));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.calendar.repository.appointment;
+
+import com.company.calendar.entity.Appointment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapAppointmentRepositoryTest extends AppointmentRepositoryContractTest<OffHeapAppointmentRepository> {
+
+    @Override
+    protected OffHeapAppointmentRepository createRepository() {
+        return new OffHeapAppointmentRepository();
+    }
+
+    @Test
+    @DisplayName("Non UUID appointment ids are rejected before a record is taken or overwritten")
+    void testInvalidAppointmentId() {
+        var startTime = date.atTime(10, 0);
+        var stored = appointment(startTime);
+        appointmentRepository.save(stored);
+
+        assertThrows(IllegalArgumentException.class, () -> appointmentRepository.save(invalid(startTime)));
+        assertThrows(IllegalArgumentException.class, () -> appointmentRepository.saveIfSlotFree(invalid(startTime.plusHours(1))));
+
+        var appointments = appointmentRepository.findByOwnerIdAndDate(ownerId, date);
+        assertEquals(1, appointments.size());
+        assertEquals(stored.getAppointmentId(), appointments.getFirst().getAppointmentId());
+        assertTrue(appointmentRepository.saveIfSlotFree(appointment(startTime.plusHours(1))));
+    }
+
+    private Appointment invalid(LocalDateTime startTime) {
+        return Appointment.builder()
+                .appointmentId("a1")
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(60))
+                .build();
+    }
+}
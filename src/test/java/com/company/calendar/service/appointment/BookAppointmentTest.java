@@ -5,7 +5,9 @@ import com.company.calendar.dto.appointment.BookAppointmentRequest;
 import com.company.calendar.dto.appointment.BookAppointmentResult;
 import com.company.calendar.exceptions.InvalidStartDateTimeException;
 import com.company.calendar.exceptions.appointment.SlotAlreadyBookedException;
+import com.company.calendar.service.availability.AvailableSlotsCache;
 import com.company.calendar.validator.AppointmentValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,8 +17,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +39,9 @@ public class BookAppointmentTest {
     @Mock
     private AppointmentValidator appointmentValidator;
 
+    @Mock
+    private AvailableSlotsCache availableSlotsCache;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -46,6 +49,8 @@ public class BookAppointmentTest {
 
     private BookAppointmentRequest validRequest;
 
+    private final KeyedLockRegistry idempotencyLocks = new KeyedLockRegistry("idempotency", new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         validRequest = BookAppointmentRequest.builder()
@@ -72,8 +77,7 @@ public class BookAppointmentTest {
     @DisplayName("Pass invalid appointment time in request")
     void testInvalidAppointmentTime() {
         when(appointmentIdempotencyStore.get(any())).thenReturn(null);
-        Lock object = new ReentrantLock();
-        when(appointmentIdempotencyLockManager.getLock(any())).thenReturn(object);
+        when(appointmentIdempotencyLockManager.lock(any())).thenAnswer(invocation -> idempotencyLocks.lock(invocation.getArgument(0)));
         var invalidRequest = BookAppointmentRequest.builder()
                 .ownerId("1")
                 .inviteeId("3")
@@ -81,7 +85,6 @@ public class BookAppointmentTest {
                 .build();
         when(appointmentValidator.validateAppointment(any(), anyLong()))
                 .thenThrow(new InvalidStartDateTimeException("Appointments must start at the top of the hour and last 60 minutes"));
-        doNothing().when(appointmentIdempotencyLockManager).releaseLock(anyString());
         when(appointmentProperties.getDurationMinutes()).thenReturn(60);
 
         var ex = assertThrows(
@@ -90,18 +93,17 @@ public class BookAppointmentTest {
         );
 
         assertEquals("Appointments must start at the top of the hour and last 60 minutes", ex.getMessage());
-        verify(appointmentIdempotencyLockManager).releaseLock(idempotencyKey);
+        verify(appointmentIdempotencyLockManager).lock(idempotencyKey);
+        assertEquals(0, idempotencyLocks.activeKeys());
     }
 
     @Test
     @DisplayName("Appointment time is valid, key is unique but slot is not free so booking failed")
     void testBookingFailed() {
         when(appointmentIdempotencyStore.get(any())).thenReturn(null);
-        Lock object = new ReentrantLock();
-        when(appointmentIdempotencyLockManager.getLock(any())).thenReturn(object);
+        when(appointmentIdempotencyLockManager.lock(any())).thenAnswer(invocation -> idempotencyLocks.lock(invocation.getArgument(0)));
         when(appointmentValidator.validateAppointment(any(), anyLong())).thenReturn(true);
         when(appointmentBookingStrategy.book(any(), anyInt(), anyString())).thenReturn(false);
-        doNothing().when(appointmentIdempotencyLockManager).releaseLock(anyString());
         when(appointmentProperties.getDurationMinutes()).thenReturn(60);
 
         var ex = assertThrows(
@@ -111,18 +113,17 @@ public class BookAppointmentTest {
 
         assertEquals("Appointment slot already booked for owner: 1", ex.getMessage());
 
-        verify(appointmentIdempotencyLockManager).releaseLock(idempotencyKey);
+        verify(appointmentIdempotencyLockManager).lock(idempotencyKey);
+        assertEquals(0, idempotencyLocks.activeKeys());
     }
 
     @Test
     @DisplayName("Should book appointment successfully if slot is free, appointment time is valid, key is unique")
     void testBookAppointment() {
         when(appointmentIdempotencyStore.get(any())).thenReturn(null);
-        Lock object = new ReentrantLock();
-        when(appointmentIdempotencyLockManager.getLock(any())).thenReturn(object);
+        when(appointmentIdempotencyLockManager.lock(any())).thenAnswer(invocation -> idempotencyLocks.lock(invocation.getArgument(0)));
         when(appointmentValidator.validateAppointment(any(), anyLong())).thenReturn(true);
         when(appointmentBookingStrategy.book(any(), anyInt(), anyString())).thenReturn(true);
-        doNothing().when(appointmentIdempotencyLockManager).releaseLock(anyString());
         doNothing().when(appointmentIdempotencyStore).put(anyString(), anyString());
         when(appointmentProperties.getDurationMinutes()).thenReturn(60);
 
@@ -135,7 +136,32 @@ public class BookAppointmentTest {
 
         verify(appointmentValidator).validateAppointment(validRequest, 60);
         verify(appointmentBookingStrategy).book(validRequest, 60, result.getAppointmentId());
-        verify(appointmentIdempotencyLockManager).releaseLock(idempotencyKey);
+        verify(availableSlotsCache).invalidateBooking("1", validRequest.getStartDateTime(), 60);
+        verify(appointmentIdempotencyLockManager).lock(idempotencyKey);
+        assertEquals(0, idempotencyLocks.activeKeys());
         verify(appointmentIdempotencyStore).put(idempotencyKey, result.getAppointmentId());
     }
+
+    @Test
+    @DisplayName("Duration given in the request replaces the configured slot length")
+    void testBookAppointmentWithDuration() {
+        var shortRequest = BookAppointmentRequest.builder()
+                .ownerId("1")
+                .inviteeId("3")
+                .startDateTime(LocalDateTime.of(2025, 8, 25, 22, 15))
+                .durationMinutes(30)
+                .build();
+        when(appointmentIdempotencyStore.get(any())).thenReturn(null);
+        when(appointmentIdempotencyLockManager.lock(any())).thenAnswer(invocation -> idempotencyLocks.lock(invocation.getArgument(0)));
+        when(appointmentValidator.validateAppointment(any(), anyLong())).thenReturn(true);
+        when(appointmentBookingStrategy.book(any(), anyInt(), anyString())).thenReturn(true);
+
+        var result = appointmentService.bookAppointment(idempotencyKey, shortRequest);
+
+        assertTrue(result.isNewlyCreated());
+        verify(appointmentValidator).validateAppointment(shortRequest, 30);
+        verify(appointmentBookingStrategy).book(shortRequest, 30, result.getAppointmentId());
+        verify(availableSlotsCache).invalidateBooking("1", shortRequest.getStartDateTime(), 30);
+        verifyNoInteractions(appointmentProperties);
+    }
 }
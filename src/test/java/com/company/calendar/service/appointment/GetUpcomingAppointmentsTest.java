@@ -1,17 +1,23 @@
 package com.company.calendar.service.appointment;
 
+import com.company.calendar.config.AppointmentProperties;
 import com.company.calendar.entity.Appointment;
 import com.company.calendar.entity.User;
 import com.company.calendar.entity.UserMetadata;
 import com.company.calendar.exceptions.user.UserNotFoundException;
+import com.company.calendar.repository.appointment.AppointmentKey;
 import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.availability.AvailableSlotsCache;
 import com.company.calendar.service.user.UserService;
+import com.company.calendar.utils.AppointmentCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -34,6 +40,9 @@ public class GetUpcomingAppointmentsTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private AvailableSlotsCache availableSlotsCache = new AvailableSlotsCache(new AppointmentProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -141,4 +150,87 @@ public class GetUpcomingAppointmentsTest {
         assertEquals("Akash", appt.getInviteeName());
         assertEquals("asingh@gmail.com", appt.getInviteeEmail());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Cursor page returns a next cursor only when more appointments follow and skips totals on request")
+    void testCursorPagination() {
+        size = 1;
+        LocalDateTime now = LocalDateTime.now();
+        doNothing().when(userService).validateUserExists(any());
+
+        var appointment1 = Appointment.builder()
+                .appointmentId("a1")
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(now.plusDays(1))
+                .endTime(now.plusDays(1).plusMinutes(60))
+                .build();
+        var appointment2 = Appointment.builder()
+                .appointmentId("a2")
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(now.plusDays(2))
+                .endTime(now.plusDays(2).plusMinutes(60))
+                .build();
+
+        when(appointmentRepository.findByOwnerIdAfterKey(eq(ownerId), any(AppointmentKey.class), eq(2)))
+                .thenReturn(List.of(appointment1, appointment2));
+        when(userService.getUsersByIds(Set.of("3"))).thenReturn(Map.of());
+
+        var result = appointmentService.getUpcomingAppointmentsByCursor(ownerId, null, size, false);
+
+        assertEquals(1, result.getAppointments().size());
+        assertEquals("a1", result.getAppointments().getFirst().getAppointmentId());
+        assertNull(result.getTotalItems());
+        assertNull(result.getCurrentPage());
+        assertEquals(AppointmentKey.of(appointment1), AppointmentCursor.decode(result.getNextCursor()));
+        verify(appointmentRepository, never()).countByOwnerIdAndStartTimeAfter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Malformed cursor is rejected")
+    void testInvalidCursor() {
+        doNothing().when(userService).validateUserExists(any());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.getUpcomingAppointmentsByCursor(ownerId, "not a cursor", size, true));
+    }
+
+    @Test
+    @DisplayName("ETag changes with a booking of the owner, an owner or invitee detail change or when the first upcoming appointment starts")
+    void testETag() {
+        var now = LocalDateTime.now();
+        var first = Appointment.builder()
+                .appointmentId("a1")
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(now.plusDays(1))
+                .endTime(now.plusDays(1).plusMinutes(60))
+                .build();
+        when(appointmentRepository.findByOwnerIdAfterKey(eq(ownerId), any(AppointmentKey.class), eq(1)))
+                .thenReturn(List.of(first));
+
+        var eTag = appointmentService.getUpcomingAppointmentsETag(ownerId);
+        assertEquals(eTag, appointmentService.getUpcomingAppointmentsETag(ownerId));
+
+        availableSlotsCache.invalidateBooking("2", now.plusDays(3), 60);
+        assertEquals(eTag, appointmentService.getUpcomingAppointmentsETag(ownerId));
+
+        availableSlotsCache.invalidateBooking(ownerId, now.plusDays(3), 60);
+        var bookedETag = appointmentService.getUpcomingAppointmentsETag(ownerId);
+        assertNotEquals(eTag, bookedETag);
+
+        when(userService.getUserVersion(ownerId)).thenReturn(1L);
+        var ownerETag = appointmentService.getUpcomingAppointmentsETag(ownerId);
+        assertNotEquals(bookedETag, ownerETag);
+
+        when(userService.getUserDetailsVersion()).thenReturn(1L);
+        var userETag = appointmentService.getUpcomingAppointmentsETag(ownerId);
+        assertNotEquals(ownerETag, userETag);
+
+        //the first appointment has started, the next one is now first
+        when(appointmentRepository.findByOwnerIdAfterKey(eq(ownerId), any(AppointmentKey.class), eq(1)))
+                .thenReturn(List.of());
+        assertNotEquals(userETag, appointmentService.getUpcomingAppointmentsETag(ownerId));
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.calendar.service.appointment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyedLockRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private KeyedLockRegistry keyedLockRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        keyedLockRegistry = new KeyedLockRegistry("test", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Threads locking one key never run their critical sections at the same time")
+    void testMutualExclusion() throws InterruptedException {
+        var counter = new int[1];
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    try (var lock = keyedLockRegistry.lock("owner")) {
+                        counter[0]++;
+                    }
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, counter[0]);
+        assertEquals(0, keyedLockRegistry.activeKeys());
+    }
+
+    @Test
+    @DisplayName("Entry of a key is kept while a waiter holds a reference and removed after the last release")
+    void testEntryRemovedAfterLastRelease() throws InterruptedException {
+        var waiterLocked = new CountDownLatch(1);
+        var held = keyedLockRegistry.lock("owner");
+        var waiter = Thread.ofPlatform().start(() -> {
+            try (var lock = keyedLockRegistry.lock("owner")) {
+                waiterLocked.countDown();
+            }
+        });
+
+        assertFalse(waiterLocked.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, keyedLockRegistry.activeKeys());
+        held.close();
+        assertTrue(waiterLocked.await(1, TimeUnit.SECONDS));
+        waiter.join();
+
+        assertEquals(0, keyedLockRegistry.activeKeys());
+        //closing twice must not release somebody else's reference
+        held.close();
+        assertEquals(0, keyedLockRegistry.activeKeys());
+    }
+
+    @Test
+    @DisplayName("Distinct keys do not block each other and every acquisition is timed")
+    void testDistinctKeysAndWaitMetric() {
+        try (var first = keyedLockRegistry.lock("1"); var second = keyedLockRegistry.lock("2")) {
+            assertEquals(2, keyedLockRegistry.activeKeys());
+        }
+
+        var timer = meterRegistry.get("appointment.lock.acquire.wait").tag("registry", "test").timer();
+        assertEquals(2, timer.count());
+        assertEquals(0, keyedLockRegistry.activeKeys());
+    }
+}
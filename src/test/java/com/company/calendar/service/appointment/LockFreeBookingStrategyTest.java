@@ -0,0 +1,119 @@
+package com.company.calendar.service.appointment;
+
+import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.InMemoryAppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LockFreeBookingStrategyTest {
+
+    private InMemoryAppointmentRepository appointmentRepository;
+    private LockFreeBookingStrategy lockFreeBookingStrategy;
+    private String ownerId;
+    private LocalDateTime startDateTime;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = new InMemoryAppointmentRepository();
+        lockFreeBookingStrategy = new LockFreeBookingStrategy(appointmentRepository);
+        ownerId = "3";
+        startDateTime = LocalDate.now().plusDays(7).atTime(10, 0);
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of one slot let exactly one request win")
+    void testConcurrentBooking() throws InterruptedException {
+        var booked = new AtomicInteger();
+        var startLatch = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (lockFreeBookingStrategy.book(request(startDateTime), 60, UUID.randomUUID().toString())) {
+                    booked.incrementAndGet();
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, booked.get());
+        assertEquals(1, appointmentRepository.findByOwnerIdAndDate(ownerId, startDateTime.toLocalDate()).size());
+    }
+
+    @Test
+    @DisplayName("Appointments already in the repository block their slot, neighbouring slots stay free")
+    void testBitmapIsLoadedFromRepository() {
+        appointmentRepository.save(Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("1")
+                .startTime(startDateTime)
+                .endTime(startDateTime.plusMinutes(60))
+                .build());
+
+        assertFalse(lockFreeBookingStrategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+        assertTrue(lockFreeBookingStrategy.book(request(startDateTime.plusHours(1)), 60, UUID.randomUUID().toString()));
+        assertTrue(lockFreeBookingStrategy.book(request(startDateTime.minusHours(1)), 60, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    @DisplayName("Appointment running past midnight blocks the start of the next day")
+    void testBookingAcrossMidnight() {
+        var lateEvening = startDateTime.toLocalDate().atTime(23, 0);
+
+        assertTrue(lockFreeBookingStrategy.book(request(lateEvening), 90, UUID.randomUUID().toString()));
+        assertFalse(lockFreeBookingStrategy.book(request(lateEvening.plusHours(1)), 60, UUID.randomUUID().toString()));
+        assertTrue(lockFreeBookingStrategy.book(request(lateEvening.plusHours(2)), 60, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    @DisplayName("Slot is released again when the repository fails to save")
+    void testFailedSaveReleasesSlot() {
+        var failures = new AtomicInteger(1);
+        var strategy = new LockFreeBookingStrategy(new InMemoryAppointmentRepository() {
+            @Override
+            public void save(Appointment appointment) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("disk full");
+                }
+                super.save(appointment);
+            }
+
+            @Override
+            public boolean saveIfSlotFree(Appointment appointment) {
+                throw new AssertionError("claimed cells need no second overlap check");
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> strategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+        assertTrue(strategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+    }
+
+    private BookAppointmentRequest request(LocalDateTime startTime) {
+        return BookAppointmentRequest.builder()
+                .ownerId(ownerId)
+                .inviteeId("1")
+                .startDateTime(startTime)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.company.calendar.service.appointment;
 import com.company.calendar.dto.appointment.BookAppointmentRequest;
 import com.company.calendar.entity.Appointment;
 import com.company.calendar.repository.appointment.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,8 +17,6 @@ import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +40,8 @@ public class PessimisticBookingStrategyTest {
     private String inviteeId;
     private LocalDateTime startDateTime;
 
+    private final KeyedLockRegistry ownerLocks = new KeyedLockRegistry("owner", new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         ownerId = "3";
@@ -57,22 +58,22 @@ public class PessimisticBookingStrategyTest {
     @Test
     @DisplayName("Test for single owner booking already exists")
     void testForSingleOwnerBookingAlreadyExists() {
-        when(appointmentOwnerLockManager.getLock(anyString())).thenReturn(new ReentrantLock());
-        when(appointmentRepository.existsByOwnerIdAndStartTime(any(), any())).thenReturn(true);
+        when(appointmentOwnerLockManager.lock(anyString())).thenAnswer(invocation -> ownerLocks.lock(invocation.getArgument(0)));
+        when(appointmentRepository.existsOverlapping(any(), any(), any())).thenReturn(true);
         boolean isBooked = pessimisticBookingStrategy.book(request, 60, appointmentId);
         assertFalse(isBooked);
-        verify(appointmentOwnerLockManager).releaseLock(anyString());
+        assertEquals(0, ownerLocks.activeKeys());
     }
 
     @Test
     @DisplayName("Test for single owner new booking")
     void testForSingleOwnerNewBooking() {
-        when(appointmentOwnerLockManager.getLock(anyString())).thenReturn(new ReentrantLock());
-        when(appointmentRepository.existsByOwnerIdAndStartTime(any(), any())).thenReturn(false);
+        when(appointmentOwnerLockManager.lock(anyString())).thenAnswer(invocation -> ownerLocks.lock(invocation.getArgument(0)));
+        when(appointmentRepository.existsOverlapping(any(), any(), any())).thenReturn(false);
         doNothing().when(appointmentRepository).save(any());
         boolean isBooked = pessimisticBookingStrategy.book(request, 60, appointmentId);
         assertTrue(isBooked);
-        verify(appointmentOwnerLockManager).releaseLock(anyString());
+        assertEquals(0, ownerLocks.activeKeys());
     }
 
     //You are simulating a concurrent booking scenario:
@@ -101,13 +102,12 @@ public class PessimisticBookingStrategyTest {
                 .startDateTime(startDateTime)
                 .build();
 
-        Lock lock = new ReentrantLock();
-        when(appointmentOwnerLockManager.getLock(anyString())).thenReturn(lock);
+        when(appointmentOwnerLockManager.lock(anyString())).thenAnswer(invocation -> ownerLocks.lock(invocation.getArgument(0)));
 
         // Mock behavior for repository
         // First thread sees no booking
         // Second thread sees that appointment is already booked
-        when(appointmentRepository.existsByOwnerIdAndStartTime(ownerId, startDateTime))
+        when(appointmentRepository.existsOverlapping(ownerId, startDateTime, startDateTime.plusMinutes(60)))
                 .thenAnswer(invocation -> counter.get() > 0);
 
         doAnswer(invocation -> {
@@ -142,7 +142,7 @@ public class PessimisticBookingStrategyTest {
         new Thread(thread2).start();
 
         allDone.await(2, TimeUnit.SECONDS);
-        verify(appointmentOwnerLockManager, times(2)).getLock(ownerId);
-        verify(appointmentOwnerLockManager, times(2)).releaseLock(ownerId);
+        verify(appointmentOwnerLockManager, times(2)).lock(ownerId);
+        assertEquals(0, ownerLocks.activeKeys());
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.company.calendar.service.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.appointment.BookAppointmentRequest;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.repository.appointment.InMemoryAppointmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleWriterBookingStrategyTest {
+
+    private InMemoryAppointmentRepository appointmentRepository;
+    private SingleWriterBookingStrategy singleWriterBookingStrategy;
+    private String ownerId;
+    private LocalDateTime startDateTime;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = new InMemoryAppointmentRepository();
+        singleWriterBookingStrategy = new SingleWriterBookingStrategy(appointmentRepository, new AppointmentProperties());
+        ownerId = "3";
+        startDateTime = LocalDate.now().plusDays(7).atTime(10, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        singleWriterBookingStrategy.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of one owner get every distinct slot once and reject the duplicates")
+    void testConcurrentBooking() throws InterruptedException {
+        var booked = new AtomicInteger();
+        var startLatch = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 16; i++) {
+            //threads i and i + 8 ask for the same 50 slots
+            var firstHour = i % 8;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int hour = firstHour; hour < 400; hour += 8) {
+                    if (singleWriterBookingStrategy.book(request(startDateTime.plusHours(hour)), 60, UUID.randomUUID().toString())) {
+                        booked.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400, booked.get());
+        assertEquals(400, appointmentRepository.countByOwnerIdAndStartTimeAfter(ownerId, startDateTime.minusMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("Mailboxes of owners without pending bookings are dropped")
+    void testIdleMailboxesRemoved() throws InterruptedException {
+        for (int owner = 0; owner < 100; owner++) {
+            var request = BookAppointmentRequest.builder()
+                    .ownerId("owner-" + owner)
+                    .inviteeId("1")
+                    .startDateTime(startDateTime)
+                    .build();
+            assertTrue(singleWriterBookingStrategy.book(request, 60, UUID.randomUUID().toString()));
+        }
+        assertTrue(singleWriterBookingStrategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+
+        //the writer drops the mailbox right after completing the caller's future
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleWriterBookingStrategy.activeMailboxes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, singleWriterBookingStrategy.activeMailboxes());
+        //a dropped owner gets a fresh mailbox that still sees the owner's bookings
+        assertFalse(singleWriterBookingStrategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    @DisplayName("Appointments already in the repository block their slot")
+    void testExistingAppointmentBlocksSlot() {
+        appointmentRepository.save(Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("1")
+                .startTime(startDateTime)
+                .endTime(startDateTime.plusMinutes(60))
+                .build());
+
+        assertFalse(singleWriterBookingStrategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+        assertTrue(singleWriterBookingStrategy.book(request(startDateTime.plusHours(1)), 60, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    @DisplayName("Bookings of different lengths in one batch are rejected when they overlap, also across midnight")
+    void testOverlappingLengths() {
+        var evening = startDateTime.toLocalDate().atTime(23, 0);
+
+        assertTrue(singleWriterBookingStrategy.book(request(startDateTime), 90, UUID.randomUUID().toString()));
+        //10:00 - 11:30 is taken, 11:00 overlaps it, 11:30 touches it
+        assertFalse(singleWriterBookingStrategy.book(request(startDateTime.plusHours(1)), 30, UUID.randomUUID().toString()));
+        assertTrue(singleWriterBookingStrategy.book(request(startDateTime.plusMinutes(90)), 15, UUID.randomUUID().toString()));
+        assertFalse(singleWriterBookingStrategy.book(request(startDateTime.minusMinutes(30)), 45, UUID.randomUUID().toString()));
+
+        assertTrue(singleWriterBookingStrategy.book(request(evening), 120, UUID.randomUUID().toString()));
+        assertFalse(singleWriterBookingStrategy.book(request(evening.plusMinutes(90)), 15, UUID.randomUUID().toString()));
+        assertTrue(singleWriterBookingStrategy.book(request(evening.plusHours(2)), 15, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    @DisplayName("Failed save is reported to its caller only and leaves the slot free")
+    void testFailedSave() {
+        var failures = new AtomicInteger(1);
+        var strategy = new SingleWriterBookingStrategy(new InMemoryAppointmentRepository() {
+            @Override
+            public boolean saveIfSlotFree(Appointment appointment) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("disk full");
+                }
+                return super.saveIfSlotFree(appointment);
+            }
+        }, new AppointmentProperties());
+
+        try {
+            var ex = assertThrows(IllegalStateException.class,
+                    () -> strategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+            assertEquals("disk full", ex.getMessage());
+            assertTrue(strategy.book(request(startDateTime), 60, UUID.randomUUID().toString()));
+        } finally {
+            assertDoesNotThrow(strategy::close);
+        }
+    }
+
+    private BookAppointmentRequest request(LocalDateTime startTime) {
+        return BookAppointmentRequest.builder()
+                .ownerId(ownerId)
+                .inviteeId("1")
+                .startDateTime(startTime)
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.company.calendar.service.appointment;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.appointment.BookTeamAppointmentRequest;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.exceptions.appointment.NoTeamMemberAvailableException;
+import com.company.calendar.repository.appointment.InMemoryAppointmentRepository;
+import com.company.calendar.service.availability.AvailabilityServiceHelper;
+import com.company.calendar.service.availability.AvailableSlotsCache;
+import com.company.calendar.validator.AppointmentValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TeamAppointmentServiceTest {
+
+    @Mock
+    private AppointmentValidator appointmentValidator;
+
+    @Mock
+    private AvailabilityServiceHelper availabilityServiceHelper;
+
+    @Mock
+    private AvailableSlotsCache availableSlotsCache;
+
+    private InMemoryAppointmentRepository appointmentRepository;
+    private AppointmentIdempotencyStore appointmentIdempotencyStore;
+    private TeamAppointmentService teamAppointmentService;
+    private final LocalDateTime startDateTime = LocalDate.now().plusDays(7).atTime(10, 0);
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = new InMemoryAppointmentRepository();
+        appointmentIdempotencyStore = new AppointmentIdempotencyStore();
+        teamAppointmentService = new TeamAppointmentService(
+                new AppointmentProperties(),
+                new OptimisticBookingStrategy(appointmentRepository),
+                appointmentRepository,
+                appointmentIdempotencyStore,
+                new AppointmentIdempotencyLockManager(new SimpleMeterRegistry()),
+                appointmentValidator,
+                availabilityServiceHelper,
+                availableSlotsCache);
+    }
+
+    @Test
+    @DisplayName("Least loaded free member gets the appointment, members without the slot or booked at that time are skipped")
+    void testLeastLoadedFreeMember() {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenAnswer(invocation -> !"1".equals(invocation.getArgument(0)));
+        //member 2 is already booked at the requested time, member 3 has more appointments that day than member 4
+        save("2", startDateTime);
+        save("3", startDateTime.plusHours(1));
+        save("3", startDateTime.plusHours(2));
+        save("4", startDateTime.plusHours(1));
+
+        var result = teamAppointmentService.bookTeamAppointment("key-1", request("1", "2", "3", "4"));
+
+        assertTrue(result.isNewlyCreated());
+        assertEquals("4", result.getOwnerId());
+        assertTrue(appointmentRepository.existsByOwnerIdAndStartTime("4", startDateTime));
+        verify(availableSlotsCache).invalidateBooking("4", startDateTime, 60);
+    }
+
+    @Test
+    @DisplayName("Member whose earlier appointment runs into the requested time is skipped, the requested length is booked")
+    void testOverlappingAppointmentSkipsMember() {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(true);
+        //member 1 is busy from 09:30 to 10:30, no appointment of it starts at 10:00
+        save("1", startDateTime.minusMinutes(30));
+        var request = BookTeamAppointmentRequest.builder()
+                .memberIds(List.of("1", "2"))
+                .inviteeId("9")
+                .startDateTime(startDateTime)
+                .durationMinutes(30)
+                .build();
+
+        var result = teamAppointmentService.bookTeamAppointment("key-1", request);
+
+        assertEquals("2", result.getOwnerId());
+        assertTrue(appointmentRepository.existsOverlapping("2", startDateTime, startDateTime.plusMinutes(30)));
+        assertFalse(appointmentRepository.existsOverlapping("2", startDateTime.plusMinutes(30), startDateTime.plusMinutes(60)));
+        verify(availabilityServiceHelper).isAvailable("2", startDateTime, 30);
+        verify(availableSlotsCache).invalidateBooking("2", startDateTime, 30);
+    }
+
+    @Test
+    @DisplayName("Members with equal load take turns")
+    void testRoundRobinOnEqualLoad() {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(true);
+
+        var owners = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            var request = BookTeamAppointmentRequest.builder()
+                    .memberIds(List.of("1", "2", "3"))
+                    .inviteeId("9")
+                    .startDateTime(startDateTime.plusDays(i))
+                    .build();
+            owners.add(teamAppointmentService.bookTeamAppointment("key-" + i, request).getOwnerId());
+        }
+
+        assertEquals(3, owners.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("No free member fails the booking")
+    void testNoMemberAvailable() {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(true);
+        save("1", startDateTime);
+        save("2", startDateTime);
+
+        assertThrows(NoTeamMemberAvailableException.class,
+                () -> teamAppointmentService.bookTeamAppointment("key-1", request("1", "2")));
+    }
+
+    @Test
+    @DisplayName("Same idempotency key returns the first appointment without booking again")
+    void testIdempotency() {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(true);
+
+        var first = teamAppointmentService.bookTeamAppointment("key-1", request("1", "2"));
+        var second = teamAppointmentService.bookTeamAppointment("key-1", request("1", "2"));
+
+        assertFalse(second.isNewlyCreated());
+        assertEquals(first.getAppointmentId(), second.getAppointmentId());
+        verify(appointmentValidator, times(1)).validateTeamAppointment(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Idempotency key of a single booking does not return that booking for a team request")
+    void testIdempotencyKeyNamespace() {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(true);
+        appointmentIdempotencyStore.put("key-1", "single-appointment");
+
+        var result = teamAppointmentService.bookTeamAppointment("key-1", request("1", "2"));
+
+        assertTrue(result.isNewlyCreated());
+        assertNotEquals("single-appointment", result.getAppointmentId());
+        assertEquals("single-appointment", appointmentIdempotencyStore.get("key-1"));
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for one time spread over the team until every member is booked once")
+    void testConcurrentBookingsFillTeam() throws InterruptedException {
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(true);
+        var owners = ConcurrentHashMap.<String>newKeySet();
+        var failures = ConcurrentHashMap.<String>newKeySet();
+        var startLatch = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 6; i++) {
+            var idempotencyKey = "key-" + i;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    startLatch.await();
+                    owners.add(teamAppointmentService.bookTeamAppointment(idempotencyKey, request("1", "2", "3", "4")).getOwnerId());
+                } catch (NoTeamMemberAvailableException e) {
+                    failures.add(idempotencyKey);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4, owners.size());
+        assertEquals(2, failures.size());
+    }
+
+    private BookTeamAppointmentRequest request(String... memberIds) {
+        return BookTeamAppointmentRequest.builder()
+                .memberIds(List.of(memberIds))
+                .inviteeId("9")
+                .startDateTime(startDateTime)
+                .build();
+    }
+
+    private void save(String ownerId, LocalDateTime startTime) {
+        appointmentRepository.save(Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("9")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(60))
+                .build());
+    }
+}
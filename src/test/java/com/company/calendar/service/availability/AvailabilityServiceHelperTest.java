@@ -3,8 +3,9 @@ package com.company.calendar.service.availability;
 import com.company.calendar.config.AppointmentProperties;
 import com.company.calendar.dto.availability.AvailabilityRuleSetupRequest;
 import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.entity.Appointment;
 import com.company.calendar.entity.AvailabilityRule;
-import com.company.calendar.repository.availabilityRule.AvailabilityRuleRepository;
+import com.company.calendar.utils.DateUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,15 +16,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 
@@ -31,10 +32,10 @@ import static org.mockito.Mockito.when;
 public class AvailabilityServiceHelperTest {
 
     @Mock
-    private AvailabilityRuleRepository availabilityRuleRepository;
+    private AppointmentProperties appointmentProperties;
 
     @Mock
-    private AppointmentProperties appointmentProperties;
+    private CompiledAvailability compiledAvailability;
 
     @InjectMocks
     private AvailabilityServiceHelper availabilityServiceHelper;
@@ -47,105 +48,48 @@ public class AvailabilityServiceHelperTest {
     }
 
     @Test
-    @DisplayName("Test generate slots with single slot for multiple days")
-    void testForSingleSlotOnMultipleDays() {
-        //edge cases related to MIDNIGHT and start of day are covered here also
+    @DisplayName("Appointments of every length fit anywhere inside the slots of the day")
+    void testIsAvailable() {
+        var monday = LocalDate.of(2025, 8, 25);
+        var rules = List.of(
+                AvailabilityRule.builder().ownerId(ownerId).dayOfWeek(DayOfWeek.MONDAY)
+                        .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(10, 0)).build(),
+                AvailabilityRule.builder().ownerId(ownerId).dayOfWeek(DayOfWeek.MONDAY)
+                        .startTime(LocalTime.of(14, 0)).endTime(LocalTime.of(14, 0)).build());
         when(appointmentProperties.getDurationMinutes()).thenReturn(60);
-        List<AvailabilityRule> rules = new ArrayList<>();
-        rules.add(AvailabilityRule.builder()
-                .ownerId(ownerId)
-                .dayOfWeek(DayOfWeek.MONDAY)
-                .startTime(LocalTime.of(0, 0))
-                .endTime(LocalTime.of(23, 0))
-                .build());
-        rules.add(AvailabilityRule.builder()
-                .ownerId(ownerId)
-                .dayOfWeek(DayOfWeek.TUESDAY)
-                .startTime(LocalTime.of(9, 0))
-                .endTime(LocalTime.of(17, 0))
-                .build());
-        rules.add(AvailabilityRule.builder()
-                .ownerId(ownerId)
-                .dayOfWeek(DayOfWeek.WEDNESDAY)
-                .startTime(LocalTime.of(8, 0))
-                .endTime(LocalTime.of(17, 0))
-                .build());
-
-        //some of these booked start times are invalid for particular dayOfWeek
-        //those would just be ignored by our logic
-        Set<LocalTime> bookedStartTimes = new HashSet<>();
-        bookedStartTimes.add(LocalTime.of(0, 0));
-        bookedStartTimes.add(LocalTime.of(9, 0));
-        bookedStartTimes.add(LocalTime.of(15, 0));
-        bookedStartTimes.add(LocalTime.of(22, 0));
-
-        LocalDate date1 = LocalDate.of(2025, 8, 24);
-        LocalDate date2 = LocalDate.of(2025, 8, 25);
-        LocalDate date3 = LocalDate.of(2025, 8, 26);
-        LocalDate date4 = LocalDate.of(2025, 8, 27);
-        List<AvailableSlotDto> actualSlots1 = availabilityServiceHelper
-                .generateAvailableSlotsFromRules(rules, bookedStartTimes, date1); //SUNDAY
-        List<AvailableSlotDto> actualSlots2 = availabilityServiceHelper
-                .generateAvailableSlotsFromRules(rules, bookedStartTimes, date2); //MONDAY
-        List<AvailableSlotDto> actualSlots3 = availabilityServiceHelper
-                .generateAvailableSlotsFromRules(rules, bookedStartTimes, date3); //TUESDAY
-        List<AvailableSlotDto> actualSlots4 = availabilityServiceHelper
-                .generateAvailableSlotsFromRules(rules, bookedStartTimes, date4); //WEDNESDAY
-        assertEquals(0, actualSlots1.size());
-        assertEquals(20, actualSlots2.size());
-        assertEquals(7, actualSlots3.size());
-        assertEquals(8, actualSlots4.size());
-        //        actualSlots2.forEach(x -> System.out.println(x.getStartDateTime() + "###" + x.getEndDateTime()));
+        //slots 09:00, 10:00 and 14:00
+        when(compiledAvailability.slotStartsFor(ownerId, monday)).thenReturn(CompiledAvailability.compileDay(rules, 60));
+
+        assertTrue(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(9, 15), 30));
+        assertTrue(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(9, 30), 90));
+        assertTrue(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(14, 45), 15));
+        assertTrue(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(10, 0), 60));
+        //the default length follows the same rule as any other
+        assertTrue(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(9, 30), 60));
+        assertTrue(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(9, 15), 45));
+        assertFalse(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(10, 15), 60));
+        assertFalse(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(10, 0, 30), 60));
+        assertFalse(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(10, 30), 45));
+        assertFalse(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(8, 45), 30));
+        assertFalse(availabilityServiceHelper.isAvailable(ownerId, monday.atTime(10, 45), 15 * 17));
     }
 
     @Test
-    @DisplayName("Test generate slots with multiple slots on a single day but non overlapping")
-    void testForMultipleSlotsOnSingleDay() {
-        //Note: there would be no overlapping intervals for a particular day
-        // we ensured that while saving rules.
+    @DisplayName("Slots overlapping a booking of any length are excluded")
+    void testGenerateAvailableSlotsWithOverlappingAppointments() {
+        var monday = LocalDate.of(2025, 8, 25);
         when(appointmentProperties.getDurationMinutes()).thenReturn(60);
-        List<AvailabilityRule> rules = new ArrayList<>();
-        rules.add(AvailabilityRule.builder()
-                .ownerId(ownerId)
-                .dayOfWeek(DayOfWeek.MONDAY)
-                .startTime(LocalTime.of(7, 0))
-                .endTime(LocalTime.of(12, 0))
-                .build());
-        rules.add(AvailabilityRule.builder()
-                .ownerId(ownerId)
-                .dayOfWeek(DayOfWeek.MONDAY)
-                .startTime(LocalTime.of(16, 0))
-                .endTime(LocalTime.of(20, 0))
-                .build());
-
-        //some of these booked start times are invalid for particular dayOfWeek
-        //those would just be ignored by our logic
-        Set<LocalTime> bookedStartTimes = new HashSet<>();
-        bookedStartTimes.add(LocalTime.of(8, 0));
-        bookedStartTimes.add(LocalTime.of(15, 0));
-        bookedStartTimes.add(LocalTime.of(19, 0));
-
-        LocalDate date = LocalDate.of(2025, 8, 25); //MONDAY
-        List<AvailableSlotDto> actualSlots = availabilityServiceHelper
-                .generateAvailableSlotsFromRules(rules, bookedStartTimes, date); //SUNDAY
-        assertEquals(9, actualSlots.size());
-        //        actualSlots.forEach(x -> System.out.println(x.getStartDateTime() + "###" + x.getEndDateTime()));
-    }
+        var rule = AvailabilityRule.builder().ownerId(ownerId).dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(13, 0)).build();
+        var slotStarts = CompiledAvailability.compileDay(List.of(rule), 60);
+        //09:45 - 10:15 blocks 09:00 and 10:00, 12:00 - 12:15 blocks 12:00 only
+        var appointments = List.of(appointment(monday.atTime(9, 45), 30), appointment(monday.atTime(12, 0), 15));
 
+        var slots = availabilityServiceHelper.generateAvailableSlots(slotStarts, appointments, monday);
 
-    @Test
-    @DisplayName("Test generate slots with multiple slots on a single day but non overlapping")
-    void testGetRulesForOwnerAndDay() {
-        List<AvailabilityRule> rules = new ArrayList<>();
-        rules.add(AvailabilityRule.builder()
-                .ownerId(ownerId)
-                .dayOfWeek(DayOfWeek.MONDAY)
-                .startTime(LocalTime.of(9, 0))
-                .endTime(LocalTime.of(17, 0))
-                .build());
-        when(availabilityRuleRepository.findByOwnerIdAndDayOfWeek(anyString(), any())).thenReturn(rules);
-        var actualRules = availabilityServiceHelper.getRulesForOwnerAndDay(ownerId, DayOfWeek.MONDAY);
-        assertEquals(rules.size(), actualRules.size());
+        assertEquals(List.of(DateUtils.formatDateTime(monday.atTime(11, 0)), DateUtils.formatDateTime(monday.atTime(13, 0))),
+                slots.stream().map(AvailableSlotDto::getStartDateTime).toList());
+        assertEquals(CompiledAvailability.compileDay(List.of(rule), 60), slotStarts);
     }
 
     @Test
@@ -283,4 +227,14 @@ public class AvailabilityServiceHelperTest {
 
         assertEquals(LocalTime.of(21, 0), thursdayRule2.getEndTime());
     }
-}
\ No newline at end of file
+
+    private Appointment appointment(LocalDateTime startTime, int durationMinutes) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(durationMinutes))
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailableSlotsCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailableSlotsCache availableSlotsCache;
+    private AtomicInteger loads;
+    private String ownerId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        availableSlotsCache = new AvailableSlotsCache(new AppointmentProperties(), meterRegistry);
+        loads = new AtomicInteger();
+        ownerId = "1";
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Second lookup is served from the cache and counted as a hit")
+    void testHit() {
+        var first = availableSlotsCache.get(ownerId, date, this::load);
+        var second = availableSlotsCache.get(ownerId, date, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+    }
+
+    @Test
+    @DisplayName("Booking invalidates only its owner-day, rule changes invalidate every day of the owner")
+    void testInvalidation() {
+        availableSlotsCache.get(ownerId, date, this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(1), this::load);
+
+        availableSlotsCache.invalidateDay(ownerId, date);
+        availableSlotsCache.get(ownerId, date, this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(1), this::load);
+        assertEquals(3, loads.get());
+
+        availableSlotsCache.invalidateOwner(ownerId);
+        availableSlotsCache.get(ownerId, date, this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(1), this::load);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    @DisplayName("Booking past midnight invalidates both days it touches")
+    void testInvalidationAcrossMidnight() {
+        availableSlotsCache.get(ownerId, date, this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(1), this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(2), this::load);
+
+        availableSlotsCache.invalidateBooking(ownerId, date.atTime(23, 30), 60);
+        availableSlotsCache.get(ownerId, date, this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(1), this::load);
+        availableSlotsCache.get(ownerId, date.plusDays(2), this::load);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    @DisplayName("Slots loaded while a booking lands are never served after it")
+    void testBookingDuringLoad() {
+        availableSlotsCache.get(ownerId, date, () -> {
+            //the booking is stored and invalidated after this load read the repository
+            availableSlotsCache.invalidateDay(ownerId, date);
+            return load();
+        });
+        availableSlotsCache.get(ownerId, date, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, requests("hit"));
+    }
+
+    @Test
+    @DisplayName("Slot version follows the owner-day and rules, booking version follows every booking of the owner")
+    void testVersions() {
+        var slotsVersion = availableSlotsCache.slotsVersion(ownerId, date);
+        var bookingsVersion = availableSlotsCache.bookingsVersion(ownerId);
+
+        availableSlotsCache.invalidateDay(ownerId, date.plusDays(1));
+        assertEquals(slotsVersion, availableSlotsCache.slotsVersion(ownerId, date));
+        assertNotEquals(bookingsVersion, availableSlotsCache.bookingsVersion(ownerId));
+
+        availableSlotsCache.invalidateDay(ownerId, date);
+        var bookedVersion = availableSlotsCache.slotsVersion(ownerId, date);
+        assertNotEquals(slotsVersion, bookedVersion);
+
+        availableSlotsCache.invalidateOwner(ownerId);
+        assertNotEquals(bookedVersion, availableSlotsCache.slotsVersion(ownerId, date));
+        assertEquals(0, availableSlotsCache.bookingsVersion("2"));
+    }
+
+    private List<AvailableSlotDto> load() {
+        loads.incrementAndGet();
+        return List.of(AvailableSlotDto.builder()
+                .date(date)
+                .startMinute(10 * 60)
+                .endMinute(11 * 60)
+                .build());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("availability.slots.cache.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,199 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityOverride;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import com.company.calendar.repository.availabilityOverride.InMemoryAvailabilityOverrideRepository;
+import com.company.calendar.repository.availabilityRule.InMemoryAvailabilityRuleRepository;
+import com.company.calendar.repository.holidayCalendar.InMemoryHolidayCalendarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledAvailabilityTest {
+
+    private InMemoryAvailabilityRuleRepository availabilityRuleRepository;
+    private InMemoryAvailabilityOverrideRepository availabilityOverrideRepository;
+    private InMemoryHolidayCalendarRepository holidayCalendarRepository;
+    private CompiledAvailability compiledAvailability;
+    private String ownerId;
+    private final LocalDate monday = LocalDate.of(2025, 8, 25);
+
+    @BeforeEach
+    void setUp() {
+        var storeRecoveryGate = new StoreRecoveryGate();
+        var storeJournal = new StoreJournal(new AppointmentProperties());
+        availabilityRuleRepository = new InMemoryAvailabilityRuleRepository(storeRecoveryGate, storeJournal);
+        availabilityOverrideRepository = new InMemoryAvailabilityOverrideRepository(storeRecoveryGate, storeJournal);
+        holidayCalendarRepository = new InMemoryHolidayCalendarRepository(storeRecoveryGate, storeJournal);
+        compiledAvailability = new CompiledAvailability(new AppointmentProperties(), availabilityRuleRepository,
+                availabilityOverrideRepository, holidayCalendarRepository);
+        ownerId = "1";
+    }
+
+    @Test
+    @DisplayName("Rules compile to the slot starts the rule walk produces, including the slot ending at midnight")
+    void testCompileDay() {
+        var slotStarts = CompiledAvailability.compileDay(List.of(
+                rule(DayOfWeek.MONDAY, LocalTime.of(7, 30), LocalTime.of(10, 0)),
+                rule(DayOfWeek.MONDAY, LocalTime.of(22, 0), LocalTime.of(23, 0))), 60);
+
+        assertEquals(bits(7 * 60 + 30, 8 * 60 + 30, 9 * 60 + 30, 22 * 60, 23 * 60), slotStarts);
+    }
+
+    @Test
+    @DisplayName("Rules saved before the first lookup are compiled lazily, weekdays without rules have no slots")
+    void testLazyCompilation() {
+        availabilityRuleRepository.save(ownerId, List.of(rule(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+
+        assertEquals(bits(9 * 60, 10 * 60), compiledAvailability.slotStartsFor(ownerId, monday));
+        assertTrue(compiledAvailability.slotStartsFor(ownerId, monday.plusDays(1)).isEmpty());
+        assertTrue(compiledAvailability.slotStartsFor("unknown", monday).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Refresh replaces the compiled bitmaps with the latest saved rules")
+    void testRefresh() {
+        availabilityRuleRepository.save(ownerId, List.of(rule(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+        compiledAvailability.slotStartsFor(ownerId, monday);
+
+        availabilityRuleRepository.save(ownerId, List.of(rule(DayOfWeek.MONDAY, LocalTime.of(14, 0), LocalTime.of(14, 0))));
+        compiledAvailability.refresh(ownerId);
+
+        assertEquals(bits(14 * 60), compiledAvailability.slotStartsFor(ownerId, monday));
+    }
+
+    @Test
+    @DisplayName("Extra hours add slots, blackout windows remove every slot overlapping them, only on their date")
+    void testOverrides() {
+        availabilityRuleRepository.save(ownerId, List.of(rule(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0))));
+        availabilityOverrideRepository.save(ownerId, List.of(
+                override(monday, AvailabilityOverrideType.EXTRA, LocalTime.of(18, 0), LocalTime.of(19, 0)),
+                override(monday, AvailabilityOverrideType.BLACKOUT, LocalTime.of(10, 0), LocalTime.of(11, 0)),
+                //blackout wins over extra hours on the same date
+                override(monday, AvailabilityOverrideType.BLACKOUT, LocalTime.of(19, 0), LocalTime.of(20, 0))), Set.of());
+
+        assertEquals(bits(9 * 60, 11 * 60, 12 * 60, 18 * 60), compiledAvailability.slotStartsFor(ownerId, monday));
+        assertEquals(bits(9 * 60, 10 * 60, 11 * 60, 12 * 60), compiledAvailability.slotStartsFor(ownerId, monday.plusWeeks(1)));
+    }
+
+    @Test
+    @DisplayName("Whole day blackouts and holidays of a referenced calendar leave no slots, the weekly bitmap stays intact")
+    void testBlackoutsAndHolidays() {
+        availabilityRuleRepository.save(ownerId, List.of(rule(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+        holidayCalendarRepository.save("public", Map.of(monday.plusWeeks(1), "Holiday"));
+        availabilityOverrideRepository.save(ownerId, List.of(override(monday, AvailabilityOverrideType.BLACKOUT, null, null)), Set.of("public"));
+
+        assertTrue(compiledAvailability.slotStartsFor(ownerId, monday).isEmpty());
+        assertTrue(compiledAvailability.slotStartsFor(ownerId, monday.plusWeeks(1)).isEmpty());
+        assertEquals(bits(9 * 60, 10 * 60), compiledAvailability.slotStartsFor(ownerId, monday.plusWeeks(2)));
+        //other owners following no calendar are not affected
+        availabilityRuleRepository.save("2", List.of(rule(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+        assertEquals(bits(9 * 60, 10 * 60), compiledAvailability.slotStartsFor("2", monday.plusWeeks(1)));
+    }
+
+    @Test
+    @DisplayName("Free slot starts drop every slot an appointment overlaps, also the part running past midnight")
+    void testFreeSlotStarts() {
+        var slotStarts = bits(0, 60, 9 * 60, 10 * 60, 11 * 60);
+        var appointments = List.of(
+                appointment(monday.minusDays(1).atTime(23, 30), monday.atTime(0, 30)),
+                appointment(monday.atTime(9, 59), monday.atTime(10, 1)),
+                //touching the 11:00 slot's end is no overlap
+                appointment(monday.atTime(12, 0), monday.atTime(12, 15)));
+
+        var free = CompiledAvailability.freeSlotStarts(slotStarts, appointments, monday, 60);
+
+        assertEquals(bits(60, 11 * 60), free);
+        assertEquals(bits(0, 60, 9 * 60, 10 * 60, 11 * 60), slotStarts);
+    }
+
+    @Test
+    @DisplayName("Minutes are covered only when every one of them lies within a slot")
+    void testCoversMinutes() {
+        var slotStarts = bits(9 * 60, 10 * 60, 13 * 60);
+
+        assertTrue(CompiledAvailability.coversMinutes(slotStarts, 9 * 60 + 15, 10 * 60 + 45, 60));
+        assertTrue(CompiledAvailability.coversMinutes(slotStarts, 13 * 60, 14 * 60, 60));
+        assertFalse(CompiledAvailability.coversMinutes(slotStarts, 10 * 60 + 30, 11 * 60 + 15, 60));
+        assertFalse(CompiledAvailability.coversMinutes(slotStarts, 10 * 60 + 45, 13 * 60 + 15, 60));
+        assertFalse(CompiledAvailability.coversMinutes(slotStarts, 8 * 60 + 45, 9 * 60 + 15, 60));
+    }
+
+    @Test
+    @DisplayName("Day is booked through only when its bookings leave no minute of the slots' span free")
+    void testBookedThrough() {
+        var slotStarts = bits(9 * 60, 10 * 60, 11 * 60);
+        var bookedThrough = List.of(
+                appointment(monday.minusDays(1).atTime(23, 0), monday.atTime(0, 30)),
+                appointment(monday.atTime(8, 30), monday.atTime(9, 45)),
+                //overlapping bookings are counted once
+                appointment(monday.atTime(9, 30), monday.atTime(10, 0)),
+                appointment(monday.atTime(10, 0), monday.atTime(12, 30)));
+        var withGap = List.of(
+                appointment(monday.atTime(9, 0), monday.atTime(10, 0)),
+                appointment(monday.atTime(9, 30), monday.atTime(10, 0)),
+                appointment(monday.atTime(10, 15), monday.atTime(12, 0)),
+                //minutes outside the span do not make up for the gap
+                appointment(monday.atTime(13, 0), monday.atTime(15, 0)));
+
+        assertTrue(CompiledAvailability.bookedThrough(slotStarts, 0, bookedThrough, monday, 60));
+        assertFalse(CompiledAvailability.bookedThrough(slotStarts, 0, withGap, monday, 60));
+        //only the slots from 10:15 on are left, and those are booked
+        assertTrue(CompiledAvailability.bookedThrough(slotStarts, 10 * 60 + 15, withGap, monday, 60));
+        assertFalse(CompiledAvailability.bookedThrough(slotStarts, 0, List.of(), monday, 60));
+    }
+
+    private Appointment appointment(LocalDateTime startTime, LocalDateTime endTime) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+
+    private AvailabilityOverride override(LocalDate date, AvailabilityOverrideType type, LocalTime startTime, LocalTime endTime) {
+        return AvailabilityOverride.builder()
+                .ownerId(ownerId)
+                .date(date)
+                .type(type)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+
+    private AvailabilityRule rule(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        return AvailabilityRule.builder()
+                .ownerId(ownerId)
+                .dayOfWeek(dayOfWeek)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+
+    private static BitSet bits(int... minutes) {
+        var bits = new BitSet();
+        for (var minute : minutes) {
+            bits.set(minute);
+        }
+        return bits;
+    }
+}
@@ -1,9 +1,15 @@
 package com.company.calendar.service.availability;
 
+import com.company.calendar.config.AppointmentProperties;
 import com.company.calendar.dto.availability.AvailabilityRuleSetupRequest;
 import com.company.calendar.exceptions.availability.AvailabilityRulesAlreadyExistsException;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import com.company.calendar.repository.availabilityOverride.InMemoryAvailabilityOverrideRepository;
 import com.company.calendar.repository.availabilityRule.InMemoryAvailabilityRuleRepository;
+import com.company.calendar.repository.holidayCalendar.InMemoryHolidayCalendarRepository;
 import com.company.calendar.service.user.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,13 +45,23 @@ public class CreateAvailabilityRulesConcurrencyTest {
 
     @BeforeEach
     void setUp() {
-        var availabilityRuleRepository = new InMemoryAvailabilityRuleRepository();
+        var storeRecoveryGate = new StoreRecoveryGate();
+        var storeJournal = new StoreJournal(new AppointmentProperties());
+        var availabilityRuleRepository = new InMemoryAvailabilityRuleRepository(storeRecoveryGate, storeJournal);
+        var availabilityOverrideRepository = new InMemoryAvailabilityOverrideRepository(storeRecoveryGate, storeJournal);
+        var holidayCalendarRepository = new InMemoryHolidayCalendarRepository(storeRecoveryGate, storeJournal);
 
         availabilityService = new AvailabilityService(
+                new AppointmentProperties(),
                 availabilityRuleRepository,
+                availabilityOverrideRepository,
+                holidayCalendarRepository,
                 null,
                 availabilityServiceHelper,
-                userService
+                userService,
+                new CompiledAvailability(new AppointmentProperties(), availabilityRuleRepository,
+                        availabilityOverrideRepository, holidayCalendarRepository),
+                new AvailableSlotsCache(new AppointmentProperties(), new SimpleMeterRegistry())
         );
 
         rule = AvailabilityRuleSetupRequest.AvailabilityRuleRequest.builder()
@@ -32,6 +32,12 @@ public class CreateAvailabilityRulesTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @Mock
+    private AvailableSlotsCache availableSlotsCache;
+
     @InjectMocks
     private AvailabilityService availabilityService;
 
@@ -73,6 +79,7 @@ public class CreateAvailabilityRulesTest {
         when(availabilityRuleRepository.saveIfAbsent(any(), any())).thenReturn(true);
         var message = availabilityService.createAvailabilityRules(defaultRequest);
         assertEquals("Availability rules created successfully for owner id: " + ownerId, message);
+        verify(compiledAvailability).refresh(ownerId);
     }
 
     @Test
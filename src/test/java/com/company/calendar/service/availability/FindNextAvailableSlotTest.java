@@ -0,0 +1,171 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.user.UserService;
+import com.company.calendar.utils.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FindNextAvailableSlotTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AvailabilityServiceHelper availabilityServiceHelper;
+
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @Spy
+    private AppointmentProperties appointmentProperties = new AppointmentProperties();
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private final String ownerId = "1";
+    //a Monday
+    private final LocalDate monday = LocalDate.of(2025, 8, 25);
+    private final BitSet nineToEleven = slotStarts(9, 11);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(availabilityServiceHelper.slotAt(any(), anyInt())).thenAnswer(invocation -> {
+            int startMinute = invocation.getArgument(1);
+            return AvailableSlotDto.builder()
+                    .date(invocation.getArgument(0))
+                    .startMinute(startMinute)
+                    .endMinute(startMinute + 60)
+                    .build();
+        });
+    }
+
+    @Test
+    @DisplayName("Days without rules and fully booked days are skipped, the week is read once")
+    void testSkipsFullyBookedDays() {
+        //only Mondays and Wednesdays have slots, Monday is fully booked
+        when(compiledAvailability.slotStartsFor(eq(ownerId), any())).thenAnswer(invocation -> {
+            LocalDate date = invocation.getArgument(1);
+            return date.equals(monday) || date.equals(monday.plusDays(2)) ? nineToEleven : new BitSet();
+        });
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(ownerId, monday.atStartOfDay().minusMinutes(MAX_APPOINTMENT_MINUTES), monday.plusDays(7).atStartOfDay()))
+                .thenReturn(List.of(appointment(monday, 9), appointment(monday, 10), appointment(monday, 11),
+                        appointment(monday.plusDays(2), 9)));
+
+        var slot = availabilityService.findNextAvailableSlot(ownerId, monday.atStartOfDay());
+
+        assertTrue(slot.isPresent());
+        assertEquals(DateUtils.formatDateTime(monday.plusDays(2).atTime(10, 0)), slot.get().getStartDateTime());
+        verify(appointmentRepository, times(1)).findByOwnerIdAndStartTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Slots partially covered by a booking of another length are skipped")
+    void testSkipsPartiallyBookedSlots() {
+        when(compiledAvailability.slotStartsFor(ownerId, monday)).thenReturn(nineToEleven);
+        //09:30 - 10:15 overlaps both the 09:00 and the 10:00 slot
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(eq(ownerId), any(), any()))
+                .thenReturn(List.of(Appointment.builder()
+                        .appointmentId(UUID.randomUUID().toString())
+                        .ownerId(ownerId)
+                        .inviteeId("3")
+                        .startTime(monday.atTime(9, 30))
+                        .endTime(monday.atTime(10, 15))
+                        .build()));
+
+        var slot = availabilityService.findNextAvailableSlot(ownerId, monday.atStartOfDay());
+
+        assertTrue(slot.isPresent());
+        assertEquals(DateUtils.formatDateTime(monday.atTime(11, 0)), slot.get().getStartDateTime());
+    }
+
+    @Test
+    @DisplayName("Booking running past midnight blocks the first slots of the next day")
+    void testSkipsSlotsBookedFromPreviousDay() {
+        when(compiledAvailability.slotStartsFor(ownerId, monday)).thenReturn(slotStarts(0, 2));
+        //Sunday 23:00 - Monday 01:00
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(ownerId, monday.atStartOfDay().minusMinutes(MAX_APPOINTMENT_MINUTES),
+                monday.plusDays(7).atStartOfDay()))
+                .thenReturn(List.of(Appointment.builder()
+                        .appointmentId(UUID.randomUUID().toString())
+                        .ownerId(ownerId)
+                        .inviteeId("3")
+                        .startTime(monday.minusDays(1).atTime(23, 0))
+                        .endTime(monday.atTime(1, 0))
+                        .build()));
+
+        var slot = availabilityService.findNextAvailableSlot(ownerId, monday.atStartOfDay());
+
+        assertTrue(slot.isPresent());
+        assertEquals(DateUtils.formatDateTime(monday.atTime(1, 0)), slot.get().getStartDateTime());
+    }
+
+    @Test
+    @DisplayName("Slots before the requested time on its own day are not returned")
+    void testRespectsAfterTime() {
+        when(compiledAvailability.slotStartsFor(ownerId, monday)).thenReturn(nineToEleven);
+
+        var slot = availabilityService.findNextAvailableSlot(ownerId, monday.atTime(9, 0, 30));
+
+        assertTrue(slot.isPresent());
+        assertEquals(DateUtils.formatDateTime(monday.atTime(10, 0)), slot.get().getStartDateTime());
+    }
+
+    @Test
+    @DisplayName("Nothing within 90 days gives an empty result without reading appointments")
+    void testNoSlotWithinSearchWindow() {
+        when(compiledAvailability.slotStartsFor(eq(ownerId), any())).thenReturn(new BitSet());
+
+        var slot = availabilityService.findNextAvailableSlot(ownerId, monday.atStartOfDay());
+
+        assertTrue(slot.isEmpty());
+        verify(compiledAvailability, times(90)).slotStartsFor(eq(ownerId), any());
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    private BitSet slotStarts(int fromHour, int toHour) {
+        var rule = AvailabilityRule.builder()
+                .ownerId(ownerId)
+                .dayOfWeek(monday.getDayOfWeek())
+                .startTime(LocalTime.of(fromHour, 0))
+                .endTime(LocalTime.of(toHour, 0))
+                .build();
+        return CompiledAvailability.compileDay(List.of(rule), 60);
+    }
+
+    private Appointment appointment(LocalDate date, int hour) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(date.atTime(hour, 0))
+                .endTime(date.atTime(hour + 1, 0))
+                .build();
+    }
+}
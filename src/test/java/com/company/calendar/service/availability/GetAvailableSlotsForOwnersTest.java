@@ -0,0 +1,100 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.exceptions.user.UserNotFoundException;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.user.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GetAvailableSlotsForOwnersTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AvailabilityServiceHelper availabilityServiceHelper;
+
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private final LocalDate date = LocalDate.of(2025, 8, 25);
+
+    @Test
+    @DisplayName("Slots are keyed by owner in request order, users and appointments are read in bulk")
+    void testForSlotsByOwner() {
+        var ownerIds = new LinkedHashSet<>(List.of("2", "1", "3"));
+        var slotStarts = new BitSet();
+        slotStarts.set(9 * 60);
+        slotStarts.set(10 * 60);
+        when(compiledAvailability.slotStartsFor(any(), eq(date))).thenReturn(slotStarts);
+        when(compiledAvailability.slotStartsFor("3", date)).thenReturn(new BitSet());
+        var ownerOneAppointments = List.of(appointment("1", 9));
+        when(appointmentRepository.findByOwnerIdsAndDate(ownerIds, date))
+                .thenReturn(Map.of("1", ownerOneAppointments, "2", List.of(), "3", List.of()));
+        var ownerOneSlots = List.of(AvailableSlotDto.builder().date(date).startMinute(10 * 60).endMinute(11 * 60).build());
+        when(availabilityServiceHelper.generateAvailableSlots(eq(slotStarts), any(), eq(date)))
+                .thenAnswer(invocation -> ownerOneAppointments.equals(invocation.getArgument(1)) ? ownerOneSlots : List.of());
+
+        var slotsByOwner = availabilityService.getAvailableSlotsForOwners(ownerIds, date);
+
+        assertEquals(List.of("2", "1", "3"), List.copyOf(slotsByOwner.keySet()));
+        assertSame(ownerOneSlots, slotsByOwner.get("1"));
+        assertTrue(slotsByOwner.get("3").isEmpty());
+        verify(userService).validateUsersExist(ownerIds);
+        verify(userService, never()).validateUserExists(any());
+        verify(appointmentRepository, never()).findByOwnerIdAndDate(any(), any());
+        verify(availabilityServiceHelper).generateAvailableSlots(slotStarts, List.of(), date);
+    }
+
+    @Test
+    @DisplayName("Unknown owner fails the whole request")
+    void testForNonExistentOwner() {
+        doThrow(new UserNotFoundException("2")).when(userService).validateUsersExist(any());
+
+        assertThrows(UserNotFoundException.class,
+                () -> availabilityService.getAvailableSlotsForOwners(Set.of("1", "2"), date));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Empty owner ids are rejected")
+    void testForNoOwners() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getAvailableSlotsForOwners(Set.of(), date));
+    }
+
+    private Appointment appointment(String ownerId, int hour) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("9")
+                .startTime(date.atTime(hour, 0))
+                .endTime(date.atTime(hour + 1, 0))
+                .build();
+    }
+}
@@ -1,26 +1,30 @@
 package com.company.calendar.service.availability;
 
+import com.company.calendar.config.AppointmentProperties;
 import com.company.calendar.dto.availability.AvailableSlotDto;
 import com.company.calendar.entity.Appointment;
 import com.company.calendar.entity.AvailabilityRule;
 import com.company.calendar.exceptions.user.UserNotFoundException;
 import com.company.calendar.repository.appointment.AppointmentRepository;
 import com.company.calendar.service.user.UserService;
-import com.company.calendar.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.BitSet;
 import java.util.List;
 import java.util.UUID;
 
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -38,6 +42,12 @@ public class GetAvailableSlotsTest {
     @Mock
     private AvailabilityServiceHelper availabilityServiceHelper;
 
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @Spy
+    private AvailableSlotsCache availableSlotsCache = new AvailableSlotsCache(new AppointmentProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private AvailabilityService availabilityService;
 
@@ -72,8 +82,8 @@ public class GetAvailableSlotsTest {
     @DisplayName("Should return empty list when no availability rules exist for the day")
     void testForEmptyRules() {
         doNothing().when(userService).validateUserExists(any());
-        when(availabilityServiceHelper.getRulesForOwnerAndDay(anyString(), any()))
-                .thenReturn(List.of());
+        when(compiledAvailability.slotStartsFor(anyString(), any()))
+                .thenReturn(new BitSet());
         var slots = availabilityService.getAvailableSlots(ownerId, date);
         assertTrue(slots.isEmpty());
     }
@@ -83,26 +93,29 @@ public class GetAvailableSlotsTest {
     void testForSlotsWhenNoAppointments() {
         doNothing().when(userService).validateUserExists(any());
 
-        when(availabilityServiceHelper.getRulesForOwnerAndDay(anyString(), any()))
-                .thenReturn(List.of(rule));
+        when(compiledAvailability.slotStartsFor(anyString(), any()))
+                .thenReturn(CompiledAvailability.compileDay(List.of(rule), 60));
         when(appointmentRepository.findByOwnerIdAndDate(anyString(), any())).thenReturn(List.of());
 
         List<AvailableSlotDto> slotsExpected = List.of(
                 AvailableSlotDto.builder()
-                        .startDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(9, 0))))
-                        .endDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(10, 0))))
+                        .date(date)
+                        .startMinute(9 * 60)
+                        .endMinute(10 * 60)
                         .build(),
                 AvailableSlotDto.builder()
-                        .startDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(10, 0))))
-                        .endDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(11, 0))))
+                        .date(date)
+                        .startMinute(10 * 60)
+                        .endMinute(11 * 60)
                         .build(),
                 AvailableSlotDto.builder()
-                        .startDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(11, 0))))
-                        .endDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(12, 0))))
+                        .date(date)
+                        .startMinute(11 * 60)
+                        .endMinute(12 * 60)
                         .build()
         );
 
-        when(availabilityServiceHelper.generateAvailableSlotsFromRules(any(), any(), any()))
+        when(availabilityServiceHelper.generateAvailableSlots(any(), any(), any()))
                 .thenReturn(slotsExpected);
 
         var slotsActual = availabilityService.getAvailableSlots(ownerId, date);
@@ -113,8 +126,8 @@ public class GetAvailableSlotsTest {
     @DisplayName("Should exclude booked slots")
     void testForSlotsWithNonEmptyAppointments() {
         doNothing().when(userService).validateUserExists(any());
-        when(availabilityServiceHelper.getRulesForOwnerAndDay(anyString(), any()))
-                .thenReturn(List.of(rule));
+        when(compiledAvailability.slotStartsFor(anyString(), any()))
+                .thenReturn(CompiledAvailability.compileDay(List.of(rule), 60));
 
         var inviteeId = "3";
         var appointmentId = UUID.randomUUID().toString();
@@ -130,20 +143,88 @@ public class GetAvailableSlotsTest {
 
         List<AvailableSlotDto> slotsExpected = List.of(
                 AvailableSlotDto.builder()
-                        .startDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(9, 0))))
-                        .endDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(10, 0))))
+                        .date(date)
+                        .startMinute(9 * 60)
+                        .endMinute(10 * 60)
                         .build(),
                 AvailableSlotDto.builder()
-                        .startDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(11, 0))))
-                        .endDateTime(DateUtils.formatDateTime(LocalDateTime.of(date, LocalTime.of(12, 0))))
+                        .date(date)
+                        .startMinute(11 * 60)
+                        .endMinute(12 * 60)
                         .build()
         );
 
-        when(availabilityServiceHelper.generateAvailableSlotsFromRules(any(), any(), any()))
+        when(availabilityServiceHelper.generateAvailableSlots(any(), any(), any()))
                 .thenReturn(slotsExpected);
 
         var slotsActual = availabilityService.getAvailableSlots(ownerId, date);
         assertEquals(slotsExpected.size(), slotsActual.size());
         assertEquals(2, slotsActual.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Range groups every day's slots by date and reads the appointments of the range once")
+    void testForSlotsInRange() {
+        doNothing().when(userService).validateUserExists(any());
+        var nextDay = date.plusDays(1);
+        var appointment = Appointment.builder()
+                .startTime(LocalDateTime.of(nextDay, LocalTime.of(10, 0)))
+                .endTime(LocalDateTime.of(nextDay, LocalTime.of(11, 0)))
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .appointmentId(UUID.randomUUID().toString())
+                .build();
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(ownerId, date.atStartOfDay().minusMinutes(MAX_APPOINTMENT_MINUTES), date.plusDays(3).atStartOfDay()))
+                .thenReturn(List.of(appointment));
+        var slotStarts = CompiledAvailability.compileDay(List.of(rule), 60);
+        when(compiledAvailability.slotStartsFor(eq(ownerId), any())).thenReturn(new BitSet());
+        when(compiledAvailability.slotStartsFor(ownerId, nextDay)).thenReturn(slotStarts);
+        var slotsExpected = List.of(AvailableSlotDto.builder()
+                .date(nextDay)
+                .startMinute(9 * 60)
+                .endMinute(10 * 60)
+                .build());
+        when(availabilityServiceHelper.generateAvailableSlots(slotStarts, List.of(appointment), nextDay))
+                .thenReturn(slotsExpected);
+
+        var slotsByDate = availabilityService.getAvailableSlotsInRange(ownerId, date, date.plusDays(2));
+
+        assertEquals(List.of(date, nextDay, date.plusDays(2)), List.copyOf(slotsByDate.keySet()));
+        assertTrue(slotsByDate.get(date).isEmpty());
+        assertEquals(slotsExpected, slotsByDate.get(nextDay));
+        verify(appointmentRepository).findByOwnerIdAndStartTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Range longer than 90 days or ending before it starts is rejected")
+    void testForInvalidRange() {
+        when(compiledAvailability.slotStartsFor(any(), any())).thenReturn(new BitSet());
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getAvailableSlotsInRange(ownerId, date, date.plusDays(90)));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getAvailableSlotsInRange(ownerId, date, date.minusDays(1)));
+        assertDoesNotThrow(() -> availabilityService.getAvailableSlotsInRange(ownerId, date, date.plusDays(89)));
+    }
+
+    @Test
+    @DisplayName("ETag stays the same until a booking of the day, a rule change or a change of the owner")
+    void testForETag() {
+        var eTag = availabilityService.getAvailableSlotsETag(ownerId, date);
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+        assertEquals(eTag, availabilityService.getAvailableSlotsETag(ownerId, date));
+
+        availableSlotsCache.invalidateBooking(ownerId, date.plusDays(1).atTime(10, 0), 60);
+        assertEquals(eTag, availabilityService.getAvailableSlotsETag(ownerId, date));
+
+        availableSlotsCache.invalidateBooking(ownerId, date.atTime(10, 0), 60);
+        var bookedETag = availabilityService.getAvailableSlotsETag(ownerId, date);
+        assertNotEquals(eTag, bookedETag);
+
+        availableSlotsCache.invalidateOwner(ownerId);
+        var rulesETag = availabilityService.getAvailableSlotsETag(ownerId, date);
+        assertNotEquals(bookedETag, rulesETag);
+
+        when(userService.getUserVersion(ownerId)).thenReturn(1L);
+        assertNotEquals(rulesETag, availabilityService.getAvailableSlotsETag(ownerId, date));
+    }
+}
@@ -0,0 +1,166 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.exceptions.user.UserNotFoundException;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.user.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GetCollectiveAvailableSlotsTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AvailabilityServiceHelper availabilityServiceHelper;
+
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @Spy
+    private AppointmentProperties appointmentProperties = new AppointmentProperties();
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private final LocalDate date = LocalDate.of(2025, 8, 25);
+
+    @Test
+    @DisplayName("Only slots every owner has in their rules and none of them has booked are returned")
+    void testForIntersection() {
+        //owner 1 is free 9-12 but booked at 10, owner 2 is free 10-13
+        when(compiledAvailability.slotStartsFor("1", date)).thenReturn(slotStarts(9, 12));
+        when(compiledAvailability.slotStartsFor("2", date)).thenReturn(slotStarts(10, 13));
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(eq("1"), any(), any()))
+                .thenReturn(List.of(appointment("1", 10)));
+
+        availabilityService.getCollectiveAvailableSlots(owners("1", "2"), date, date);
+
+        var expected = new BitSet();
+        expected.set(11 * 60);
+        expected.set(12 * 60);
+        verify(availabilityServiceHelper).generateAvailableSlots(expected, List.of(), date);
+        verify(userService, times(2)).validateUserExists(any());
+    }
+
+    @Test
+    @DisplayName("A shorter booking removes every slot it overlaps")
+    void testForPartialOverlap() {
+        //owner 2 is booked 10:30 - 11:15, which overlaps the 10:00 and the 11:00 slot
+        when(compiledAvailability.slotStartsFor("1", date)).thenReturn(slotStarts(9, 12));
+        when(compiledAvailability.slotStartsFor("2", date)).thenReturn(slotStarts(9, 12));
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(eq("2"), any(), any()))
+                .thenReturn(List.of(Appointment.builder()
+                        .appointmentId(UUID.randomUUID().toString())
+                        .ownerId("2")
+                        .inviteeId("3")
+                        .startTime(date.atTime(10, 30))
+                        .endTime(date.atTime(11, 15))
+                        .build()));
+
+        availabilityService.getCollectiveAvailableSlots(owners("1", "2"), date, date);
+
+        var expected = new BitSet();
+        expected.set(9 * 60);
+        expected.set(12 * 60);
+        verify(availabilityServiceHelper).generateAvailableSlots(expected, List.of(), date);
+    }
+
+    @Test
+    @DisplayName("Compiled bitmaps shared with other requests are never modified")
+    void testForSharedBitmapsUntouched() {
+        var first = slotStarts(9, 12);
+        var second = slotStarts(10, 13);
+        when(compiledAvailability.slotStartsFor("1", date)).thenReturn(first);
+        when(compiledAvailability.slotStartsFor("2", date)).thenReturn(second);
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(eq("1"), any(), any()))
+                .thenReturn(List.of(appointment("1", 10)));
+
+        availabilityService.getCollectiveAvailableSlots(owners("1", "2"), date, date);
+
+        assertEquals(slotStarts(9, 12), first);
+        assertEquals(slotStarts(10, 13), second);
+    }
+
+    @Test
+    @DisplayName("Days without a common slot are empty and are not generated")
+    void testForNoCommonSlot() {
+        when(compiledAvailability.slotStartsFor("1", date)).thenReturn(slotStarts(9, 10));
+        when(compiledAvailability.slotStartsFor("2", date)).thenReturn(slotStarts(14, 15));
+
+        var slotsByDate = availabilityService.getCollectiveAvailableSlots(owners("1", "2"), date, date);
+
+        assertEquals(List.of(date), List.copyOf(slotsByDate.keySet()));
+        assertTrue(slotsByDate.get(date).isEmpty());
+        verifyNoInteractions(availabilityServiceHelper);
+    }
+
+    @Test
+    @DisplayName("Unknown owner fails the whole request")
+    void testForNonExistentOwner() {
+        doThrow(new UserNotFoundException("2")).when(userService).validateUserExists("2");
+
+        assertThrows(UserNotFoundException.class,
+                () -> availabilityService.getCollectiveAvailableSlots(owners("1", "2"), date, date));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Empty owner ids or an invalid range are rejected")
+    void testForInvalidRequest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getCollectiveAvailableSlots(Set.of(), date, date));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getCollectiveAvailableSlots(owners("1"), date, date.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getCollectiveAvailableSlots(owners("1"), date, date.plusDays(90)));
+    }
+
+    private static Set<String> owners(String... ownerIds) {
+        return new LinkedHashSet<>(List.of(ownerIds));
+    }
+
+    private BitSet slotStarts(int fromHour, int toHour) {
+        var rule = AvailabilityRule.builder()
+                .ownerId("any")
+                .dayOfWeek(date.getDayOfWeek())
+                .startTime(LocalTime.of(fromHour, 0))
+                .endTime(LocalTime.of(toHour, 0))
+                .build();
+        return CompiledAvailability.compileDay(List.of(rule), 60);
+    }
+
+    private Appointment appointment(String ownerId, int hour) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(date.atTime(hour, 0))
+                .endTime(date.atTime(hour + 1, 0))
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.config.AppointmentProperties;
+import com.company.calendar.dto.availability.AvailabilityOverridesRequest;
+import com.company.calendar.dto.availability.HolidayCalendarRequest;
+import com.company.calendar.enums.AvailabilityOverrideType;
+import com.company.calendar.exceptions.user.UserNotFoundException;
+import com.company.calendar.persistence.StoreJournal;
+import com.company.calendar.persistence.StoreRecoveryGate;
+import com.company.calendar.repository.availabilityOverride.InMemoryAvailabilityOverrideRepository;
+import com.company.calendar.repository.holidayCalendar.InMemoryHolidayCalendarRepository;
+import com.company.calendar.service.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SetAvailabilityOverridesTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AvailableSlotsCache availableSlotsCache;
+
+    private InMemoryAvailabilityOverrideRepository availabilityOverrideRepository;
+    private InMemoryHolidayCalendarRepository holidayCalendarRepository;
+    private AvailabilityService availabilityService;
+
+    private final String ownerId = "1";
+    private final LocalDate date = LocalDate.of(2025, 12, 24);
+
+    @BeforeEach
+    void setUp() {
+        var storeRecoveryGate = new StoreRecoveryGate();
+        var storeJournal = new StoreJournal(new AppointmentProperties());
+        availabilityOverrideRepository = new InMemoryAvailabilityOverrideRepository(storeRecoveryGate, storeJournal);
+        holidayCalendarRepository = new InMemoryHolidayCalendarRepository(storeRecoveryGate, storeJournal);
+        availabilityService = new AvailabilityService(null, null, availabilityOverrideRepository, holidayCalendarRepository,
+                null, null, userService, null, availableSlotsCache);
+    }
+
+    @Test
+    @DisplayName("Overrides and calendar references replace the previous ones and invalidate the owner's cached slots")
+    void testSetOverrides() {
+        holidayCalendarRepository.save("public", Map.of(date.plusDays(1), "Christmas Day"));
+
+        var message = availabilityService.setAvailabilityOverrides(ownerId, request(Set.of("public"),
+                AvailabilityOverridesRequest.AvailabilityOverrideRequest.builder()
+                        .date(date)
+                        .type(AvailabilityOverrideType.EXTRA)
+                        .startTime(LocalTime.of(18, 0))
+                        .endTime(LocalTime.of(20, 0))
+                        .build()));
+
+        assertEquals("Availability overrides saved successfully for owner id: " + ownerId, message);
+        assertEquals(1, availabilityOverrideRepository.findByOwnerIdAndDate(ownerId, date).size());
+        assertTrue(availabilityOverrideRepository.findByOwnerIdAndDate(ownerId, date.plusDays(1)).isEmpty());
+        assertEquals(Set.of("public"), availabilityOverrideRepository.findHolidayCalendarIds(ownerId));
+        verify(availableSlotsCache).invalidateOwner(ownerId);
+
+        availabilityService.setAvailabilityOverrides(ownerId, request(null));
+        assertTrue(availabilityOverrideRepository.findByOwnerIdAndDate(ownerId, date).isEmpty());
+        assertTrue(availabilityOverrideRepository.findHolidayCalendarIds(ownerId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Unknown holiday calendar or owner is rejected without saving")
+    void testInvalidReferences() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.setAvailabilityOverrides(ownerId, request(Set.of("unknown"))));
+
+        doThrow(new UserNotFoundException("2")).when(userService).validateUserExists("2");
+        assertThrows(UserNotFoundException.class,
+                () -> availabilityService.setAvailabilityOverrides("2", request(null)));
+
+        assertTrue(availabilityOverrideRepository.findHolidayCalendarIds(ownerId).isEmpty());
+        verifyNoInteractions(availableSlotsCache);
+    }
+
+    @Test
+    @DisplayName("Saving a holiday calendar invalidates every owner following it")
+    void testSaveHolidayCalendar() {
+        holidayCalendarRepository.save("public", Map.of());
+        availabilityService.setAvailabilityOverrides("1", request(Set.of("public")));
+        availabilityService.setAvailabilityOverrides("2", request(Set.of("public")));
+        availabilityService.setAvailabilityOverrides("3", request(null));
+        clearInvocations(availableSlotsCache);
+
+        availabilityService.saveHolidayCalendar("public", HolidayCalendarRequest.builder()
+                .holidays(List.of(HolidayCalendarRequest.HolidayRequest.builder().date(date).name("Christmas Eve").build()))
+                .build());
+
+        assertTrue(holidayCalendarRepository.isHoliday("public", date));
+        verify(availableSlotsCache).invalidateOwner("1");
+        verify(availableSlotsCache).invalidateOwner("2");
+        verify(availableSlotsCache, times(2)).invalidateOwner(any());
+    }
+
+    private static AvailabilityOverridesRequest request(Set<String> holidayCalendarIds,
+                                                        AvailabilityOverridesRequest.AvailabilityOverrideRequest... overrides) {
+        return AvailabilityOverridesRequest.builder()
+                .overrides(List.of(overrides))
+                .holidayCalendarIds(holidayCalendarIds)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.company.calendar.service.availability;
+
+import com.company.calendar.dto.availability.AvailableSlotDto;
+import com.company.calendar.entity.Appointment;
+import com.company.calendar.entity.AvailabilityRule;
+import com.company.calendar.exceptions.user.UserNotFoundException;
+import com.company.calendar.repository.appointment.AppointmentRepository;
+import com.company.calendar.service.user.UserService;
+import com.company.calendar.utils.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.company.calendar.constants.ApplicationConstants.MAX_APPOINTMENT_MINUTES;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StreamAvailableSlotsTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AvailabilityServiceHelper availabilityServiceHelper;
+
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private final String ownerId = "1";
+    //a Monday
+    private final LocalDate monday = LocalDate.of(2025, 9, 1);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(availabilityServiceHelper.generateAvailableSlots(any(), any(), any())).thenAnswer(invocation -> {
+            BitSet slotStarts = invocation.getArgument(0);
+            Collection<Appointment> appointments = invocation.getArgument(1);
+            LocalDate date = invocation.getArgument(2);
+            return CompiledAvailability.freeSlotStarts(slotStarts, appointments, date, 60).stream()
+                    .mapToObj(minute -> AvailableSlotDto.builder()
+                            .date(date)
+                            .startMinute(minute)
+                            .endMinute(minute + 60)
+                            .build())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Slots of every week are streamed in order, appointments are read once per week that has slots")
+    void testStreamsWeekByWeek() {
+        //only Mondays have slots, the range covers three of them
+        var nineToTen = slotStarts(9, 10);
+        when(compiledAvailability.slotStartsFor(eq(ownerId), any())).thenAnswer(invocation ->
+                ((LocalDate) invocation.getArgument(1)).getDayOfWeek() == monday.getDayOfWeek() ? nineToTen : new BitSet());
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(eq(ownerId), any(), any())).thenReturn(List.of());
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(ownerId, monday.plusDays(7).atStartOfDay().minusMinutes(MAX_APPOINTMENT_MINUTES), monday.plusDays(14).atStartOfDay()))
+                .thenReturn(List.of(appointment(monday.plusDays(7), 9)));
+
+        StepVerifier.create(availabilityService.streamAvailableSlotsInRange(ownerId, monday, monday.plusDays(14)).map(AvailableSlotDto::getStartDateTime))
+                .expectNext(DateUtils.formatDateTime(monday.atTime(9, 0)))
+                .expectNext(DateUtils.formatDateTime(monday.atTime(10, 0)))
+                .expectNext(DateUtils.formatDateTime(monday.plusDays(7).atTime(10, 0)))
+                .expectNext(DateUtils.formatDateTime(monday.plusDays(14).atTime(9, 0)))
+                .expectNext(DateUtils.formatDateTime(monday.plusDays(14).atTime(10, 0)))
+                .verifyComplete();
+
+        verify(appointmentRepository, times(3)).findByOwnerIdAndStartTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Nothing is generated before the subscriber asks for slots")
+    void testGeneratesLazily() {
+        when(compiledAvailability.slotStartsFor(eq(ownerId), any())).thenReturn(slotStarts(9, 10));
+        when(appointmentRepository.findByOwnerIdAndStartTimeBetween(eq(ownerId), any(), any())).thenReturn(List.of());
+
+        var slots = availabilityService.streamAvailableSlotsInRange(ownerId, monday, monday.plusDays(365));
+        verifyNoInteractions(compiledAvailability, appointmentRepository);
+
+        StepVerifier.create(slots, 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        //only the first week was generated
+        verify(appointmentRepository, times(1)).findByOwnerIdAndStartTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Invalid range or unknown owner fails before the stream is returned")
+    void testInvalidRequest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.streamAvailableSlotsInRange(ownerId, monday, monday.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.streamAvailableSlotsInRange(ownerId, monday, monday.plusDays(366)));
+
+        doThrow(new UserNotFoundException("2")).when(userService).validateUserExists("2");
+        assertThrows(UserNotFoundException.class,
+                () -> availabilityService.streamAvailableSlotsInRange("2", monday, monday.plusDays(1)));
+        verifyNoInteractions(compiledAvailability, appointmentRepository);
+    }
+
+    private BitSet slotStarts(int fromHour, int toHour) {
+        var rule = AvailabilityRule.builder()
+                .ownerId(ownerId)
+                .dayOfWeek(monday.getDayOfWeek())
+                .startTime(LocalTime.of(fromHour, 0))
+                .endTime(LocalTime.of(toHour, 0))
+                .build();
+        return CompiledAvailability.compileDay(List.of(rule), 60);
+    }
+
+    private Appointment appointment(LocalDate date, int hour) {
+        return Appointment.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .inviteeId("3")
+                .startTime(date.atTime(hour, 0))
+                .endTime(date.atTime(hour + 1, 0))
+                .build();
+    }
+}
@@ -31,6 +31,12 @@ class UpdateAvailabilityRulesTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CompiledAvailability compiledAvailability;
+
+    @Mock
+    private AvailableSlotsCache availableSlotsCache;
+
     @InjectMocks
     private AvailabilityService availabilityService;
 
@@ -80,4 +80,29 @@ public class UpdateUserTest {
         assertEquals("User updated successfully with id: " + ownerId, resultUpdated.getMessage());
         assertTrue(resultUpdated.isCreated());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("A write changes only the written user's version, details version only when a known user changes")
+    void testUserVersions() {
+        var updateUserRequest = UpdateUserRequest.builder()
+                .name("Galen")
+                .email("galensimmons@dealmerridion.com")
+                .build();
+        when(userRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(userRepository.existsByEmailExcludingId(anyString(), anyString())).thenReturn(false);
+
+        userService.updateUser(ownerId, updateUserRequest);
+        var ownerVersion = userService.getUserVersion(ownerId);
+        assertNotEquals(0, ownerVersion);
+        assertEquals(0, userService.getUserDetailsVersion());
+
+        userService.updateUser("2", updateUserRequest);
+        assertEquals(ownerVersion, userService.getUserVersion(ownerId));
+        assertEquals(0, userService.getUserDetailsVersion());
+
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(User.builder().build()));
+        userService.updateUser(ownerId, updateUserRequest);
+        assertNotEquals(ownerVersion, userService.getUserVersion(ownerId));
+        assertEquals(1, userService.getUserDetailsVersion());
+    }
+}
@@ -1,8 +1,6 @@
 package com.company.calendar.validator;
 
 import com.company.calendar.dto.appointment.BookAppointmentRequest;
-import com.company.calendar.dto.availability.AvailableSlotDto;
-import com.company.calendar.entity.AvailabilityRule;
 import com.company.calendar.exceptions.InvalidStartDateTimeException;
 import com.company.calendar.exceptions.appointment.AvailableSlotNotFoundException;
 import com.company.calendar.exceptions.user.UserNotFoundException;
@@ -17,11 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -98,8 +92,7 @@ public class AppointmentValidatorTest {
     void testWhenNoFreeSlotsPresent() {
         doNothing().when(userService).validateUserExists(any());
         doNothing().when(appointmentTimeValidator).validate(any(), any());
-        when(availabilityServiceHelper.getRulesForOwnerAndDay(any(), any()))
-                .thenReturn(List.of());
+        when(availabilityServiceHelper.isAvailable(any(), any(), anyInt())).thenReturn(false);
         var ex = assertThrows(
                 AvailableSlotNotFoundException.class,
                 () -> appointmentValidator.validateAppointment(request, 60)
@@ -112,30 +105,17 @@ public class AppointmentValidatorTest {
     void testWhenFreeSlotsPresent() {
         doNothing().when(userService).validateUserExists(any());
         doNothing().when(appointmentTimeValidator).validate(any(), any());
-        List<AvailabilityRule> availabilityRules = new ArrayList<>();
-        availabilityRules.add(AvailabilityRule.builder()
-                .dayOfWeek(DayOfWeek.MONDAY)
-                .startTime(LocalTime.of(15, 0))
-                .endTime(LocalTime.of(23, 0))
+        var offGridRequest = BookAppointmentRequest.builder()
                 .ownerId(ownerId)
-                .build());
-        when(availabilityServiceHelper.getRulesForOwnerAndDay(any(), any()))
-                .thenReturn(availabilityRules);
-        List<AvailableSlotDto> availableSlotDtos = new ArrayList<>();
-        availableSlotDtos.add(AvailableSlotDto.builder()
-                .startDateTime(DateUtils.formatDateTime(startDateTime))
-                .endDateTime(DateUtils.formatDateTime(startDateTime.plusMinutes(60)))
-                .build());
-        when(availabilityServiceHelper.generateAvailableSlotsFromRules(any(), any(), any()))
-                .thenReturn(availableSlotDtos);
-
-        when(availabilityServiceHelper.generateAvailableSlotsFromRules(any(), any(), any()))
-                .thenReturn(List.of());
+                .inviteeId(inviteeId)
+                .startDateTime(startDateTime.plusMinutes(30))
+                .build();
+        when(availabilityServiceHelper.isAvailable(ownerId, startDateTime.plusMinutes(30), 60)).thenReturn(false);
         var ex = assertThrows(
                 AvailableSlotNotFoundException.class,
-                () -> appointmentValidator.validateAppointment(request, 60)
+                () -> appointmentValidator.validateAppointment(offGridRequest, 60)
         );
-        assertEquals("No available slot found at: " + DateUtils.formatDateTime(startDateTime) + " for owner: " + ownerId, ex.getMessage());
+        assertEquals("No available slot found at: " + DateUtils.formatDateTime(startDateTime.plusMinutes(30)) + " for owner: " + ownerId, ex.getMessage());
     }
 
     @Test
@@ -143,24 +123,9 @@ public class AppointmentValidatorTest {
     void testCorrectAppointmentValidation() {
         doNothing().when(userService).validateUserExists(any());
         doNothing().when(appointmentTimeValidator).validate(any(), any());
-        List<AvailabilityRule> availabilityRules = new ArrayList<>();
-        availabilityRules.add(AvailabilityRule.builder()
-                .dayOfWeek(DayOfWeek.MONDAY)
-                .startTime(LocalTime.of(15, 0))
-                .endTime(LocalTime.of(23, 0))
-                .ownerId(ownerId)
-                .build());
-        when(availabilityServiceHelper.getRulesForOwnerAndDay(any(), any()))
-                .thenReturn(availabilityRules);
-        List<AvailableSlotDto> availableSlotDtos = new ArrayList<>();
-        availableSlotDtos.add(AvailableSlotDto.builder()
-                .startDateTime(DateUtils.formatDateTime(startDateTime))
-                .endDateTime(DateUtils.formatDateTime(startDateTime.plusMinutes(60)))
-                .build());
-        when(availabilityServiceHelper.generateAvailableSlotsFromRules(any(), any(), any()))
-                .thenReturn(availableSlotDtos);
+        when(availabilityServiceHelper.isAvailable(ownerId, startDateTime, 60)).thenReturn(true);
 
         var result = appointmentValidator.validateAppointment(request, 60);
         assertTrue(result);
     }
-}
\ No newline at end of file
+}
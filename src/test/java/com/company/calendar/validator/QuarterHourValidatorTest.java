@@ -0,0 +1,73 @@
+package com.company.calendar.validator;
+
+import com.company.calendar.exceptions.InvalidStartDateTimeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class QuarterHourValidatorTest {
+
+    @InjectMocks
+    private QuarterHourValidator quarterHourValidator;
+
+    @Test
+    @DisplayName("Quarter hour starts with lengths in 15 minute steps are accepted")
+    void testValidAppointments() {
+        var startDateTime = LocalDateTime.of(2025, 8, 25, 9, 15);
+        assertDoesNotThrow(() -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(15)));
+        assertDoesNotThrow(() -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(45)));
+        assertDoesNotThrow(() -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(90)));
+
+        var lastQuarter = LocalDateTime.of(2025, 8, 25, 23, 45);
+        assertDoesNotThrow(() -> quarterHourValidator.validate(lastQuarter, lastQuarter.plusMinutes(15)));
+    }
+
+    @Test
+    @DisplayName("Start time off the quarter hour grid")
+    void testStartTimeOffGrid() {
+        var startDateTime = LocalDateTime.of(2025, 8, 25, 9, 10);
+        var ex = assertThrows(
+                InvalidStartDateTimeException.class,
+                () -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(30))
+        );
+        assertEquals("Appointments must start on a quarter hour", ex.getMessage());
+
+        var withSeconds = LocalDateTime.of(2025, 8, 25, 9, 15, 30);
+        assertThrows(InvalidStartDateTimeException.class,
+                () -> quarterHourValidator.validate(withSeconds, withSeconds.plusMinutes(30)));
+    }
+
+    @Test
+    @DisplayName("Length that is not a positive multiple of 15 minutes or too long")
+    void testInvalidLength() {
+        var startDateTime = LocalDateTime.of(2025, 8, 25, 9, 0);
+        var ex = assertThrows(
+                InvalidStartDateTimeException.class,
+                () -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(20))
+        );
+        assertEquals("Appointment must last a multiple of 15 minutes, at most 480 minutes", ex.getMessage());
+
+        assertThrows(InvalidStartDateTimeException.class,
+                () -> quarterHourValidator.validate(startDateTime, startDateTime));
+        assertThrows(InvalidStartDateTimeException.class,
+                () -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(495)));
+    }
+
+    @Test
+    @DisplayName("Appointment running past midnight")
+    void testPastMidnight() {
+        var startDateTime = LocalDateTime.of(2025, 8, 25, 23, 30);
+        var ex = assertThrows(
+                InvalidStartDateTimeException.class,
+                () -> quarterHourValidator.validate(startDateTime, startDateTime.plusMinutes(45))
+        );
+        assertEquals("Appointment must end on the day it starts", ex.getMessage());
+    }
+}